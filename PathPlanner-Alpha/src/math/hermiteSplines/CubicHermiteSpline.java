@@ -6,38 +6,71 @@ import java.awt.geom.Point2D;
 
 public class CubicHermiteSpline
 {
+    // BASIS[j][k] is the coefficient of t^k in H3_j
+    private static final double[][] BASIS = {
+            {1, 0, -3, 2},
+            {0, 1, -2, 1},
+            {0, 0, -1, 1},
+            {0, 0, 3, -2}};
+
     Point2D p1,p2;
     Vector2D v1,v2;
 
+    private double[] x, y, dx, dy, ddx, ddy;
+
     public CubicHermiteSpline(Point2D p1, Vector2D v1, Point2D p2, Vector2D v2)
     {
         this.p1 = p1;
         this.p2 = p2;
         this.v1 = v1;
         this.v2 = v2;
+        recalculate();
     }
 
-    public Point2D generatePoint(double t)
+    /**
+     * Recomputes the polynomial coefficients. Must be called after the points or vectors of the spline change
+     */
+    public void recalculate()
     {
-        double H30 = H3_0(t);
-        double H31 = H3_1(t);
-        double H32 = H3_2(t);
-        double H33 = H3_3(t);
-
-        return new Point2D.Double(H30 * p1.getX() + H31 * v1.getX() + H32 * v2.getX() + H33 * p2.getX(),
-                H30 * p1.getY() + H31 * v1.getY() + H32 * v2.getY() + H33 * p2.getY());
+        x = HermiteBasis.toPowerBasis(BASIS, p1.getX(), v1.getX(), v2.getX(), p2.getX());
+        y = HermiteBasis.toPowerBasis(BASIS, p1.getY(), v1.getY(), v2.getY(), p2.getY());
+        dx = HermiteBasis.derivative(x);
+        dy = HermiteBasis.derivative(y);
+        ddx = HermiteBasis.derivative(dx);
+        ddy = HermiteBasis.derivative(dy);
     }
 
-    private double H3_0(double t)
-    { return 1 - 3 * Math.pow(t,2) + 2 * Math.pow(t,3); }
-
-    private double H3_1(double t)
-    { return t - 2 * Math.pow(t,2) + Math.pow(t,3); }
+    public Point2D generatePoint(double t)
+    { return new Point2D.Double(HermiteBasis.evaluate(x, t), HermiteBasis.evaluate(y, t)); }
 
-    private double H3_2(double t)
-    { return -1 * Math.pow(t,2) + Math.pow(t,3); }
+    /**
+     * Evaluates the spline at t[0] to t[count - 1] without creating any objects
+     * @param t the values of t
+     * @param count the number of values
+     * @param xs receives the x coordinates
+     * @param ys receives the y coordinates
+     */
+    public void generatePoints(double[] t, int count, double[] xs, double[] ys)
+    {
+        HermiteBasis.evaluate(x, t, count, xs);
+        HermiteBasis.evaluate(y, t, count, ys);
+    }
 
-    private double H3_3(double t)
-    { return 3 * Math.pow(t,2) - 2 * Math.pow(t,3); }
+    /**
+     * Evaluates the first derivative of the spline at t[0] to t[count - 1] without creating any objects
+     */
+    public void generateDerivatives(double[] t, int count, double[] dxs, double[] dys)
+    {
+        HermiteBasis.evaluate(dx, t, count, dxs);
+        HermiteBasis.evaluate(dy, t, count, dys);
+    }
 
+    /**
+     * Evaluates the second derivative of the spline at t[0] to t[count - 1] without creating any objects
+     */
+    public void generateSecondDerivatives(double[] t, int count, double[] ddxs, double[] ddys)
+    {
+        HermiteBasis.evaluate(ddx, t, count, ddxs);
+        HermiteBasis.evaluate(ddy, t, count, ddys);
+    }
 }
@@ -0,0 +1,62 @@
+package math.hermiteSplines;
+
+/**
+ * Helpers shared by the Hermite splines for evaluating them in batches. A spline turns its points and vectors into the
+ * power basis coefficients of x(t) and y(t) once, by multiplying them with its basis matrix, and every batch is then
+ * evaluated with Horner's method. The batch loops run Horner's method across the whole array, one coefficient at a time,
+ * so every inner loop is a plain multiply-add over arrays that the JIT can vectorize.
+ */
+final class HermiteBasis
+{
+    private HermiteBasis() {}
+
+    /**
+     * Multiplies the geometry with the basis matrix
+     * @param basis basis[j][k] is the coefficient of t^k in the basis function of geometry[j]
+     * @param geometry one coordinate of every point and vector, in the order of the basis functions
+     * @return the coefficients of the polynomial, lowest power first
+     */
+    static double[] toPowerBasis(double[][] basis, double... geometry)
+    {
+        double[] coefficients = new double[basis[0].length];
+        for(int j = 0; j < basis.length; j++)
+            for(int k = 0; k < coefficients.length; k++)
+                coefficients[k] += geometry[j] * basis[j][k];
+        return coefficients;
+    }
+
+    /**
+     * Gets the coefficients of the derivative of the polynomial
+     */
+    static double[] derivative(double[] coefficients)
+    {
+        double[] derivative = new double[Math.max(1, coefficients.length - 1)];
+        for(int k = 1; k < coefficients.length; k++)
+            derivative[k - 1] = k * coefficients[k];
+        return derivative;
+    }
+
+    static double evaluate(double[] coefficients, double t)
+    {
+        double value = coefficients[coefficients.length - 1];
+        for(int k = coefficients.length - 2; k >= 0; k--)
+            value = value * t + coefficients[k];
+        return value;
+    }
+
+    /**
+     * Evaluates the polynomial at t[0] to t[count - 1] into out[0] to out[count - 1]
+     */
+    static void evaluate(double[] coefficients, double[] t, int count, double[] out)
+    {
+        double last = coefficients[coefficients.length - 1];
+        for(int i = 0; i < count; i++)
+            out[i] = last;
+        for(int k = coefficients.length - 2; k >= 0; k--)
+        {
+            double coefficient = coefficients[k];
+            for(int i = 0; i < count; i++)
+                out[i] = out[i] * t[i] + coefficient;
+        }
+    }
+}
@@ -6,9 +6,20 @@ import java.awt.geom.Point2D;
 
 public class QuinticHermiteSpline
 {
+    // BASIS[j][k] is the coefficient of t^k in the basis function of the j-th of p1, v1, a1, a2, v2 and p2
+    private static final double[][] BASIS = {
+            {1, 0, 0, -10, 15, -6},
+            {0, 1, 0, -6, 8, -3},
+            {0, 0, 0.5, -1.5, 1.5, -0.5},
+            {0, 0, 0, 0.5, -1, 0.5},
+            {0, 0, 0, -4, 7, -3},
+            {0, 0, 0, 10, -15, 6}};
+
     Point2D p1,p2;
     Vector2D v1, v2, a1, a2;
 
+    private double[] x, y, dx, dy, ddx, ddy;
+
     public QuinticHermiteSpline(Point2D p1, Vector2D v1, Vector2D a1, Point2D p2, Vector2D v2, Vector2D a2)
     {
         this.p1 = p1;
@@ -17,20 +28,54 @@ public class QuinticHermiteSpline
         this.v2 = v2;
         this.a1 = a1;
         this.a2 = a2;
+        recalculate();
+    }
+
+    /**
+     * Recomputes the polynomial coefficients. Must be called after the points or vectors of the spline change
+     */
+    public void recalculate()
+    {
+        x = HermiteBasis.toPowerBasis(BASIS, p1.getX(), v1.getX(), a1.getX(), a2.getX(), v2.getX(), p2.getX());
+        y = HermiteBasis.toPowerBasis(BASIS, p1.getY(), v1.getY(), a1.getY(), a2.getY(), v2.getY(), p2.getY());
+        dx = HermiteBasis.derivative(x);
+        dy = HermiteBasis.derivative(y);
+        ddx = HermiteBasis.derivative(dx);
+        ddy = HermiteBasis.derivative(dy);
     }
 
     public Point2D generatePoint(double t)
+    { return new Point2D.Double(HermiteBasis.evaluate(x, t), HermiteBasis.evaluate(y, t)); }
+
+    /**
+     * Evaluates the spline at t[0] to t[count - 1] without creating any objects
+     * @param t the values of t
+     * @param count the number of values
+     * @param xs receives the x coordinates
+     * @param ys receives the y coordinates
+     */
+    public void generatePoints(double[] t, int count, double[] xs, double[] ys)
+    {
+        HermiteBasis.evaluate(x, t, count, xs);
+        HermiteBasis.evaluate(y, t, count, ys);
+    }
+
+    /**
+     * Evaluates the first derivative of the spline at t[0] to t[count - 1] without creating any objects
+     */
+    public void generateDerivatives(double[] t, int count, double[] dxs, double[] dys)
+    {
+        HermiteBasis.evaluate(dx, t, count, dxs);
+        HermiteBasis.evaluate(dy, t, count, dys);
+    }
+
+    /**
+     * Evaluates the second derivative of the spline at t[0] to t[count - 1] without creating any objects
+     */
+    public void generateSecondDerivatives(double[] t, int count, double[] ddxs, double[] ddys)
     {
-        double H50 = H5_0(t);
-        double H51 = H5_1(t);
-        double H52 = H5_2(t);
-        double H53 = H5_3(t);
-        double H54 = H5_4(t);
-        double H55 = H5_5(t);
-
-        return new Point2D.Double(H50 * p1.getX() + H51 * v1.getX() + H52 * a1.getX() + H53 * a2.getX() + H54 * v2.getX() +
-                H55 * p2.getX(), H50 * p1.getY() + H51 * v1.getY() + H52 * a1.getY() + H53 * a2.getY() + H54 * v2.getY() +
-                H55 * p2.getY());
+        HermiteBasis.evaluate(ddx, t, count, ddxs);
+        HermiteBasis.evaluate(ddy, t, count, ddys);
     }
 
     public double H5_0(double t)
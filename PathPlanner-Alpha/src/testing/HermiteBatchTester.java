@@ -0,0 +1,164 @@
+package testing;
+
+import math.Vector2D;
+import math.hermiteSplines.CubicHermiteSpline;
+import math.hermiteSplines.QuinticHermiteSpline;
+
+import java.awt.geom.Point2D;
+import java.util.Random;
+
+/**
+ * Checks the batch evaluation of the Hermite splines against generatePoint, the quintic H5 basis functions, the cubic
+ * basis functions and the end conditions of every spline. Prints every failed check and exits with a non zero status if
+ * any check failed
+ */
+public class HermiteBatchTester
+{
+    private static final int COUNT = 101;
+    private static int failures = 0;
+
+    public static void main(String[] args)
+    {
+        Random random = new Random(22);
+        double[] t = new double[COUNT];
+        for(int i = 0; i < COUNT; i++)
+            t[i] = (double) i / (COUNT - 1);
+
+        for(int round = 0; round < 50; round++)
+        {
+            Point2D p1 = randomPoint(random), p2 = randomPoint(random);
+            Vector2D v1 = randomVector(random), v2 = randomVector(random), a1 = randomVector(random), a2 = randomVector(random);
+
+            CubicHermiteSpline cubic = new CubicHermiteSpline(p1, v1, p2, v2);
+            checkCubic(cubic, t, p1, v1, p2, v2);
+            QuinticHermiteSpline quintic = new QuinticHermiteSpline(p1, v1, a1, p2, v2, a2);
+            checkQuintic(quintic, t, p1, v1, a1, p2, v2, a2);
+
+            // moving a point only takes effect after recalculate
+            p2.setLocation(p2.getX() + 1, p2.getY() - 1);
+            cubic.recalculate();
+            checkCubic(cubic, t, p1, v1, p2, v2);
+            quintic.recalculate();
+            checkQuintic(quintic, t, p1, v1, a1, p2, v2, a2);
+        }
+
+        if(failures > 0)
+        {
+            System.out.println(failures + " checks failed");
+            System.exit(1);
+        }
+        System.out.println("All Hermite spline checks passed");
+    }
+
+    private static void checkCubic(CubicHermiteSpline spline, double[] t, Point2D p1, Vector2D v1, Point2D p2, Vector2D v2)
+    {
+        double[] xs = new double[COUNT], ys = new double[COUNT], dxs = new double[COUNT], dys = new double[COUNT];
+        double[] ddxs = new double[COUNT], ddys = new double[COUNT];
+        spline.generatePoints(t, COUNT, xs, ys);
+        spline.generateDerivatives(t, COUNT, dxs, dys);
+        spline.generateSecondDerivatives(t, COUNT, ddxs, ddys);
+
+        for(int i = 0; i < COUNT; i++)
+        {
+            double s = t[i];
+            double h00 = 2 * s * s * s - 3 * s * s + 1, h10 = s * s * s - 2 * s * s + s;
+            double h01 = -2 * s * s * s + 3 * s * s, h11 = s * s * s - s * s;
+            Point2D point = spline.generatePoint(s);
+            check("cubic generatePoints x", point.getX(), xs[i]);
+            check("cubic generatePoints y", point.getY(), ys[i]);
+            check("cubic basis x", h00 * p1.getX() + h10 * v1.getX() + h01 * p2.getX() + h11 * v2.getX(), xs[i]);
+            check("cubic basis y", h00 * p1.getY() + h10 * v1.getY() + h01 * p2.getY() + h11 * v2.getY(), ys[i]);
+            checkDerivatives("cubic", spline::generatePoints, t, i, xs, ys, dxs, dys, ddxs, ddys);
+        }
+
+        check("cubic start x", p1.getX(), xs[0]);
+        check("cubic start y", p1.getY(), ys[0]);
+        check("cubic end x", p2.getX(), xs[COUNT - 1]);
+        check("cubic end y", p2.getY(), ys[COUNT - 1]);
+        check("cubic start velocity x", v1.getX(), dxs[0]);
+        check("cubic start velocity y", v1.getY(), dys[0]);
+        check("cubic end velocity x", v2.getX(), dxs[COUNT - 1]);
+        check("cubic end velocity y", v2.getY(), dys[COUNT - 1]);
+    }
+
+    private static void checkQuintic(QuinticHermiteSpline spline, double[] t, Point2D p1, Vector2D v1, Vector2D a1,
+                                     Point2D p2, Vector2D v2, Vector2D a2)
+    {
+        double[] xs = new double[COUNT], ys = new double[COUNT], dxs = new double[COUNT], dys = new double[COUNT];
+        double[] ddxs = new double[COUNT], ddys = new double[COUNT];
+        spline.generatePoints(t, COUNT, xs, ys);
+        spline.generateDerivatives(t, COUNT, dxs, dys);
+        spline.generateSecondDerivatives(t, COUNT, ddxs, ddys);
+
+        for(int i = 0; i < COUNT; i++)
+        {
+            double s = t[i];
+            Point2D point = spline.generatePoint(s);
+            check("quintic generatePoints x", point.getX(), xs[i]);
+            check("quintic generatePoints y", point.getY(), ys[i]);
+            check("quintic H5 x", spline.H5_0(s) * p1.getX() + spline.H5_1(s) * v1.getX() + spline.H5_2(s) * a1.getX()
+                    + spline.H5_3(s) * a2.getX() + spline.H5_4(s) * v2.getX() + spline.H5_5(s) * p2.getX(), xs[i]);
+            check("quintic H5 y", spline.H5_0(s) * p1.getY() + spline.H5_1(s) * v1.getY() + spline.H5_2(s) * a1.getY()
+                    + spline.H5_3(s) * a2.getY() + spline.H5_4(s) * v2.getY() + spline.H5_5(s) * p2.getY(), ys[i]);
+            checkDerivatives("quintic", spline::generatePoints, t, i, xs, ys, dxs, dys, ddxs, ddys);
+        }
+
+        check("quintic start x", p1.getX(), xs[0]);
+        check("quintic start y", p1.getY(), ys[0]);
+        check("quintic end x", p2.getX(), xs[COUNT - 1]);
+        check("quintic end y", p2.getY(), ys[COUNT - 1]);
+        check("quintic start velocity x", v1.getX(), dxs[0]);
+        check("quintic start velocity y", v1.getY(), dys[0]);
+        check("quintic end velocity x", v2.getX(), dxs[COUNT - 1]);
+        check("quintic end velocity y", v2.getY(), dys[COUNT - 1]);
+        check("quintic start acceleration x", a1.getX(), ddxs[0]);
+        check("quintic start acceleration y", a1.getY(), ddys[0]);
+        check("quintic end acceleration x", a2.getX(), ddxs[COUNT - 1]);
+        check("quintic end acceleration y", a2.getY(), ddys[COUNT - 1]);
+    }
+
+    /**
+     * Compares the derivatives at t[i] with central differences of the points and of the derivatives
+     */
+    private static void checkDerivatives(String name, Evaluator points, double[] t, int i, double[] xs, double[] ys,
+                                         double[] dxs, double[] dys, double[] ddxs, double[] ddys)
+    {
+        double h = 1e-5;
+        double[] around = {t[i] - h, t[i] + h}, x = new double[2], y = new double[2];
+        points.evaluate(around, 2, x, y);
+        checkClose(name + " derivative x", (x[1] - x[0]) / (2 * h), dxs[i], 1e-4);
+        checkClose(name + " derivative y", (y[1] - y[0]) / (2 * h), dys[i], 1e-4);
+        // the second derivative from the points, with a wider step so rounding does not dominate
+        double[] wide = {t[i] - 1e-3, t[i], t[i] + 1e-3};
+        double[] wx = new double[3], wy = new double[3];
+        points.evaluate(wide, 3, wx, wy);
+        checkClose(name + " second derivative x", (wx[2] - 2 * wx[1] + wx[0]) / 1e-6, ddxs[i], 1e-2);
+        checkClose(name + " second derivative y", (wy[2] - 2 * wy[1] + wy[0]) / 1e-6, ddys[i], 1e-2);
+    }
+
+    private static void check(String name, double expected, double actual)
+    { checkClose(name, expected, actual, 1e-9); }
+
+    private static void checkClose(String name, double expected, double actual, double tolerance)
+    {
+        if(Math.abs(expected - actual) > tolerance * Math.max(1, Math.abs(expected)))
+        {
+            failures++;
+            System.out.println(name + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static Point2D randomPoint(Random random)
+    { return new Point2D.Double(random.nextDouble() * 500, random.nextDouble() * 500); }
+
+    private static Vector2D randomVector(Random random)
+    { return new Vector2D(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100); }
+
+    /**
+     * Batch evaluation of a spline
+     */
+    private interface Evaluator
+    {
+        void evaluate(double[] t, int count, double[] xs, double[] ys);
+    }
+}
@@ -0,0 +1,70 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.HPAStar;
+import com.pathplanner.pathplanners.JumpPointSearch;
+import com.pathplanner.pathplanners.PathFinder;
+import com.pathplanner.world.environment.Grid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a corner to corner path segment on a random Grid. The engine parameter compares the default AStar search
+ * against the indexed search, Jump Point Search and HPAStar on the same map. Every engine follows the same movement
+ * rules, with corners allowed and cut, so they solve the same problem; all but HPAStar also return paths of the same
+ * length. The abstract graph of HPAStar and the JPS+ tables are built during setup, so only the query itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AStarBenchmark
+{
+    @Param({"64", "256", "1024"})
+    public int mapSize;
+
+    @Param({"0.0", "0.1", "0.3"})
+    public double obstacleDensity;
+
+    @Param({"DEFAULT", "INDEXED", "JPS", "JPS_PLUS", "HPA"})
+    public String engine;
+
+    private PathFinder<Grid> pathFinder;
+    private Point2D<Integer> start, end;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Grid grid = BenchmarkMaps.randomGrid(mapSize, obstacleDensity);
+        start = new Point2D<>(0, 0);
+        end = new Point2D<>(mapSize - 1, mapSize - 1);
+
+        if(engine.startsWith("JPS"))
+        {
+            JumpPointSearch jumpPointSearch = new JumpPointSearch(grid);
+            jumpPointSearch.setPrecomputed(engine.equals("JPS_PLUS"));
+            jumpPointSearch.generatePathSegment(start, end, true);
+            pathFinder = jumpPointSearch;
+        }
+        else if(engine.equals("HPA"))
+        {
+            pathFinder = new HPAStar(grid);
+            pathFinder.generatePathSegment(start, end, true);
+        }
+        else
+        {
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(engine.equals("INDEXED"));
+            pathFinder = aStar;
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Point2D> generatePathSegment()
+    { return pathFinder.generatePathSegment(start, end, true); }
+}
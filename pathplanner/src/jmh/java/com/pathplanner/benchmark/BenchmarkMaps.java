@@ -0,0 +1,72 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.actor.planeActor.PlaneLineActor;
+import com.pathplanner.world.actor.properties.BarrierProperties;
+import com.pathplanner.world.environment.Grid;
+import com.pathplanner.world.environment.Plane;
+
+import java.util.Random;
+
+/**
+ * Builds the random Environments the benchmarks run on. Every map is generated from a fixed seed so that results can
+ * be compared between runs and between pathfinders.
+ */
+public final class BenchmarkMaps
+{
+    public static final long SEED = 20201017L;
+
+    private BenchmarkMaps() {}
+
+    /**
+     * Creates a square Grid where each cell holds a solid actor with the given probability. The top left and bottom
+     * right corners are always left empty so they can be used as start and end points.
+     * @param size the number of rows and columns
+     * @param density the probability a cell is solid
+     * @return the generated Grid
+     */
+    public static Grid randomGrid(int size, double density)
+    {
+        Grid grid = new Grid(size, size);
+        Random random = new Random(SEED);
+        for(int y = 0; y < size; y++)
+            for(int x = 0; x < size; x++)
+                if(random.nextDouble() < density && !(x == 0 && y == 0) && !(x == size - 1 && y == size - 1))
+                    grid.addActor(new Barrier(x, y));
+        return grid;
+    }
+
+    /**
+     * Creates a square Plane with the given number of solid line actors of random position, angle and length. The
+     * lines are kept away from the top left and bottom right corners.
+     * @param size the length and width of the Plane
+     * @param actorCount the number of PlaneLineActors
+     * @return the generated Plane
+     */
+    public static Plane randomPlane(int size, int actorCount)
+    {
+        Plane plane = new Plane(size, size);
+        Random random = new Random(SEED);
+        double margin = size * 0.05, maxLength = size * 0.1;
+        for(int i = 0; i < actorCount; i++)
+        {
+            double x = margin + random.nextDouble() * (size - 2 * margin);
+            double y = margin + random.nextDouble() * (size - 2 * margin);
+            double angle = random.nextDouble() * 2 * Math.PI, length = random.nextDouble() * maxLength;
+            double x2 = Math.max(margin, Math.min(size - margin, x + Math.cos(angle) * length));
+            double y2 = Math.max(margin, Math.min(size - margin, y + Math.sin(angle) * length));
+            plane.addActor(new PlaneLineActor(new Point2D<Double>(x, y), new Point2D<Double>(x2, y2), new BarrierProperties()));
+        }
+        return plane;
+    }
+
+    /**
+     * A solid GridActor used as a barrier in the benchmark Grids
+     */
+    static class Barrier extends GridActor
+    {
+        Barrier(int x, int y)
+        { super(new Point2D<Integer>(x, y), new BarrierProperties()); }
+    }
+}
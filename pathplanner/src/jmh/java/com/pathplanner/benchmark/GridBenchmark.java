@@ -0,0 +1,48 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Grid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Grid.getEmptyNeighboringPositions at random cells of a random Grid
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark
+{
+    private static final int QUERIES = 1024;
+
+    @Param({"64", "256", "1024"})
+    public int mapSize;
+
+    @Param({"0.0", "0.1", "0.3"})
+    public double obstacleDensity;
+
+    private Grid grid;
+    private Point2D<Integer>[] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        grid = BenchmarkMaps.randomGrid(mapSize, obstacleDensity);
+        Random random = new Random(BenchmarkMaps.SEED);
+        points = new Point2D[QUERIES];
+        for(int i = 0; i < QUERIES; i++)
+            points[i] = new Point2D<>(random.nextInt(mapSize), random.nextInt(mapSize));
+    }
+
+    @Benchmark
+    public Set<Point2D<Integer>> getEmptyNeighboringPositions()
+    { return grid.getEmptyNeighboringPositions(points[next++ & (QUERIES - 1)], true); }
+}
@@ -0,0 +1,43 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Line2D;
+import com.pathplanner.geometry.Point2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Line2D.linesIntersect on random pairs of segments
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Line2DBenchmark
+{
+    private static final int LINES = 1024;
+
+    private Line2D<Double>[] lines;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        Random random = new Random(BenchmarkMaps.SEED);
+        lines = new Line2D[LINES];
+        for(int i = 0; i < LINES; i++)
+            lines[i] = new Line2D<>(new Point2D<>(random.nextDouble() * 100, random.nextDouble() * 100),
+                    new Point2D<>(random.nextDouble() * 100, random.nextDouble() * 100));
+    }
+
+    @Benchmark
+    public boolean linesIntersect()
+    {
+        int i = next++ & (LINES - 1);
+        return Line2D.linesIntersect(lines[i], lines[(i + 1) & (LINES - 1)]);
+    }
+}
@@ -0,0 +1,43 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.LineOfSightStar;
+import com.pathplanner.world.environment.Plane;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a corner to corner path segment on a Plane filled with random PlaneLineActors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineOfSightStarBenchmark
+{
+    @Param({"500"})
+    public int mapSize;
+
+    @Param({"10", "50", "200"})
+    public int actorCount;
+
+    private LineOfSightStar pathFinder;
+    private Point2D<Double> start, end;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Plane plane = BenchmarkMaps.randomPlane(mapSize, actorCount);
+        pathFinder = new LineOfSightStar(plane);
+        start = new Point2D<>(1.0, 1.0);
+        end = new Point2D<>(mapSize - 1.0, mapSize - 1.0);
+    }
+
+    @Benchmark
+    public ArrayList<Point2D> generatePathSegment()
+    { return pathFinder.generatePathSegment(start, end, false); }
+}
@@ -0,0 +1,50 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathprocessing.ParametricPath;
+import com.pathplanner.pathprocessing.PathSampler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sampling a ParametricPath by distance into a reused array
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathSamplerBenchmark
+{
+    @Param({"0.1", "1"})
+    public double step;
+
+    private PathSampler sampler;
+    private double[] samples;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Random random = new Random(42);
+        List<Point2D<Double>> points = new ArrayList<>();
+        for(int i = 0; i < 100; i++)
+            points.add(new Point2D<Double>(random.nextDouble() * 100, random.nextDouble() * 100));
+        sampler = new ParametricPath(points).sampleByDistance(step);
+        samples = new double[256 * PathSampler.STRIDE];
+    }
+
+    @Benchmark
+    public double sampleByDistance()
+    {
+        double sum = 0;
+        sampler.reset();
+        for(int count; (count = sampler.fill(samples, 0, 256)) > 0; )
+            sum += samples[(count - 1) * PathSampler.STRIDE + 1];
+        return sum;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Plane;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Plane.LineOfSight for random segments across a Plane filled with random PlaneLineActors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaneBenchmark
+{
+    private static final int QUERIES = 1024;
+
+    @Param({"500"})
+    public int mapSize;
+
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    private Plane plane;
+    private Point2D<Double>[] starts, ends;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        plane = BenchmarkMaps.randomPlane(mapSize, actorCount);
+        Random random = new Random(BenchmarkMaps.SEED);
+        starts = new Point2D[QUERIES];
+        ends = new Point2D[QUERIES];
+        for(int i = 0; i < QUERIES; i++)
+        {
+            starts[i] = new Point2D<>(random.nextDouble() * mapSize, random.nextDouble() * mapSize);
+            ends[i] = new Point2D<>(random.nextDouble() * mapSize, random.nextDouble() * mapSize);
+        }
+    }
+
+    @Benchmark
+    public boolean lineOfSight()
+    {
+        int i = next++ & (QUERIES - 1);
+        return plane.LineOfSight(starts[i], ends[i]);
+    }
+}
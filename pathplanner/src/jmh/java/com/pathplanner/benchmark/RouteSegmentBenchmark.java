@@ -0,0 +1,35 @@
+package com.pathplanner.benchmark;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathprocessing.pathSegment.RouteLineSegment;
+import com.pathplanner.pathprocessing.pathSegment.RouteSegment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sampling a RouteSegment into a list of points. getPoints takes count samples at t = i / count, so the cost
+ * grows linearly with count. RouteSegmentTest checks that it returns exactly count points
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteSegmentBenchmark
+{
+    @Param({"10", "100", "1000"})
+    public int count;
+
+    private RouteSegment segment;
+
+    @Setup(Level.Trial)
+    public void setup()
+    { segment = new RouteLineSegment(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(100.0, 50.0)); }
+
+    @Benchmark
+    public List<Point2D> getPoints()
+    { return segment.getPoints(count); }
+}
@@ -0,0 +1,172 @@
+package com.pathplanner.geometry;
+
+import java.io.Serializable;
+
+/**
+ * The DoubleLine2D class is an immutable line segment (x1,y1) --> (x2,y2) stored as four primitive doubles. Its static
+ * methods are the intersection and distance kernels of the geometry package. They take raw coordinates, so callers that
+ * keep coordinates in arrays, such as the edge index of a Plane, can test segments without creating or unboxing any
+ * object. Line2D uses the same kernels for its generic segments.
+ * @see Line2D
+ * @see IntLine2D
+ */
+public final class DoubleLine2D implements Serializable
+{
+    private final double x1, y1, x2, y2;
+
+    public DoubleLine2D(double x1, double y1, double x2, double y2)
+    {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+    }
+
+    /**
+     * Creates a DoubleLine2D between the two points
+     * @param p1 the first point of the segment
+     * @param p2 the second point of the segment
+     * @throws NullPointerException if p1 or p2 is null
+     */
+    public DoubleLine2D(DoublePoint2D p1, DoublePoint2D p2)
+    { this(p1.getX(), p1.getY(), p2.getX(), p2.getY()); }
+
+    /**
+     * Converts a generic line to a DoubleLine2D
+     * @param line the line to convert
+     * @return a DoubleLine2D with the same end points
+     * @throws IllegalArgumentException if line is null
+     */
+    public static DoubleLine2D of(Line2D line)
+    {
+        if(line == null)
+            throw new IllegalArgumentException("Non-null argument expected");
+        return new DoubleLine2D(line.getP1().getX().doubleValue(), line.getP1().getY().doubleValue(),
+                line.getP2().getX().doubleValue(), line.getP2().getY().doubleValue());
+    }
+
+    public double getX1()
+    { return x1; }
+
+    public double getY1()
+    { return y1; }
+
+    public double getX2()
+    { return x2; }
+
+    public double getY2()
+    { return y2; }
+
+    public DoublePoint2D getP1()
+    { return new DoublePoint2D(x1, y1); }
+
+    public DoublePoint2D getP2()
+    { return new DoublePoint2D(x2, y2); }
+
+    /**
+     * Converts this line to a generic line with Double precision
+     * @return a new Line2D with the same end points
+     */
+    public Line2D<Double> toLine2D()
+    { return new Line2D<Double>(x1, y1, x2, y2); }
+
+    public double length()
+    { return DoublePoint2D.distance(x1, y1, x2, y2); }
+
+    public boolean intersects(DoubleLine2D line)
+    { return linesIntersect(x1, y1, x2, y2, line.x1, line.y1, line.x2, line.y2); }
+
+    public double ptSegDistSq(double x, double y)
+    { return ptSegDistSq(x1, y1, x2, y2, x, y); }
+
+    public double ptSegDist(double x, double y)
+    { return ptSegDist(x1, y1, x2, y2, x, y); }
+
+    public DoublePoint2D intersectionPoint(DoubleLine2D line)
+    { return intersectionPoint(x1, y1, x2, y2, line.x1, line.y1, line.x2, line.y2); }
+
+    /**
+     * Gets twice the signed area of the triangle (x1,y1), (x2,y2), (x3,y3). The area is positive if the points turn
+     * counter clockwise, negative if they turn clockwise and zero if they are collinear
+     * @return twice the signed area of the triangle
+     */
+    public static double area(double x1, double y1, double x2, double y2, double x3, double y3)
+    { return (x2 - x1) * (y3 - y1) - (x3 - x1) * (y2 - y1); }
+
+    /**
+     * Checks if (x3,y3), which must be collinear with the line (x1,y1) -> (x2,y2), lies on the line
+     * @return true if the point is between the end points of the line
+     */
+    public static boolean between(double x1, double y1, double x2, double y2, double x3, double y3)
+    { return Math.min(x1, x2) <= x3 && x3 <= Math.max(x1, x2) && Math.min(y1, y2) <= y3 && y3 <= Math.max(y1, y2); }
+
+    /**
+     * Checks whether the line (x1,y1) -> (x2,y2) intersects the line (x3,y3) -> (x4,y4). Touching endpoints and
+     * overlapping collinear lines count as intersecting, and a line of length zero is treated as a point
+     * @return true if they intersect false otherwise
+     */
+    public static boolean linesIntersect(double x1, double y1, double x2, double y2,
+                                         double x3, double y3, double x4, double y4)
+    {
+        double o1 = Math.signum(area(x1, y1, x2, y2, x3, y3)), o2 = Math.signum(area(x1, y1, x2, y2, x4, y4));
+        double o3 = Math.signum(area(x3, y3, x4, y4, x1, y1)), o4 = Math.signum(area(x3, y3, x4, y4, x2, y2));
+
+        if(o1 != o2 && o3 != o4)
+            return true;
+        return (o1 == 0 && between(x1, y1, x2, y2, x3, y3)) || (o2 == 0 && between(x1, y1, x2, y2, x4, y4))
+                || (o3 == 0 && between(x3, y3, x4, y4, x1, y1)) || (o4 == 0 && between(x3, y3, x4, y4, x2, y2));
+    }
+
+    /**
+     * Gets the squared distance between the point (x,y) and the line (x1,y1) -> (x2,y2)
+     * @return the squared distance
+     */
+    public static double ptSegDistSq(double x1, double y1, double x2, double y2, double x, double y)
+    {
+        double dx = x2 - x1, dy = y2 - y1;
+        double pd2 = dx * dx + dy * dy;
+        double u = (pd2 == 0) ? 0 : ((x - x1) * dx + (y - y1) * dy) / pd2;
+
+        if (u < 0)
+            u = 0;
+        else if (u > 1.0)
+            u = 1.0;
+        return DoublePoint2D.distanceSq(x1 + u * dx, y1 + u * dy, x, y);
+    }
+
+    public static double ptSegDist(double x1, double y1, double x2, double y2, double x, double y)
+    { return Math.sqrt(ptSegDistSq(x1, y1, x2, y2, x, y)); }
+
+    /**
+     * Finds the point where the line (x1,y1) -> (x2,y2) crosses the line (x3,y3) -> (x4,y4)
+     * @return the intersection point or null if the lines do not intersect or overlap in more than one point
+     */
+    public static DoublePoint2D intersectionPoint(double x1, double y1, double x2, double y2,
+                                                  double x3, double y3, double x4, double y4)
+    {
+        double denominator = (x2 - x1) * (y4 - y3) - (y2 - y1) * (x4 - x3);
+        if(denominator == 0 || !linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4))
+            return null;
+
+        double t = ((x3 - x1) * (y4 - y3) - (y3 - y1) * (x4 - x3)) / denominator;
+        return new DoublePoint2D(x1 + t * (x2 - x1), y1 + t * (y2 - y1));
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof DoubleLine2D))
+            return false;
+        DoubleLine2D l = (DoubleLine2D) o;
+        return Double.compare(x1, l.x1) == 0 && Double.compare(y1, l.y1) == 0
+                && Double.compare(x2, l.x2) == 0 && Double.compare(y2, l.y2) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    { return 31 * (31 * (31 * Double.hashCode(x1) + Double.hashCode(y1)) + Double.hashCode(x2)) + Double.hashCode(y2); }
+
+    @Override
+    public String toString()
+    { return "(" + x1 + "," + y1 + ") -> (" + x2 + "," + y2 + ")"; }
+}
@@ -0,0 +1,84 @@
+package com.pathplanner.geometry;
+
+import java.io.Serializable;
+
+/**
+ * The DoublePoint2D class is an immutable (x,y) point stored as two primitive doubles. Unlike Point2D it never boxes its
+ * coordinates, so reading them costs nothing and the point can be used in the inner loops of planners and geometry
+ * tests. Use of and toPoint2D to convert from and to the generic Point2D.
+ * @see Point2D
+ * @see IntPoint2D
+ */
+public final class DoublePoint2D implements Serializable
+{
+    private final double x, y;
+
+    /**
+     * Constructs a DoublePoint2D at the specified x and y coordinates
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @throws IllegalArgumentException if a coordinate is NaN
+     */
+    public DoublePoint2D(double x, double y)
+    {
+        if(Double.isNaN(x) || Double.isNaN(y))
+            throw new IllegalArgumentException("NaN is an invalid input");
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Converts a generic point to a DoublePoint2D
+     * @param point the point to convert
+     * @return a DoublePoint2D at the same position
+     * @throws IllegalArgumentException if point is null
+     */
+    public static DoublePoint2D of(Point2D point)
+    {
+        if(point == null)
+            throw new IllegalArgumentException("Non-null argument expected");
+        return new DoublePoint2D(point.getX().doubleValue(), point.getY().doubleValue());
+    }
+
+    public double getX()
+    { return x; }
+
+    public double getY()
+    { return y; }
+
+    /**
+     * Converts this point to a generic point with Double precision
+     * @return a new Point2D at the same position
+     */
+    public Point2D<Double> toPoint2D()
+    { return new Point2D<Double>(x, y); }
+
+    public double distance(DoublePoint2D point)
+    { return distance(x, y, point.x, point.y); }
+
+    public double distanceSq(DoublePoint2D point)
+    { return distanceSq(x, y, point.x, point.y); }
+
+    public static double distance(double x1, double y1, double x2, double y2)
+    { return Math.sqrt(distanceSq(x1, y1, x2, y2)); }
+
+    public static double distanceSq(double x1, double y1, double x2, double y2)
+    { return (x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1); }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof DoublePoint2D))
+            return false;
+        DoublePoint2D p = (DoublePoint2D) o;
+        return Double.compare(x, p.x) == 0 && Double.compare(y, p.y) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    { return 31 * Double.hashCode(x) + Double.hashCode(y); }
+
+    @Override
+    public String toString()
+    { return "(" + x + "," + y + ")"; }
+}
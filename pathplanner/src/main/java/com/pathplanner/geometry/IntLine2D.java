@@ -0,0 +1,135 @@
+package com.pathplanner.geometry;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * The IntLine2D class is an immutable line segment (x1,y1) --> (x2,y2) between two integer points, such as two cells of
+ * a Grid. Its intersection kernel computes every orientation exactly, so unlike the double kernel of DoubleLine2D it
+ * gives the right answer for any int coordinates.
+ * @see DoubleLine2D
+ * @see IntPoint2D
+ */
+public final class IntLine2D implements Serializable
+{
+    private final int x1, y1, x2, y2;
+
+    public IntLine2D(int x1, int y1, int x2, int y2)
+    {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+    }
+
+    /**
+     * Creates an IntLine2D between the two points
+     * @param p1 the first point of the segment
+     * @param p2 the second point of the segment
+     * @throws NullPointerException if p1 or p2 is null
+     */
+    public IntLine2D(IntPoint2D p1, IntPoint2D p2)
+    { this(p1.getX(), p1.getY(), p2.getX(), p2.getY()); }
+
+    /**
+     * Converts a generic line to an IntLine2D. Coordinates are truncated the same way intValue() truncates them
+     * @param line the line to convert
+     * @return an IntLine2D with the same end points
+     * @throws IllegalArgumentException if line is null
+     */
+    public static IntLine2D of(Line2D line)
+    {
+        if(line == null)
+            throw new IllegalArgumentException("Non-null argument expected");
+        return new IntLine2D(line.getP1().getX().intValue(), line.getP1().getY().intValue(),
+                line.getP2().getX().intValue(), line.getP2().getY().intValue());
+    }
+
+    public int getX1()
+    { return x1; }
+
+    public int getY1()
+    { return y1; }
+
+    public int getX2()
+    { return x2; }
+
+    public int getY2()
+    { return y2; }
+
+    public IntPoint2D getP1()
+    { return new IntPoint2D(x1, y1); }
+
+    public IntPoint2D getP2()
+    { return new IntPoint2D(x2, y2); }
+
+    /**
+     * Converts this line to a generic line with Integer precision
+     * @return a new Line2D with the same end points
+     */
+    public Line2D<Integer> toLine2D()
+    { return new Line2D<Integer>(x1, y1, x2, y2); }
+
+    public DoubleLine2D toDoubleLine2D()
+    { return new DoubleLine2D(x1, y1, x2, y2); }
+
+    public boolean intersects(IntLine2D line)
+    { return linesIntersect(x1, y1, x2, y2, line.x1, line.y1, line.x2, line.y2); }
+
+    public double ptSegDist(double x, double y)
+    { return DoubleLine2D.ptSegDist(x1, y1, x2, y2, x, y); }
+
+    /**
+     * Gets the orientation of the points (x1,y1), (x2,y2), (x3,y3). A difference of two ints needs up to 33 bits, so a
+     * product of two differences may not fit in a long. Differences that fit in an int, which covers every Grid, are
+     * multiplied as longs; larger ones fall back to BigInteger
+     * @return 1 if they turn counter clockwise, -1 if they turn clockwise and 0 if they are collinear
+     */
+    public static int orientation(int x1, int y1, int x2, int y2, int x3, int y3)
+    {
+        long a = (long) x2 - x1, b = (long) y3 - y1, c = (long) x3 - x1, d = (long) y2 - y1;
+        if(a == (int) a && b == (int) b && c == (int) c && d == (int) d)
+            return Long.signum(a * b - c * d);
+        BigInteger ab = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b));
+        return ab.compareTo(BigInteger.valueOf(c).multiply(BigInteger.valueOf(d)));
+    }
+
+    /**
+     * Checks whether the line (x1,y1) -> (x2,y2) intersects the line (x3,y3) -> (x4,y4). Touching endpoints and
+     * overlapping collinear lines count as intersecting
+     * @return true if they intersect false otherwise
+     */
+    public static boolean linesIntersect(int x1, int y1, int x2, int y2, int x3, int y3, int x4, int y4)
+    {
+        int o1 = orientation(x1, y1, x2, y2, x3, y3), o2 = orientation(x1, y1, x2, y2, x4, y4);
+        int o3 = orientation(x3, y3, x4, y4, x1, y1), o4 = orientation(x3, y3, x4, y4, x2, y2);
+
+        if(o1 != o2 && o3 != o4)
+            return true;
+        return (o1 == 0 && onSegment(x1, y1, x2, y2, x3, y3)) || (o2 == 0 && onSegment(x1, y1, x2, y2, x4, y4))
+                || (o3 == 0 && onSegment(x3, y3, x4, y4, x1, y1)) || (o4 == 0 && onSegment(x3, y3, x4, y4, x2, y2));
+    }
+
+    /**
+     * Checks if (x3,y3), which must be collinear with the line (x1,y1) -> (x2,y2), lies on the line
+     */
+    private static boolean onSegment(int x1, int y1, int x2, int y2, int x3, int y3)
+    { return Math.min(x1, x2) <= x3 && x3 <= Math.max(x1, x2) && Math.min(y1, y2) <= y3 && y3 <= Math.max(y1, y2); }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof IntLine2D))
+            return false;
+        IntLine2D l = (IntLine2D) o;
+        return x1 == l.x1 && y1 == l.y1 && x2 == l.x2 && y2 == l.y2;
+    }
+
+    @Override
+    public int hashCode()
+    { return 31 * (31 * (31 * x1 + y1) + x2) + y2; }
+
+    @Override
+    public String toString()
+    { return "(" + x1 + "," + y1 + ") -> (" + x2 + "," + y2 + ")"; }
+}
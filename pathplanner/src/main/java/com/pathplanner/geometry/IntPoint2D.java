@@ -0,0 +1,85 @@
+package com.pathplanner.geometry;
+
+import java.io.Serializable;
+
+/**
+ * The IntPoint2D class is an immutable (x,y) point stored as two primitive ints, such as the cell of a Grid. Unlike
+ * Point2D it never boxes its coordinates. Use of and toPoint2D to convert from and to the generic Point2D.
+ * @see Point2D
+ * @see DoublePoint2D
+ */
+public final class IntPoint2D implements Serializable
+{
+    private final int x, y;
+
+    /**
+     * Constructs an IntPoint2D at the specified x and y coordinates
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     */
+    public IntPoint2D(int x, int y)
+    {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Converts a generic point to an IntPoint2D. Coordinates are truncated the same way intValue() truncates them
+     * @param point the point to convert
+     * @return an IntPoint2D at the same position
+     * @throws IllegalArgumentException if point is null
+     */
+    public static IntPoint2D of(Point2D point)
+    {
+        if(point == null)
+            throw new IllegalArgumentException("Non-null argument expected");
+        return new IntPoint2D(point.getX().intValue(), point.getY().intValue());
+    }
+
+    public int getX()
+    { return x; }
+
+    public int getY()
+    { return y; }
+
+    /**
+     * Converts this point to a generic point with Integer precision
+     * @return a new Point2D at the same position
+     */
+    public Point2D<Integer> toPoint2D()
+    { return new Point2D<Integer>(x, y); }
+
+    public DoublePoint2D toDoublePoint2D()
+    { return new DoublePoint2D(x, y); }
+
+    /**
+     * Gets the squared distance to another point. The result is exact since it is computed with longs
+     * @param point the other point
+     * @return the squared distance between the points
+     */
+    public long distanceSq(IntPoint2D point)
+    { return distanceSq(x, y, point.x, point.y); }
+
+    public double distance(IntPoint2D point)
+    { return Math.sqrt(distanceSq(point)); }
+
+    public static long distanceSq(int x1, int y1, int x2, int y2)
+    { return ((long) x2 - x1) * ((long) x2 - x1) + ((long) y2 - y1) * ((long) y2 - y1); }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(!(o instanceof IntPoint2D))
+            return false;
+        IntPoint2D p = (IntPoint2D) o;
+        return x == p.x && y == p.y;
+    }
+
+    @Override
+    public int hashCode()
+    { return 31 * x + y; }
+
+    @Override
+    public String toString()
+    { return "(" + x + "," + y + ")"; }
+}
@@ -98,7 +98,7 @@ public class Line2D<T extends Number> implements Cloneable, Serializable
     public void setLine(T x1, T y1, T x2, T y2)
     {
         p1 = new Point2D<>(x1, y1);
-        p2 = new Point2D<>(x1, y2);
+        p2 = new Point2D<>(x2, y2);
     }
 
     /**
@@ -178,22 +178,6 @@ public class Line2D<T extends Number> implements Cloneable, Serializable
     public Line2D<T> clone()
     { return new Line2D(p1,p2); }
 
-    private static double area(Point2D p1, Point2D p2, Point2D p3)
-    {
-        return (p2.getX().doubleValue() - p1.getX().doubleValue()) * (p3.getY().doubleValue() - p1.getY().doubleValue())
-                - (p3.getX().doubleValue() - p1.getX().doubleValue()) * (p2.getY().doubleValue() - p1.getY().doubleValue());
-    }
-
-    private static boolean between(Point2D p1, Point2D p2, Point2D p3)
-    {
-        if (p1.getX().doubleValue() != p2.getX().doubleValue())
-            return (p1.getX().doubleValue() <= p3.getX().doubleValue() && p3.getX().doubleValue() <= p2.getX().doubleValue())
-                    || (p1.getX().doubleValue() >= p3.getX().doubleValue() && p3.getX().doubleValue() >= p2.getX().doubleValue());
-        else
-            return (p1.getY().doubleValue() <= p3.getY().doubleValue() && p3.getY().doubleValue() <= p2.getY().doubleValue())
-                    || (p1.getY().doubleValue() >= p3.getY().doubleValue() && p3.getY().doubleValue() >= p2.getY().doubleValue());
-    }
-
     /**
      * Checks whether Line1 intersects Line 2
      * @param line1 the first line
@@ -202,34 +186,22 @@ public class Line2D<T extends Number> implements Cloneable, Serializable
      */
     public static boolean linesIntersect(Line2D line1, Line2D line2)
     {
-        Point2D p1 = line1.p1, p2 = line1.p2, p3 = line2.p1, p4 = line2.p2;
-        double a1, a2, a3, a4;
-
-        if ((a1 = area(p1, p2, p3)) == 0.0)
-            if (between(p1, p2, p3))
-                return true;
-            else
-            if (area(p1, p2, p4) == 0.0)
-                return between(p3, p4, p1) || between (p3, p4, p2);
-            else
-                return false;
-        else if ((a2 = area(p1, p2, p4)) == 0.0)
-            return between(p1, p2, p4);
-
-        if ((a3 = area(p3, p4, p1)) == 0.0)
-            if (between(p3, p4, p1))
-                return true;
-            else
-            if (area(p3, p4, p2) == 0.0)
-                return between(p1, p2, p3) || between (p1, p2, p4);
-            else
-                return false;
-        else if ((a4 = area(p3, p4, p2)) == 0.0)
-            return between(p3, p4, p2);
-        else
-            return ((a1 > 0.0) ^ (a2 > 0.0)) && ((a3 > 0.0) ^ (a4 > 0.0));
+        return linesIntersect(line1.p1.getX().doubleValue(), line1.p1.getY().doubleValue(),
+                line1.p2.getX().doubleValue(), line1.p2.getY().doubleValue(),
+                line2.p1.getX().doubleValue(), line2.p1.getY().doubleValue(),
+                line2.p2.getX().doubleValue(), line2.p2.getY().doubleValue());
     }
 
+    /**
+     * Checks whether the line (x1,y1) -> (x2,y2) intersects the line (x3,y3) -> (x4,y4). Touching endpoints and
+     * overlapping collinear lines count as intersecting
+     * @return true if they intersect false otherwise
+     * @see DoubleLine2D#linesIntersect(double, double, double, double, double, double, double, double)
+     */
+    public static boolean linesIntersect(double x1, double y1, double x2, double y2,
+                                         double x3, double y3, double x4, double y4)
+    { return DoubleLine2D.linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4); }
+
     /**
      * Gets the squared distance between a point and a line
      * @param line a line segment
@@ -238,44 +210,26 @@ public class Line2D<T extends Number> implements Cloneable, Serializable
      */
     public static double ptSegDistSq(Line2D line, Point2D point)
     {
-        Point2D p1 = line.p1, p2 = line.p2;
-        double pd2 = Math.pow((p1.getX().doubleValue() - p2.getX().doubleValue()), 2) + Math.pow((p1.getY().doubleValue() - p2.getY().doubleValue()), 2);
-        double x, y;
-
-        if (pd2 == 0)
-        {
-            x = p1.getX().doubleValue();
-            y = p2.getY().doubleValue();
-        }
-        else
-        {
-            double u = ((point.getX().doubleValue() - p1.getX().doubleValue()) * (p2.getX().doubleValue() - p1.getX().doubleValue())
-                    + (point.getY().doubleValue() - p1.getY().doubleValue()) * (p2.getY().doubleValue() - p1.getY().doubleValue())) / pd2;
-            if (u < 0)
-            {
-                x = p1.getX().doubleValue();
-                y = p1.getY().doubleValue();
-            }
-            else if (u > 1.0)
-            {
-                x = p2.getX().doubleValue();
-                y = p2.getY().doubleValue();
-            }
-            else
-            {
-                x = p1.getX().doubleValue() + u * (p2.getX().doubleValue() - p1.getX().doubleValue());
-                y = p1.getY().doubleValue() + u * (p2.getY().doubleValue() - p1.getY().doubleValue());
-            }
-        }
-        return Math.pow((x - point.getX().doubleValue()),2) + Math.pow((y - point.getY().doubleValue()),2);
+        return DoubleLine2D.ptSegDistSq(line.p1.getX().doubleValue(), line.p1.getY().doubleValue(),
+                line.p2.getX().doubleValue(), line.p2.getY().doubleValue(),
+                point.getX().doubleValue(), point.getY().doubleValue());
     }
 
     public static double ptSegDist(Line2D line, Point2D point)
     { return Math.sqrt(ptSegDistSq(line, point)); }
 
+    /**
+     * Finds the point where two lines cross
+     * @param l1 the first line
+     * @param l2 the second line
+     * @return the intersection point or null if the lines do not intersect or overlap in more than one point
+     */
     public static Point2D<Double> intersectionPoint(Line2D l1, Line2D l2)
     {
-        return null;
-        //TODO implememnt method
+        DoublePoint2D point = DoubleLine2D.intersectionPoint(l1.p1.getX().doubleValue(), l1.p1.getY().doubleValue(),
+                l1.p2.getX().doubleValue(), l1.p2.getY().doubleValue(),
+                l2.p1.getX().doubleValue(), l2.p1.getY().doubleValue(),
+                l2.p2.getX().doubleValue(), l2.p2.getY().doubleValue());
+        return (point == null) ? null : point.toPoint2D();
     }
 }
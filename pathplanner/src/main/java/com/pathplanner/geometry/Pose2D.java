@@ -52,4 +52,9 @@ public class Pose2D<T extends Number> extends Point2D<T>
     public void setVelocity(Vector2D velocity)
     { this.velocity = velocity; }
 
+    public Vector2D getAcceleration()
+    { return acceleration; }
+
+    public void setAcceleration(Vector2D acceleration)
+    { this.acceleration = acceleration; }
 }
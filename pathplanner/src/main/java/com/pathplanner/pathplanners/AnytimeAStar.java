@@ -0,0 +1,90 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Grid;
+
+/**
+ * This class is an anytime version of AStar on a Grid, using ARA*. It follows the movement rules of AStar's indexed
+ * search: only solid actors block a cell, corners may be cut and step costs are 1 for straight moves and sqrt(2) for
+ * corners. The search arrays are allocated once for the Grid and reused by every plan, so plans run one at a time and
+ * an AnytimeAStar is not thread safe.
+ * @see AnytimePathFinder
+ */
+public class AnytimeAStar extends AnytimePathFinder<Grid>
+{
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+    private static final double SQRT2 = Math.sqrt(2);
+    private static final double[] COST = {1, 1, 1, 1, SQRT2, SQRT2, SQRT2, SQRT2};
+
+    private final GridSearch search;
+
+    public AnytimeAStar(Grid grid)
+    {
+        super(grid);
+        search = new GridSearch(grid);
+    }
+
+    public AnytimeAStar(Grid grid, Point2D<Integer> start, Point2D<Integer> end)
+    {
+        super(grid, start, end);
+        search = new GridSearch(grid);
+    }
+
+    public AnytimeAStar(Grid grid, Point2D<Integer>... point2DS)
+    {
+        super(grid, point2DS);
+        search = new GridSearch(grid);
+    }
+
+    protected synchronized AnytimeResult plan(Point2D start, Point2D end, boolean containCorners, long deadline, boolean hasDeadline)
+    {
+        Grid grid = getEnvironment();
+        int startX = start.getX().intValue(), startY = start.getY().intValue();
+        int endX = end.getX().intValue(), endY = end.getY().intValue();
+        if(!grid.isInBounds(startX, startY) || !grid.isInBounds(endX, endY) || grid.isSolid(endX, endY))
+            return new AnytimeResult(null, Double.POSITIVE_INFINITY, false, 0, 0);
+
+        search.solid = grid.getSolidBits();
+        search.endX = endX;
+        search.endY = endY;
+        search.containCorners = containCorners;
+        return search.search(grid.toIndex(startX, startY), grid.toIndex(endX, endY), getInitialInflation(),
+                getInflationStep(), deadline, hasDeadline);
+    }
+
+    /**
+     * The ARA* search over the cells of the Grid
+     */
+    private static class GridSearch extends AnytimeSearch
+    {
+        private final int cols, rows;
+        private long[] solid;
+        private int endX, endY;
+        private boolean containCorners;
+
+        GridSearch(Grid grid)
+        {
+            super(grid.getRows() * grid.getCols());
+            cols = grid.getCols();
+            rows = grid.getRows();
+        }
+
+        double heuristic(int node)
+        { return AStar.heuristic(node % cols, node / cols, endX, endY, containCorners); }
+
+        void expand(int node)
+        {
+            int x = node % cols, y = node / cols;
+            for(int d = 0; d < (containCorners ? 8 : 4); d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d];
+                if(nx >= 0 && nx < cols && ny >= 0 && ny < rows && !Grid.testBit(solid, ny * cols + nx))
+                    relax(node, ny * cols + nx, COST[d]);
+            }
+        }
+
+        Point2D point(int node)
+        { return new Point2D<Integer>(node % cols, node / cols); }
+    }
+}
@@ -0,0 +1,82 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Plane;
+import com.pathplanner.world.environment.VisibilityGraph;
+
+import java.util.BitSet;
+import java.util.Collections;
+
+/**
+ * This class is an anytime version of LineOfSightStar on a Plane, using ARA*. It searches the visibility graph of the
+ * Plane with the start and end point connected to every node they can see, like LineOfSightStar. Connecting the two
+ * points to the graph is not covered by the time budget, since it must be done before any path can be found. When the
+ * start and end are the same point, the path is that single point.
+ * @see AnytimePathFinder
+ */
+public class AnytimeLineOfSightStar extends AnytimePathFinder<Plane>
+{
+    public AnytimeLineOfSightStar(Plane plane)
+    { super(plane); }
+
+    public AnytimeLineOfSightStar(Plane plane, Point2D<Double> start, Point2D<Double> end)
+    { super(plane, start, end); }
+
+    public AnytimeLineOfSightStar(Plane plane, Point2D<Double>... point2DS)
+    { super(plane, point2DS); }
+
+    public boolean isThreadSafe()
+    { return true; }
+
+    protected AnytimeResult plan(Point2D start, Point2D end, boolean containCorners, long deadline, boolean hasDeadline)
+    {
+        if(start.equals(end))
+            return new AnytimeResult(Collections.singletonList(end), 1, false, 0, 0);
+
+        Plane plane = getEnvironment();
+        VisibilityGraph graph = plane.getVisibilityGraph();
+        PlaneSearch search = new PlaneSearch(plane, graph, start, end);
+        return search.search(search.startId, search.endId, getInitialInflation(), getInflationStep(), deadline, hasDeadline);
+    }
+
+    /**
+     * The ARA* search over the visibility graph. The start and end point get the two ids after the graph's nodes
+     */
+    private static class PlaneSearch extends AnytimeSearch
+    {
+        private final VisibilityGraph graph;
+        private final Point2D start, end;
+        private final int startId, endId;
+        private final BitSet startVisible, endVisible;
+        private final boolean directLineOfSight;
+
+        PlaneSearch(Plane plane, VisibilityGraph graph, Point2D start, Point2D end)
+        {
+            super(graph.capacity() + 2);
+            this.graph = graph;
+            this.start = start;
+            this.end = end;
+            startId = graph.capacity();
+            endId = startId + 1;
+            startVisible = graph.visibleFrom(start);
+            endVisible = graph.visibleFrom(end);
+            directLineOfSight = plane.LineOfSight(start, end);
+        }
+
+        double heuristic(int node)
+        { return point(node).distance(end); }
+
+        void expand(int node)
+        {
+            Point2D point = point(node);
+            BitSet neighbors = (node == startId) ? startVisible : graph.getNeighbors(node);
+            for(int next = neighbors.nextSetBit(0); next >= 0; next = neighbors.nextSetBit(next + 1))
+                relax(node, next, point.distance(graph.getPoint(next)));
+            if((node == startId) ? directLineOfSight : endVisible.get(node))
+                relax(node, endId, point.distance(end));
+        }
+
+        Point2D point(int node)
+        { return (node == startId) ? start : (node == endId) ? end : graph.getPoint(node); }
+    }
+}
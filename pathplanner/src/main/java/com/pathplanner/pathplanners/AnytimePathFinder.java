@@ -0,0 +1,126 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Environment;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An AnytimePathFinder plans with ARA* and can be given a time budget. It finds a path with an inflated heuristic first,
+ * which is fast but up to the initial inflation times longer than optimal, and then keeps improving it by searching
+ * again with less inflation until the path is optimal or the budget runs out. The best path found so far is returned
+ * with its suboptimality bound, so a control loop with a fixed time slice always gets an answer in time.
+ * generatePathSegment, and therefore generatePath, uses the time budget set with setTimeBudget for every segment. By
+ * default there is no budget and every segment is optimal.
+ * @param <E> the type of Environment the paths are planned on
+ * @see AnytimeResult
+ */
+public abstract class AnytimePathFinder<E extends Environment> extends PathFinder<E>
+{
+    public static final double DEFAULT_INITIAL_INFLATION = 3;
+    public static final double DEFAULT_INFLATION_STEP = 0.5;
+
+    private double initialInflation = DEFAULT_INITIAL_INFLATION, inflationStep = DEFAULT_INFLATION_STEP;
+    private long timeBudget = -1;
+
+    public AnytimePathFinder(E environment)
+    { super(environment); }
+
+    public AnytimePathFinder(E environment, Point2D... points)
+    { super(environment, points); }
+
+    /**
+     * Sets the inflation of the first search and how much it is lowered after every search
+     * @param initialInflation the inflation of the first search, at least 1
+     * @param inflationStep the amount the inflation is lowered by, greater than 0
+     * @throws IllegalArgumentException if the initial inflation is less than 1 or the step is not positive
+     */
+    public void setInflation(double initialInflation, double inflationStep)
+    {
+        if(!(initialInflation >= 1) || !(inflationStep > 0))
+            throw new IllegalArgumentException("Inflation of at least 1 and positive step expected");
+        this.initialInflation = initialInflation;
+        this.inflationStep = inflationStep;
+        settingsChanged();
+    }
+
+    public double getInitialInflation()
+    { return initialInflation; }
+
+    public double getInflationStep()
+    { return inflationStep; }
+
+    /**
+     * Sets the time budget of every segment planned by generatePathSegment
+     * @param budget the time each segment may take or a negative value for no budget
+     * @param unit the unit of the budget
+     * @throws IllegalArgumentException if unit is null
+     */
+    public void setTimeBudget(long budget, TimeUnit unit)
+    {
+        if(unit == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        timeBudget = (budget < 0) ? -1 : unit.toNanos(budget);
+        settingsChanged();
+    }
+
+    /**
+     * Gets the time budget of every segment planned by generatePathSegment
+     * @return the budget in nanoseconds or -1 if there is no budget
+     */
+    public long getTimeBudget()
+    { return timeBudget; }
+
+    /**
+     * Plans a path segment within the time budget set with setTimeBudget
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal movement is allowed
+     * @return the best path found in time or null if none was found
+     */
+    public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    {
+        AnytimeResult result = (timeBudget < 0) ? plan(start, end, containCorners)
+                : plan(start, end, containCorners, timeBudget, TimeUnit.NANOSECONDS);
+        return (result.getPath() == null) ? null : new ArrayList<>(result.getPath());
+    }
+
+    /**
+     * Plans an optimal path segment without a time budget
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal movement is allowed
+     * @return the optimal path, or no path if none exists
+     */
+    public AnytimeResult plan(Point2D start, Point2D end, boolean containCorners)
+    { return plan(start, end, containCorners, 0, false); }
+
+    /**
+     * Plans a path segment and stops improving it once the budget runs out
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal movement is allowed
+     * @param budget the time the planner may take
+     * @param unit the unit of the budget
+     * @return the best path found in time and its suboptimality bound
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public AnytimeResult plan(Point2D start, Point2D end, boolean containCorners, long budget, TimeUnit unit)
+    {
+        if(unit == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        return plan(start, end, containCorners, System.nanoTime() + Math.max(0, unit.toNanos(budget)), true);
+    }
+
+    /**
+     * Plans a path segment with ARA*
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal movement is allowed
+     * @param deadline the System.nanoTime() by which planning must stop
+     * @param hasDeadline false if planning may run until the path is optimal
+     * @return the best path found and its suboptimality bound
+     */
+    protected abstract AnytimeResult plan(Point2D start, Point2D end, boolean containCorners, long deadline, boolean hasDeadline);
+}
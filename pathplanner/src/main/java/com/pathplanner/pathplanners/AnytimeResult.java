@@ -0,0 +1,75 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The best path an AnytimePathFinder found before it finished or ran out of time, together with how far from optimal
+ * that path may be. The bound is a factor: the cost of the path is at most bound times the cost of the optimal path.
+ * @see AnytimePathFinder
+ */
+public class AnytimeResult
+{
+    private final List<Point2D> path;
+    private final double bound;
+    private final boolean timedOut;
+    private final int iterations;
+    private final long expansions;
+
+    AnytimeResult(List<Point2D> path, double bound, boolean timedOut, int iterations, long expansions)
+    {
+        this.path = (path == null) ? null : Collections.unmodifiableList(path);
+        this.bound = bound;
+        this.timedOut = timedOut;
+        this.iterations = iterations;
+        this.expansions = expansions;
+    }
+
+    /**
+     * Gets the best path found
+     * @return the path or null if no path was found in time or no path exists
+     */
+    public List<Point2D> getPath()
+    { return path; }
+
+    /**
+     * Gets the suboptimality bound of the path
+     * @return a factor of at least 1 or positive infinity if no path was found
+     */
+    public double getBound()
+    { return bound; }
+
+    /**
+     * Checks if the path is known to be optimal
+     * @return true if the bound is 1
+     */
+    public boolean isOptimal()
+    { return bound <= 1; }
+
+    /**
+     * Checks if the planner stopped because its time budget ran out. If it did not, the path is optimal or no path
+     * exists
+     * @return true if the deadline was reached
+     */
+    public boolean isTimedOut()
+    { return timedOut; }
+
+    /**
+     * Gets the number of searches that finished, each with a smaller inflation than the last
+     * @return the number of finished searches
+     */
+    public int getIterations()
+    { return iterations; }
+
+    /**
+     * Gets the number of nodes expanded over every search
+     * @return the number of expansions
+     */
+    public long getExpansions()
+    { return expansions; }
+
+    public String toString()
+    { return "bound " + bound + (timedOut ? " (timed out) " : " ") + path; }
+}
@@ -0,0 +1,215 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * AnytimeSearch is the ARA* (Likhachev, Gordon and Thrun) search behind the anytime pathfinders. It works on nodes
+ * identified by the ids [0, nodes) and leaves the graph to its subclasses, which list the successors of a node by
+ * calling relax and give the heuristic of each node.
+ * The first search inflates the heuristic by the initial inflation and quickly finds a path that is at most that many
+ * times longer than optimal. Every following search lowers the inflation by one step and continues from the g scores
+ * of the previous one: only the open nodes and the nodes that became inconsistent are searched again, instead of
+ * starting over. After every search the bound of the current path is tightened with the smallest unexpanded f score.
+ * The deadline is checked every few expansions, and the best path of the last finished search is kept when it passes.
+ * g scores and parents are only valid while their stamp matches the current search, and the closed and inconsistent
+ * sets are stamped per iteration, so starting a new search or iteration never clears the arrays.
+ */
+abstract class AnytimeSearch
+{
+    // the number of expansions between two checks of the deadline
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    private final IndexedPriorityQueue openSet;
+    private final double[] gScore;
+    private final int[] parent, seen, closed, inconsistent;
+    private final int[] inconsistentNodes, ids;
+    private int inconsistentCount;
+    private int stamp, iteration;
+
+    private double inflation;
+    private long expansions;
+
+    AnytimeSearch(int nodes)
+    {
+        openSet = new IndexedPriorityQueue(nodes);
+        gScore = new double[nodes];
+        parent = new int[nodes];
+        seen = new int[nodes];
+        closed = new int[nodes];
+        inconsistent = new int[nodes];
+        inconsistentNodes = new int[nodes];
+        ids = new int[nodes];
+    }
+
+    /**
+     * Gets the admissible and consistent heuristic from the node to the goal of the current search
+     */
+    abstract double heuristic(int node);
+
+    /**
+     * Calls relax once for every successor of the node
+     */
+    abstract void expand(int node);
+
+    /**
+     * Gets the position of the node
+     */
+    abstract Point2D point(int node);
+
+    /**
+     * Runs ARA* from the start to the goal until the path is optimal, no path exists or the deadline passes
+     * @param start the id of the start node
+     * @param goal the id of the goal node
+     * @param initialInflation the inflation of the first search, at least 1
+     * @param inflationStep how much the inflation is lowered after every search
+     * @param deadline the System.nanoTime() by which the search must stop
+     * @param hasDeadline false if the search may run until the path is optimal
+     * @return the best path found and its bound
+     */
+    AnytimeResult search(int start, int goal, double initialInflation, double inflationStep, long deadline, boolean hasDeadline)
+    {
+        nextSearch();
+        expansions = 0;
+        inflation = initialInflation;
+        reach(start, 0, -1);
+        openSet.update(start, inflation * heuristic(start));
+
+        ArrayList<Point2D> path = null;
+        double bound = Double.POSITIVE_INFINITY;
+        int iterations = 0;
+        while(true)
+        {
+            if(!improvePath(goal, deadline, hasDeadline))
+                return new AnytimeResult(path, bound, true, iterations, expansions);
+            iterations++;
+            if(!isSeen(goal))
+                return new AnytimeResult(null, Double.POSITIVE_INFINITY, false, iterations, expansions);
+
+            // a search without inflation is optimal even if rounding leaves the lower bound slightly below the path
+            path = reconstructPath(goal);
+            double lowerBound = lowerBound();
+            bound = (lowerBound >= gScore[goal]) ? 1 : Math.min(inflation, gScore[goal] / lowerBound);
+            if(bound <= 1 || inflation <= 1)
+                return new AnytimeResult(path, 1, false, iterations, expansions);
+
+            inflation = Math.max(1, inflation - inflationStep);
+            nextIteration();
+        }
+    }
+
+    /**
+     * Offers the successor a path through the given node. If the path is shorter, the successor is opened, or recorded
+     * as inconsistent if it was already expanded in this iteration
+     * @param from the node being expanded
+     * @param to the successor
+     * @param cost the cost of moving from the node to the successor
+     */
+    final void relax(int from, int to, double cost)
+    {
+        double newGScore = gScore[from] + cost;
+        if(isSeen(to) && newGScore >= gScore[to])
+            return;
+
+        reach(to, newGScore, from);
+        if(closed[to] != iteration)
+            openSet.update(to, newGScore + inflation * heuristic(to));
+        else if(inconsistent[to] != iteration)
+        {
+            inconsistent[to] = iteration;
+            inconsistentNodes[inconsistentCount++] = to;
+        }
+    }
+
+    /**
+     * Expands nodes until no open node has a smaller f score than the goal
+     * @return false if the deadline passed first
+     */
+    private boolean improvePath(int goal, long deadline, boolean hasDeadline)
+    {
+        while(!openSet.isEmpty() && (!isSeen(goal) || gScore[goal] > openSet.peekKey()))
+        {
+            if(hasDeadline && expansions % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline >= 0)
+                return false;
+            expansions++;
+
+            int current = openSet.poll();
+            closed[current] = iteration;
+            expand(current);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the smallest uninflated f score of every open or inconsistent node, which no path not found yet can beat
+     */
+    private double lowerBound()
+    {
+        double lowerBound = Double.POSITIVE_INFINITY;
+        int count = openSet.copyIds(ids);
+        for(int i = 0; i < count; i++)
+            lowerBound = Math.min(lowerBound, gScore[ids[i]] + heuristic(ids[i]));
+        for(int i = 0; i < inconsistentCount; i++)
+            lowerBound = Math.min(lowerBound, gScore[inconsistentNodes[i]] + heuristic(inconsistentNodes[i]));
+        return lowerBound;
+    }
+
+    /**
+     * Starts the next iteration with the lowered inflation. The inconsistent nodes are opened again, every open node
+     * gets its key for the new inflation and the closed set is emptied
+     */
+    private void nextIteration()
+    {
+        int count = openSet.copyIds(ids);
+        for(int i = 0; i < count; i++)
+            openSet.update(ids[i], gScore[ids[i]] + inflation * heuristic(ids[i]));
+        for(int i = 0; i < inconsistentCount; i++)
+            openSet.update(inconsistentNodes[i], gScore[inconsistentNodes[i]] + inflation * heuristic(inconsistentNodes[i]));
+        inconsistentCount = 0;
+        nextStamp();
+    }
+
+    private void nextSearch()
+    {
+        openSet.clear();
+        inconsistentCount = 0;
+        if(++stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        nextStamp();
+    }
+
+    private void nextStamp()
+    {
+        if(++iteration == Integer.MAX_VALUE)
+        {
+            Arrays.fill(closed, 0);
+            Arrays.fill(inconsistent, 0);
+            iteration = 1;
+        }
+    }
+
+    private boolean isSeen(int node)
+    { return seen[node] == stamp; }
+
+    private void reach(int node, double g, int from)
+    {
+        seen[node] = stamp;
+        gScore[node] = g;
+        parent[node] = from;
+    }
+
+    private ArrayList<Point2D> reconstructPath(int goal)
+    {
+        ArrayList<Point2D> path = new ArrayList<>();
+        for(int node = goal; node >= 0; node = parent[node])
+            path.add(point(node));
+        Collections.reverse(path);
+        return path;
+    }
+}
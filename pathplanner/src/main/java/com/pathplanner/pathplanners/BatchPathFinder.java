@@ -0,0 +1,214 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Environment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * A BatchPathFinder answers many independent start to goal queries against one frozen Environment snapshot. Queries only
+ * call generatePathSegment and never touch the constraint points or the stored path of a PathFinder. If the PathFinder
+ * created for the snapshot is thread safe it is shared by every query, so anything it precomputes (the jump tables of a
+ * JumpPointSearch, the visibility graph of a Plane) is built once and reused. Otherwise, like DStarLite or AnytimeAStar,
+ * every query borrows an instance that no other query is using and more instances are created as needed, so at most one
+ * instance per concurrent query exists. A BatchPathFinder may be used by several threads at once.
+ * @see PathFinder#isThreadSafe()
+ * @param <E> the type of Environment the queries run on
+ */
+public class BatchPathFinder<E extends Environment>
+{
+    private final E snapshot;
+    private final Function<? super E, ? extends PathFinder<E>> pathFinderFactory;
+    private final PathFinder<E> pathFinder;
+    private final Queue<PathFinder<E>> idlePathFinders = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a BatchPathFinder over the given snapshot
+     * @param snapshot a frozen Environment created by Environment.snapshot()
+     * @param pathFinderFactory creates a PathFinder for the snapshot, for example JumpPointSearch::new
+     * @throws IllegalArgumentException if an argument is null or the Environment is not a snapshot
+     */
+    public BatchPathFinder(E snapshot, Function<? super E, ? extends PathFinder<E>> pathFinderFactory)
+    {
+        if(snapshot == null || pathFinderFactory == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        else if(!snapshot.isFrozen())
+            throw new IllegalArgumentException("Environment snapshot expected");
+
+        this.snapshot = snapshot;
+        this.pathFinderFactory = pathFinderFactory;
+        this.pathFinder = pathFinderFactory.apply(snapshot);
+        if(!pathFinder.isThreadSafe())
+            idlePathFinders.offer(pathFinder);
+    }
+
+    /**
+     * Gets the snapshot every query runs on
+     * @return the frozen Environment
+     */
+    public E getSnapshot()
+    { return snapshot; }
+
+    /**
+     * Solves every query in parallel on the common ForkJoinPool
+     * @param queries the queries to solve
+     * @param containCorners true if diagonal movement is allowed
+     * @return one result per query in the same order as the queries
+     * @see #solve(List, boolean, Executor)
+     */
+    public List<Result> solve(List<Query> queries, boolean containCorners)
+    { return solve(queries, containCorners, ForkJoinPool.commonPool()); }
+
+    /**
+     * Solves every query as its own task on the given Executor and waits until all of them are done. A query that fails
+     * does not affect the others; its result reports the failure instead
+     * @param queries the queries to solve
+     * @param containCorners true if diagonal movement is allowed
+     * @param executor the executor that runs the queries
+     * @return one result per query in the same order as the queries
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public List<Result> solve(List<Query> queries, boolean containCorners, Executor executor)
+    {
+        if(queries == null || executor == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+
+        List<CompletableFuture<Result>> tasks = new ArrayList<>(queries.size());
+        for(Query query : queries)
+            tasks.add(CompletableFuture.supplyAsync(() -> solve(query, containCorners), executor));
+
+        List<Result> results = new ArrayList<>(tasks.size());
+        for(CompletableFuture<Result> task : tasks)
+            results.add(task.join());
+        return results;
+    }
+
+    /**
+     * Solves a single query on the calling thread
+     * @param query the query to solve
+     * @param containCorners true if diagonal movement is allowed
+     * @return the result of the query
+     */
+    public Result solve(Query query, boolean containCorners)
+    {
+        if(query == null || query.start == null || query.goal == null
+                || !snapshot.isValidPosition(query.start) || !snapshot.isValidPosition(query.goal))
+            return new Result(Status.INVALID_QUERY, null, null);
+
+        PathFinder<E> borrowed = null;
+        try {
+            if(!pathFinder.isThreadSafe())
+                borrowed = acquirePathFinder();
+            PathFinder<E> queryPathFinder = (borrowed == null) ? pathFinder : borrowed;
+            ArrayList<Point2D> path = queryPathFinder.generatePathSegment(query.start, query.goal, containCorners);
+            return (path == null) ? new Result(Status.NO_PATH, null, null) : new Result(Status.FOUND, path, null);
+        }
+        catch(RuntimeException e) {
+            return new Result(Status.FAILED, null, e);
+        }
+        finally {
+            if(borrowed != null)
+                idlePathFinders.offer(borrowed);
+        }
+    }
+
+    /**
+     * Borrows a PathFinder that no other query is using, creating a new one if every instance is in use
+     */
+    private PathFinder<E> acquirePathFinder()
+    {
+        PathFinder<E> idle = idlePathFinders.poll();
+        return (idle != null) ? idle : pathFinderFactory.apply(snapshot);
+    }
+
+    /**
+     * The outcome of a single query
+     */
+    public enum Status
+    {
+        /** a path from the start to the goal was found */
+        FOUND,
+        /** the goal can not be reached from the start */
+        NO_PATH,
+        /** the query, its start or its goal is null or outside of the Environment */
+        INVALID_QUERY,
+        /** the PathFinder threw an exception while solving the query */
+        FAILED
+    }
+
+    /**
+     * A start and goal point to find a path between
+     */
+    public static class Query
+    {
+        private final Point2D start, goal;
+
+        /**
+         * Creates a query from the start point to the goal point
+         * @param start the start of the path
+         * @param goal the end of the path
+         */
+        public Query(Point2D start, Point2D goal)
+        {
+            this.start = start;
+            this.goal = goal;
+        }
+
+        public Point2D getStart()
+        { return start; }
+
+        public Point2D getGoal()
+        { return goal; }
+
+        public String toString()
+        { return start + " -> " + goal; }
+    }
+
+    /**
+     * The status and path of a solved query
+     */
+    public static class Result
+    {
+        private final Status status;
+        private final List<Point2D> path;
+        private final RuntimeException error;
+
+        private Result(Status status, List<Point2D> path, RuntimeException error)
+        {
+            this.status = status;
+            this.path = (path == null) ? null : Collections.unmodifiableList(path);
+            this.error = error;
+        }
+
+        public Status getStatus()
+        { return status; }
+
+        /**
+         * Gets the path from the start to the goal
+         * @return the path or null if the status is not FOUND
+         */
+        public List<Point2D> getPath()
+        { return path; }
+
+        /**
+         * Gets the exception thrown while solving the query
+         * @return the exception or null if the status is not FAILED
+         */
+        public RuntimeException getError()
+        { return error; }
+
+        public boolean isFound()
+        { return status == Status.FOUND; }
+
+        public String toString()
+        { return status + ((path == null) ? "" : " " + path); }
+    }
+}
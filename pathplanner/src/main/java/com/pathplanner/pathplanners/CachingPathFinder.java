@@ -0,0 +1,56 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Environment;
+
+import java.util.ArrayList;
+
+/**
+ * A CachingPathFinder wraps another PathFinder and answers generatePathSegment from a PathCache. Only segments that are
+ * not cached for the current version of the Environment are passed on to the wrapped PathFinder, so generatePath over
+ * routes that were planned before is as fast as a lookup per segment. The constraint points of the CachingPathFinder
+ * are its own; those of the wrapped PathFinder are never used. Changing the settings of the wrapped PathFinder makes
+ * the segments it cached before unreachable.
+ * @param <E> the type of Environment the paths are planned on
+ * @see PathCache
+ */
+public class CachingPathFinder<E extends Environment> extends PathFinder<E>
+{
+    private final PathFinder<E> pathFinder;
+    private final PathCache cache;
+
+    /**
+     * Creates a CachingPathFinder that stores the segments of the given PathFinder in the given cache
+     * @param pathFinder the PathFinder that plans segments that are not cached
+     * @param cache the cache, which may be shared with other pathfinders
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public CachingPathFinder(PathFinder<E> pathFinder, PathCache cache)
+    {
+        super(pathFinder == null ? null : pathFinder.getEnvironment());
+        if(cache == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+
+        this.pathFinder = pathFinder;
+        this.cache = cache;
+    }
+
+    public PathFinder<E> getPathFinder()
+    { return pathFinder; }
+
+    public PathCache getCache()
+    { return cache; }
+
+    /**
+     * Checks if the wrapped PathFinder is thread safe. The cache itself may be used by several threads
+     * @return true if the wrapped PathFinder is thread safe
+     */
+    public boolean isThreadSafe()
+    { return pathFinder.isThreadSafe(); }
+
+    public long getSettingsVersion()
+    { return pathFinder.getSettingsVersion(); }
+
+    public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    { return cache.getPath(pathFinder, start, end, containCorners); }
+}
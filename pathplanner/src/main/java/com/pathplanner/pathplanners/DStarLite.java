@@ -0,0 +1,370 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.environment.EnvironmentEvent;
+import com.pathplanner.world.environment.EnvironmentListener;
+import com.pathplanner.world.environment.Grid;
+import java.util.*;
+
+/**
+ * This class is an implementation of D* Lite (Koenig and Likhachev) on a Grid. D* Lite searches backwards from the end
+ * point to the start point and keeps its search state after a path is found. When a robot following the path discovers
+ * that cells changed, replan continues the previous search from the robot's current position and only repairs the
+ * part of the search affected by the changed cells, instead of planning again from scratch.
+ * The pathfinder registers itself as an EnvironmentListener of its Grid and queues every cell whose solidity may have
+ * changed until the next call to replan. Call detach once the pathfinder is no longer needed so the Grid stops
+ * notifying it.
+ * Cells are identified by their id (y * cols + x), the open set is an IndexedPriorityQueue with lexicographic keys and
+ * g and rhs values live in primitive arrays that are only reset by a stamp, so starting a new plan is O(1).
+ * As in AStar's indexed search, only solid actors block a cell, corners may be cut and step costs are 1 for straight
+ * moves and sqrt(2) for corners. The start point must not be on a solid cell. Costs are kept in units of a billionth of
+ * a cell with the corner cost rounded to a whole unit, so every cost and key is an integer that a double holds exactly
+ * and costs that are equal in theory are equal in the search. With floating point costs, sums of 1 and sqrt(2) added
+ * in different orders differ in the last bits and break the ties between keys the search relies on.
+ * A DStarLite keeps the state of the last path segment it generated, so it must not generate several segments at once
+ * and is not thread safe.
+ */
+public class DStarLite extends PathFinder<Grid>
+{
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+    private static final double STRAIGHT = 1e9, CORNER = Math.rint(Math.sqrt(2) * STRAIGHT);
+    private static final double[] COST = {STRAIGHT, STRAIGHT, STRAIGHT, STRAIGHT, CORNER, CORNER, CORNER, CORNER};
+
+    private final int cols, rows;
+    private final IndexedPriorityQueue openSet;
+    private final double[] gScore, rhs;
+    private final int[] seen;
+    private int stamp;
+
+    private int startCell = -1, lastCell, endCell;
+    private double km;
+    private boolean containCorners;
+
+    private int[] changedCells = new int[16];
+    private int changedCount;
+    private final BitSet changed = new BitSet();
+    private final EnvironmentListener<GridActor> environmentListener;
+
+    public DStarLite(Grid grid)
+    {
+        super(grid);
+        cols = grid.getCols();
+        rows = grid.getRows();
+        openSet = new IndexedPriorityQueue(rows * cols, true);
+        gScore = new double[rows * cols];
+        rhs = new double[rows * cols];
+        seen = new int[rows * cols];
+        environmentListener = this::environmentChanged;
+        grid.addEnvironmentListener(environmentListener);
+    }
+
+    public DStarLite(Grid grid, Point2D<Integer> start, Point2D<Integer> end)
+    {
+        this(grid);
+        addConstraintPoint(start);
+        addConstraintPoint(end);
+    }
+
+    public DStarLite(Grid grid, Point2D<Integer>... point2DS)
+    {
+        this(grid);
+        if(point2DS == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        for(Point2D<Integer> point : point2DS)
+            addConstraintPoint(point);
+    }
+
+    /**
+     * Plans a new path from the start to the end point. The search state is kept so that replan can repair it later
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal moves are allowed
+     * @return the optimal path from the start to the end point or null if no path exists
+     */
+    public synchronized ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    {
+        Grid grid = getEnvironment();
+        int startX = start.getX().intValue(), startY = start.getY().intValue();
+        int endX = end.getX().intValue(), endY = end.getY().intValue();
+
+        startCell = -1;
+        clearChanges();
+        if(!grid.isInBounds(startX, startY) || !grid.isInBounds(endX, endY) || grid.isSolid(endX, endY))
+            return null;
+
+        this.containCorners = containCorners;
+        startCell = lastCell = grid.toIndex(startX, startY);
+        endCell = grid.toIndex(endX, endY);
+        km = 0;
+        openSet.clear();
+        if(++stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+
+        setRhs(endCell, 0);
+        openSet.update(endCell, heuristic(startCell, endCell), 0);
+        return computePath();
+    }
+
+    /**
+     * Continues the last planned path segment from the given position. Every cell whose solidity changed since the last
+     * plan or replan is applied to the search, which is then repaired. The work done is proportional to the region
+     * affected by the changes rather than the size of the Grid
+     * @param currentPosition the current position on the Grid, usually a point on the previous path
+     * @return the optimal path from the current position to the end point or null if no path exists
+     * @throws IllegalArgumentException if the position is null or outside of the Grid
+     * @throws IllegalStateException if no path segment has been planned yet
+     */
+    public synchronized ArrayList<Point2D> replan(Point2D currentPosition)
+    {
+        if(currentPosition == null)
+            throw new IllegalArgumentException("Non-null argument expected");
+        int x = currentPosition.getX().intValue(), y = currentPosition.getY().intValue();
+        if(!getEnvironment().isInBounds(x, y))
+            throw new IllegalArgumentException("invalid point position");
+        if(startCell < 0)
+            throw new IllegalStateException("no path segment has been planned");
+
+        startCell = y * cols + x;
+        km += heuristic(lastCell, startCell);
+        lastCell = startCell;
+
+        for(int i = 0; i < changedCount; i++)
+        {
+            int cell = changedCells[i], cx = cell % cols, cy = cell / cols;
+            updateRhs(cell);
+            for(int d = 0; d < directions(); d++)
+                if(isInBounds(cx + DX[d], cy + DY[d]))
+                    updateRhs(cell + DY[d] * cols + DX[d]);
+        }
+        clearChanges();
+        return computePath();
+    }
+
+    /**
+     * Stops listening to changes of the Grid. After this call replan no longer sees cells that change
+     */
+    public void detach()
+    { getEnvironment().removeEnvironmentListener(environmentListener); }
+
+    /**
+     * Runs the search until the start is consistent and extracts the path by always stepping to the consistent neighbor
+     * with the smallest cost to the end. The cost to the end strictly falls along these steps, so the path never visits a
+     * cell twice; a path longer than the number of cells means the search state is broken and no path is returned
+     */
+    private ArrayList<Point2D> computePath()
+    {
+        long[] solid = getEnvironment().getSolidBits();
+        if(Grid.testBit(solid, startCell))
+            return null;
+
+        computeShortestPath();
+        if(getRhs(startCell) == Double.POSITIVE_INFINITY)
+            return null;
+
+        ArrayList<Point2D> path = new ArrayList<>();
+        int current = startCell;
+        path.add(new Point2D<Integer>(current % cols, current / cols));
+        while(current != endCell)
+        {
+            if(path.size() > rows * cols)
+                return null;
+            int x = current % cols, y = current / cols, next = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for(int d = 0; d < directions(); d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d], neighbor = ny * cols + nx;
+                if(!isInBounds(nx, ny) || Grid.testBit(solid, neighbor) || getG(neighbor) != getRhs(neighbor))
+                    continue;
+                double score = COST[d] + getG(neighbor);
+                if(score < best)
+                {
+                    best = score;
+                    next = neighbor;
+                }
+            }
+            if(next < 0)
+                return null;
+            current = next;
+            path.add(new Point2D<Integer>(current % cols, current / cols));
+        }
+        return path;
+    }
+
+    private void computeShortestPath()
+    {
+        while(!openSet.isEmpty() && (isBefore(openSet.peekKey(), openSet.peekSecondaryKey(), startCell)
+                || getRhs(startCell) > getG(startCell)))
+        {
+            int u = openSet.peek();
+            double oldKey = openSet.peekKey(), oldSecondaryKey = openSet.peekSecondaryKey();
+            double g = getG(u), rhsU = getRhs(u);
+            double secondaryKey = Math.min(g, rhsU), key = secondaryKey + heuristic(startCell, u) + km;
+
+            if(oldKey < key || (oldKey == key && oldSecondaryKey < secondaryKey))
+                openSet.update(u, key, secondaryKey);
+            else if(g > rhsU)
+            {
+                setG(u, rhsU);
+                openSet.remove(u);
+                int x = u % cols, y = u / cols;
+                for(int d = 0; d < directions(); d++)
+                {
+                    int s = u + DY[d] * cols + DX[d];
+                    if(isInBounds(x + DX[d], y + DY[d]) && s != endCell)
+                    {
+                        double cost = cost(s, u, d);
+                        if(cost + rhsU < getRhs(s))
+                            setRhs(s, cost + rhsU);
+                        updateVertex(s);
+                    }
+                }
+            }
+            else
+            {
+                setG(u, Double.POSITIVE_INFINITY);
+                int x = u % cols, y = u / cols;
+                for(int d = 0; d < directions(); d++)
+                {
+                    int s = u + DY[d] * cols + DX[d];
+                    if(isInBounds(x + DX[d], y + DY[d]) && getRhs(s) == cost(s, u, d) + g)
+                        updateRhs(s);
+                    else if(isInBounds(x + DX[d], y + DY[d]))
+                        updateVertex(s);
+                }
+                updateRhs(u);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the rhs value of the cell from its neighbors and puts it in the open set if it became inconsistent
+     */
+    private void updateRhs(int cell)
+    {
+        if(cell != endCell)
+        {
+            int x = cell % cols, y = cell / cols;
+            double best = Double.POSITIVE_INFINITY;
+            for(int d = 0; d < directions(); d++)
+                if(isInBounds(x + DX[d], y + DY[d]))
+                    best = Math.min(best, cost(cell, cell + DY[d] * cols + DX[d], d) + getG(cell + DY[d] * cols + DX[d]));
+            setRhs(cell, best);
+        }
+        updateVertex(cell);
+    }
+
+    private void updateVertex(int cell)
+    {
+        double g = getG(cell), rhsCell = getRhs(cell);
+        if(g != rhsCell)
+        {
+            double secondaryKey = Math.min(g, rhsCell);
+            openSet.update(cell, secondaryKey + heuristic(startCell, cell) + km, secondaryKey);
+        }
+        else
+            openSet.remove(cell);
+    }
+
+    /**
+     * Checks if the given key comes before the key of the cell
+     */
+    private boolean isBefore(double key, double secondaryKey, int cell)
+    {
+        double cellSecondaryKey = Math.min(getG(cell), getRhs(cell));
+        double cellKey = cellSecondaryKey + heuristic(startCell, cell) + km;
+        return key < cellKey || (key == cellKey && secondaryKey < cellSecondaryKey);
+    }
+
+    /**
+     * Gets the cost of moving between two neighboring cells. The move is blocked if either cell is solid
+     */
+    private double cost(int from, int to, int direction)
+    {
+        long[] solid = getEnvironment().getSolidBits();
+        return (Grid.testBit(solid, from) || Grid.testBit(solid, to)) ? Double.POSITIVE_INFINITY : COST[direction];
+    }
+
+    /**
+     * The octile distance when corners are allowed and the manhattan distance otherwise, in the units of the costs
+     */
+    private double heuristic(int a, int b)
+    {
+        int dx = Math.abs(a % cols - b % cols), dy = Math.abs(a / cols - b / cols);
+        if(!containCorners)
+            return (dx + dy) * STRAIGHT;
+        return Math.abs(dx - dy) * STRAIGHT + Math.min(dx, dy) * CORNER;
+    }
+
+    private int directions()
+    { return containCorners ? 8 : 4; }
+
+    private boolean isInBounds(int x, int y)
+    { return x >= 0 && x < cols && y >= 0 && y < rows; }
+
+    private double getG(int cell)
+    { return (seen[cell] == stamp) ? gScore[cell] : Double.POSITIVE_INFINITY; }
+
+    private double getRhs(int cell)
+    { return (seen[cell] == stamp) ? rhs[cell] : Double.POSITIVE_INFINITY; }
+
+    private void setG(int cell, double value)
+    {
+        touch(cell);
+        gScore[cell] = value;
+    }
+
+    private void setRhs(int cell, double value)
+    {
+        touch(cell);
+        rhs[cell] = value;
+    }
+
+    private void touch(int cell)
+    {
+        if(seen[cell] != stamp)
+        {
+            seen[cell] = stamp;
+            gScore[cell] = Double.POSITIVE_INFINITY;
+            rhs[cell] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private synchronized void environmentChanged(EnvironmentEvent<GridActor> event)
+    {
+        if(startCell < 0 || !event.isSolidChanged())
+            return;
+        cellsChanged(event.getOldBounds());
+        cellsChanged(event.getBounds());
+    }
+
+    private void cellsChanged(EnvironmentEvent.Bounds bounds)
+    {
+        if(bounds == null)
+            return;
+        for(int y = Math.max(0, (int) bounds.getMinY()); y <= Math.min(rows - 1, (int) bounds.getMaxY()); y++)
+            for(int x = Math.max(0, (int) bounds.getMinX()); x <= Math.min(cols - 1, (int) bounds.getMaxX()); x++)
+                cellChanged(y * cols + x);
+    }
+
+    private void cellChanged(int cell)
+    {
+        if(changed.get(cell))
+            return;
+        changed.set(cell);
+        if(changedCount == changedCells.length)
+            changedCells = Arrays.copyOf(changedCells, changedCount * 2);
+        changedCells[changedCount++] = cell;
+    }
+
+    private void clearChanges()
+    {
+        for(int i = 0; i < changedCount; i++)
+            changed.clear(changedCells[i]);
+        changedCount = 0;
+    }
+}
@@ -0,0 +1,381 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.environment.EnvironmentEvent;
+import com.pathplanner.world.environment.EnvironmentListener;
+import com.pathplanner.world.environment.Grid;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A FlowField holds the cost of reaching one goal cell of a Grid from every other cell. It is computed once with a
+ * Dijkstra search out of the goal, after which any number of robots heading to the same goal read their next step or
+ * their whole path from it in O(path length), without searching. Costs are stored as one float per cell.
+ * The field registers itself as an EnvironmentListener of its Grid and queues every cell whose solidity may have
+ * changed. update repairs the field for the queued cells with Lifelong Planning A* without a heuristic, which only
+ * touches the cells whose cost actually changed. When many cells changed at once the field is computed again instead.
+ * Call detach once the field is no longer needed so the Grid stops notifying it.
+ * As in AStar's indexed search, only solid actors block a cell, corners may be cut and step costs are 1 for straight
+ * moves and sqrt(2) for corners. Until update is called, reads answer for the version of the Grid returned by
+ * getVersion. Reads and updates are synchronized, so a field may be shared by several threads.
+ * @see FlowFieldPathFinder
+ */
+public class FlowField
+{
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+    private static final double SQRT2 = Math.sqrt(2);
+    private static final double[] COST = {1, 1, 1, 1, SQRT2, SQRT2, SQRT2, SQRT2};
+
+    // above this share of changed cells, computing the field again is cheaper than repairing it
+    private static final int REBUILD_DIVISOR = 16;
+
+    private final Grid grid;
+    private final int cols, rows, goal, directions;
+    private final boolean containCorners;
+    private final float[] cost, rhs;
+    private final IndexedPriorityQueue openSet;
+    private long version;
+
+    private int[] changedCells = new int[16];
+    private int changedCount;
+    private final BitSet changed = new BitSet();
+    private final EnvironmentListener<GridActor> environmentListener;
+
+    /**
+     * Computes the field of the given goal
+     * @param grid the Grid the field is computed on
+     * @param goal the goal cell
+     * @param containCorners true if diagonal moves are allowed
+     * @throws IllegalArgumentException if an argument is null or the goal is outside of the Grid
+     */
+    public FlowField(Grid grid, Point2D goal, boolean containCorners)
+    {
+        if(grid == null || goal == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        int goalX = goal.getX().intValue(), goalY = goal.getY().intValue();
+        if(!grid.isInBounds(goalX, goalY))
+            throw new IllegalArgumentException("invalid point position");
+
+        this.grid = grid;
+        this.containCorners = containCorners;
+        cols = grid.getCols();
+        rows = grid.getRows();
+        this.goal = grid.toIndex(goalX, goalY);
+        directions = containCorners ? 8 : 4;
+        cost = new float[rows * cols];
+        rhs = new float[rows * cols];
+        openSet = new IndexedPriorityQueue(rows * cols);
+        environmentListener = this::environmentChanged;
+        grid.addEnvironmentListener(environmentListener);
+        compute();
+    }
+
+    public Grid getGrid()
+    { return grid; }
+
+    public Point2D<Integer> getGoal()
+    { return new Point2D<Integer>(goal % cols, goal / cols); }
+
+    public boolean isContainCorners()
+    { return containCorners; }
+
+    /**
+     * Gets the version of the Grid the field was last computed or updated for
+     * @return the version of the Grid the field matches
+     */
+    public synchronized long getVersion()
+    { return version; }
+
+    /**
+     * Checks if cells changed since the field was last computed or updated
+     * @return true if update has changes to apply
+     */
+    public synchronized boolean hasChanges()
+    { return changedCount > 0; }
+
+    /**
+     * Gets the cost of the shortest path from the given cell to the goal
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @return the cost to the goal, or positive infinity if the goal cannot be reached or the cell is outside of the Grid
+     */
+    public synchronized float getCost(int x, int y)
+    { return isInBounds(x, y) ? cost[y * cols + x] : Float.POSITIVE_INFINITY; }
+
+    /**
+     * Gets the neighbor of the given cell to move to next on a shortest path to the goal
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @return the id (y * cols + x) of the next cell, the id of the goal if the cell is the goal, or -1 if the goal
+     * cannot be reached from the cell
+     */
+    public synchronized int getNextCell(int x, int y)
+    {
+        if(!isInBounds(x, y) || !reachesGoal(y * cols + x))
+            return -1;
+        return (y * cols + x == goal) ? goal : nextCell(y * cols + x);
+    }
+
+    /**
+     * Gets the neighbor of the given point to move to next on a shortest path to the goal
+     * @param position the current position
+     * @return the next cell, or null if the goal cannot be reached from the position
+     * @throws IllegalArgumentException if position is null
+     */
+    public Point2D<Integer> getNextStep(Point2D position)
+    {
+        if(position == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        int next = getNextCell(position.getX().intValue(), position.getY().intValue());
+        return (next < 0) ? null : new Point2D<Integer>(next % cols, next / cols);
+    }
+
+    /**
+     * Follows the field from the given point to the goal. The cost to the goal strictly falls along the path, so it never
+     * visits a cell twice; a path longer than the number of cells means the field is broken and no path is returned
+     * @param start the start point of the path
+     * @return a shortest path from the start point to the goal or null if the goal cannot be reached
+     * @throws IllegalArgumentException if start is null
+     */
+    public synchronized ArrayList<Point2D> getPath(Point2D start)
+    {
+        if(start == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        int x = start.getX().intValue(), y = start.getY().intValue();
+        if(!isInBounds(x, y) || !reachesGoal(y * cols + x))
+            return null;
+
+        ArrayList<Point2D> path = new ArrayList<>();
+        int current = y * cols + x;
+        path.add(new Point2D<Integer>(x, y));
+        while(current != goal)
+        {
+            if(path.size() > rows * cols)
+                return null;
+            current = nextCell(current);
+            path.add(new Point2D<Integer>(current % cols, current / cols));
+        }
+        return path;
+    }
+
+    /**
+     * Applies every cell whose solidity changed since the field was last computed or updated. Only the cells whose cost
+     * to the goal changed are visited, unless so many cells changed that the field is computed again
+     * @return true if the field was changed
+     */
+    public synchronized boolean update()
+    {
+        long newVersion = grid.getVersion();
+        if(changedCount == 0)
+        {
+            version = newVersion;
+            return false;
+        }
+
+        if(changedCount > rows * cols / REBUILD_DIVISOR)
+            compute();
+        else
+        {
+            for(int i = 0; i < changedCount; i++)
+            {
+                int cell = changedCells[i], x = cell % cols, y = cell / cols;
+                updateRhs(cell);
+                for(int d = 0; d < directions; d++)
+                    if(isInBounds(x + DX[d], y + DY[d]))
+                        updateRhs(cell + DY[d] * cols + DX[d]);
+            }
+            repair();
+        }
+        clearChanges();
+        version = newVersion;
+        return true;
+    }
+
+    /**
+     * Stops listening to changes of the Grid. After this call update no longer sees cells that change
+     */
+    public void detach()
+    { grid.removeEnvironmentListener(environmentListener); }
+
+    /**
+     * Computes the whole field with a Dijkstra search out of the goal
+     */
+    private void compute()
+    {
+        version = grid.getVersion();
+        clearChanges();
+        Arrays.fill(cost, Float.POSITIVE_INFINITY);
+        openSet.clear();
+
+        long[] solid = grid.getSolidBits();
+        cost[goal] = 0;
+        if(!Grid.testBit(solid, goal))
+            openSet.update(goal, 0);
+
+        while(!openSet.isEmpty())
+        {
+            int current = openSet.poll();
+            int x = current % cols, y = current / cols;
+            for(int d = 0; d < directions; d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d];
+                if(nx < 0 || nx >= cols || ny < 0 || ny >= rows)
+                    continue;
+
+                int neighbor = ny * cols + nx;
+                float newCost = (float)(cost[current] + COST[d]);
+                if(newCost < cost[neighbor] && !Grid.testBit(solid, neighbor))
+                {
+                    cost[neighbor] = newCost;
+                    openSet.update(neighbor, newCost);
+                }
+            }
+        }
+        System.arraycopy(cost, 0, rhs, 0, cost.length);
+    }
+
+    /**
+     * Runs Lifelong Planning A* without a heuristic until every cell is consistent again. The key of a cell is the
+     * smaller of its cost and rhs value, and the costs are symmetric, so the neighbors of a cell are also its predecessors
+     */
+    private void repair()
+    {
+        while(!openSet.isEmpty())
+        {
+            int u = openSet.poll();
+            int x = u % cols, y = u / cols;
+            float g = cost[u];
+            if(g > rhs[u])
+            {
+                cost[u] = rhs[u];
+                for(int d = 0; d < directions; d++)
+                {
+                    int s = u + DY[d] * cols + DX[d];
+                    if(isInBounds(x + DX[d], y + DY[d]) && s != goal)
+                    {
+                        float newRhs = (float)(stepCost(s, u, d) + rhs[u]);
+                        if(newRhs < rhs[s])
+                            rhs[s] = newRhs;
+                        updateVertex(s);
+                    }
+                }
+            }
+            else
+            {
+                cost[u] = Float.POSITIVE_INFINITY;
+                for(int d = 0; d < directions; d++)
+                {
+                    int s = u + DY[d] * cols + DX[d];
+                    if(isInBounds(x + DX[d], y + DY[d]) && rhs[s] == (float)(stepCost(s, u, d) + g))
+                        updateRhs(s);
+                }
+                updateRhs(u);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the rhs value of the cell from its neighbors and puts it in the open set if it became inconsistent
+     */
+    private void updateRhs(int cell)
+    {
+        if(cell != goal)
+        {
+            int x = cell % cols, y = cell / cols;
+            float best = Float.POSITIVE_INFINITY;
+            for(int d = 0; d < directions; d++)
+                if(isInBounds(x + DX[d], y + DY[d]))
+                    best = Math.min(best, (float)(stepCost(cell, cell + DY[d] * cols + DX[d], d) + cost[cell + DY[d] * cols + DX[d]]));
+            rhs[cell] = best;
+        }
+        updateVertex(cell);
+    }
+
+    private void updateVertex(int cell)
+    {
+        if(cost[cell] != rhs[cell])
+            openSet.update(cell, Math.min(cost[cell], rhs[cell]));
+        else
+            openSet.remove(cell);
+    }
+
+    /**
+     * Checks if the goal can be reached from the cell. A solid cell has no cost of its own, but as in AStar a path may
+     * still leave it for a free neighbor
+     */
+    private boolean reachesGoal(int cell)
+    { return cost[cell] != Float.POSITIVE_INFINITY || (Grid.testBit(grid.getSolidBits(), cell) && nextCell(cell) >= 0); }
+
+    /**
+     * Finds the neighbor with the lowest step cost plus cost to the goal. Costs to the goal strictly fall along these
+     * steps, so following them always reaches the goal. Only the costs are read, so a field that has not been updated yet
+     * still gives the paths of the version it matches
+     */
+    private int nextCell(int cell)
+    {
+        int x = cell % cols, y = cell / cols, next = -1;
+        double best = Double.POSITIVE_INFINITY;
+        for(int d = 0; d < directions; d++)
+        {
+            int nx = x + DX[d], ny = y + DY[d];
+            if(!isInBounds(nx, ny))
+                continue;
+            double score = COST[d] + cost[ny * cols + nx];
+            if(score < best)
+            {
+                best = score;
+                next = ny * cols + nx;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Gets the cost of moving between two neighboring cells. The move is blocked if either cell is solid
+     */
+    private double stepCost(int from, int to, int direction)
+    {
+        long[] solid = grid.getSolidBits();
+        return (Grid.testBit(solid, from) || Grid.testBit(solid, to)) ? Double.POSITIVE_INFINITY : COST[direction];
+    }
+
+    private boolean isInBounds(int x, int y)
+    { return x >= 0 && x < cols && y >= 0 && y < rows; }
+
+    private synchronized void environmentChanged(EnvironmentEvent<GridActor> event)
+    {
+        if(!event.isSolidChanged())
+            return;
+        cellsChanged(event.getOldBounds());
+        cellsChanged(event.getBounds());
+    }
+
+    private void cellsChanged(EnvironmentEvent.Bounds bounds)
+    {
+        if(bounds == null)
+            return;
+        for(int y = Math.max(0, (int) bounds.getMinY()); y <= Math.min(rows - 1, (int) bounds.getMaxY()); y++)
+            for(int x = Math.max(0, (int) bounds.getMinX()); x <= Math.min(cols - 1, (int) bounds.getMaxX()); x++)
+                cellChanged(y * cols + x);
+    }
+
+    private void cellChanged(int cell)
+    {
+        if(changed.get(cell))
+            return;
+        changed.set(cell);
+        if(changedCount == changedCells.length)
+            changedCells = Arrays.copyOf(changedCells, changedCount * 2);
+        changedCells[changedCount++] = cell;
+    }
+
+    private void clearChanges()
+    {
+        for(int i = 0; i < changedCount; i++)
+            changed.clear(changedCells[i]);
+        changedCount = 0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Grid;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A FlowFieldPathFinder answers generatePathSegment from the FlowField of the end point, so the first query to a goal
+ * computes the cost to that goal from every cell once and every later query to the same goal only follows the field.
+ * This suits many robots heading to the same few goals, which would otherwise each run a full AStar search.
+ * Fields are cached per goal and corner mode. A cached field that is older than the current version of the Grid is
+ * updated incrementally for the cells that changed before it is used. The cache holds a bounded number of fields and
+ * detaches the least recently used one when it is full. Each field takes two floats per cell.
+ * The paths follow the movement rules of AStar's indexed search and are as short as its paths. A FlowFieldPathFinder
+ * may be shared by several threads.
+ * @see FlowField
+ */
+public class FlowFieldPathFinder extends PathFinder<Grid>
+{
+    public static final int DEFAULT_MAX_FIELDS = 8;
+
+    private final int maxFields;
+    private final LinkedHashMap<Long, FlowField> fields = new LinkedHashMap<>(16, 0.75f, true);
+
+    public FlowFieldPathFinder(Grid grid)
+    { this(grid, DEFAULT_MAX_FIELDS); }
+
+    /**
+     * Creates a FlowFieldPathFinder that caches up to the given number of fields
+     * @param grid the Grid the paths are planned on
+     * @param maxFields the most fields the cache holds
+     * @throws IllegalArgumentException if grid is null or maxFields is not positive
+     */
+    public FlowFieldPathFinder(Grid grid, int maxFields)
+    {
+        super(grid);
+        if(maxFields <= 0)
+            throw new IllegalArgumentException("Positive cache bounds expected");
+        this.maxFields = maxFields;
+    }
+
+    public FlowFieldPathFinder(Grid grid, Point2D<Integer> start, Point2D<Integer> end)
+    {
+        super(grid, start, end);
+        maxFields = DEFAULT_MAX_FIELDS;
+    }
+
+    public FlowFieldPathFinder(Grid grid, Point2D<Integer>... point2DS)
+    {
+        super(grid, point2DS);
+        maxFields = DEFAULT_MAX_FIELDS;
+    }
+
+    public boolean isThreadSafe()
+    { return true; }
+
+    /**
+     * Follows the field of the end point from the start point
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal moves are allowed
+     * @return the optimal path from the start to the end point or null if no path exists
+     */
+    public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    {
+        Grid grid = getEnvironment();
+        int endX = end.getX().intValue(), endY = end.getY().intValue();
+        if(!grid.isInBounds(endX, endY) || grid.isSolid(endX, endY))
+            return null;
+        return getField(end, containCorners).getPath(start);
+    }
+
+    /**
+     * Gets the field of the given goal, matching the current version of the Grid. The field is computed if it is not
+     * cached and updated if the Grid changed since it was last used
+     * @param goal the goal cell
+     * @param containCorners true if diagonal moves are allowed
+     * @return the field of the goal
+     * @throws IllegalArgumentException if goal is null or outside of the Grid
+     */
+    public FlowField getField(Point2D goal, boolean containCorners)
+    {
+        Grid grid = getEnvironment();
+        if(goal == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        int x = goal.getX().intValue(), y = goal.getY().intValue();
+        if(!grid.isInBounds(x, y))
+            throw new IllegalArgumentException("invalid point position");
+
+        Long key = 2L * grid.toIndex(x, y) + (containCorners ? 1 : 0);
+        FlowField field;
+        synchronized(fields)
+        {
+            field = fields.get(key);
+            if(field == null)
+            {
+                field = new FlowField(grid, goal, containCorners);
+                fields.put(key, field);
+                Iterator<Map.Entry<Long, FlowField>> iterator = fields.entrySet().iterator();
+                while(fields.size() > maxFields && iterator.hasNext())
+                {
+                    iterator.next().getValue().detach();
+                    iterator.remove();
+                }
+                return field;
+            }
+        }
+        if(field.getVersion() != grid.getVersion())
+            field.update();
+        return field;
+    }
+
+    /**
+     * Gets the number of cached fields
+     * @return the size of the cache
+     */
+    public int getFieldCount()
+    {
+        synchronized(fields)
+        { return fields.size(); }
+    }
+
+    /**
+     * Detaches and removes every cached field
+     */
+    public void clearFields()
+    {
+        synchronized(fields)
+        {
+            for(FlowField field : fields.values())
+                field.detach();
+            fields.clear();
+        }
+    }
+}
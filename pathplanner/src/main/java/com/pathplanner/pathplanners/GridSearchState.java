@@ -0,0 +1,192 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+
+import java.util.*;
+
+/**
+ * GridSearchState holds the per-cell arrays used by pathfinders that search a Grid by cell id (y * cols + x). The
+ * arrays are allocated once for a given Grid size and reused by every search. Instead of clearing them between
+ * searches, each search gets a new stamp and a cell's g score and parent are only valid while its seen stamp matches
+ * the current one. Starting a search is therefore O(1) and allocates nothing.
+ * A GridSearchState must only be used by one search at a time. Pathfinders that may run several searches at once
+ * borrow their states from a Pool.
+ */
+class GridSearchState
+{
+    final int cells;
+    final IndexedPriorityQueue openSet;
+    final double[] gScore;
+    final int[] parent;
+    final int[] seen;
+    final int[] closed;
+    int stamp;
+
+    /**
+     * Creates the search arrays for a Grid with the given number of cells
+     * @param cells the number of cells on the Grid
+     */
+    GridSearchState(int cells)
+    {
+        this.cells = cells;
+        openSet = new IndexedPriorityQueue(cells);
+        gScore = new double[cells];
+        parent = new int[cells];
+        seen = new int[cells];
+        closed = new int[cells];
+    }
+
+    /**
+     * Starts a new search. Every cell becomes unseen and unclosed and the open set is emptied
+     * @return the stamp of the new search
+     */
+    int nextSearch()
+    {
+        openSet.clear();
+        if(++stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    /**
+     * Checks if the cell has been reached during the current search
+     * @param id the id of the cell
+     * @return true if the cell has a valid g score and parent
+     */
+    boolean isSeen(int id)
+    { return seen[id] == stamp; }
+
+    /**
+     * Checks if the cell has been expanded during the current search
+     * @param id the id of the cell
+     * @return true if the cell is closed
+     */
+    boolean isClosed(int id)
+    { return closed[id] == stamp; }
+
+    /**
+     * Records a new g score and parent for the cell
+     * @param id the id of the cell
+     * @param g the cost of reaching the cell
+     * @param from the id of the cell it was reached from or -1 for the start cell
+     */
+    void reach(int id, double g, int from)
+    {
+        seen[id] = stamp;
+        gScore[id] = g;
+        parent[id] = from;
+    }
+
+    /**
+     * Marks the cell as expanded during the current search
+     * @param id the id of the cell
+     */
+    void close(int id)
+    { closed[id] = stamp; }
+
+    /**
+     * Follows the parents from the given cell back to the start and builds the path from the start to that cell
+     * @param end the id of the last cell of the path
+     * @param cols the number of columns of the Grid
+     * @return the path as Integer points from the start to the end
+     */
+    ArrayList<Point2D> reconstructPath(int end, int cols)
+    {
+        ArrayList<Point2D> path = new ArrayList<>();
+        for(int id = end; id >= 0; id = parent[id])
+            path.add(new Point2D<Integer>(id % cols, id / cols));
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * A thread safe pool of GridSearchStates. Each search borrows a state and returns it when it is done, so concurrent
+     * searches never share arrays while sequential searches keep reusing the same ones. Idle states are kept per size,
+     * so a state is only handed to searches of its own size, and at most maxIdle of them are kept. When the pool is full,
+     * a returned state replaces an idle state of another size, since the size that was just used is the one most likely
+     * to be asked for again; if every idle state has its size, the returned state is dropped.
+     */
+    static class Pool
+    {
+        private final int maxIdle;
+        private final Map<Integer, ArrayDeque<GridSearchState>> states = new HashMap<>();
+        private int idle;
+
+        /**
+         * Creates a pool that keeps one idle state per available processor
+         */
+        Pool()
+        { this(Runtime.getRuntime().availableProcessors()); }
+
+        /**
+         * Creates a pool that keeps up to the given number of idle states
+         * @param maxIdle the most states kept while no search uses them
+         * @throws IllegalArgumentException if maxIdle is negative
+         */
+        Pool(int maxIdle)
+        {
+            if(maxIdle < 0)
+                throw new IllegalArgumentException("maxIdle must be at least 0");
+            this.maxIdle = maxIdle;
+        }
+
+        /**
+         * Borrows a state for a Grid with the given number of cells
+         * @param cells the number of cells on the Grid
+         * @return a state that is not used by any other search
+         */
+        GridSearchState acquire(int cells)
+        {
+            synchronized(this)
+            {
+                ArrayDeque<GridSearchState> queue = states.get(cells);
+                if(queue != null)
+                {
+                    idle--;
+                    GridSearchState state = queue.poll();
+                    if(queue.isEmpty())
+                        states.remove(cells);
+                    return state;
+                }
+            }
+            return new GridSearchState(cells);
+        }
+
+        /**
+         * Returns a borrowed state to the pool
+         * @param state the state that is no longer used
+         */
+        synchronized void release(GridSearchState state)
+        {
+            if(idle >= maxIdle && !dropOtherSize(state.cells))
+                return;
+            states.computeIfAbsent(state.cells, cells -> new ArrayDeque<>()).push(state);
+            idle++;
+        }
+
+        /**
+         * Drops one idle state whose size is not the given one
+         * @return true if a state was dropped
+         */
+        private boolean dropOtherSize(int cells)
+        {
+            Iterator<Map.Entry<Integer, ArrayDeque<GridSearchState>>> iterator = states.entrySet().iterator();
+            while(iterator.hasNext())
+            {
+                Map.Entry<Integer, ArrayDeque<GridSearchState>> entry = iterator.next();
+                if(entry.getKey() == cells)
+                    continue;
+                entry.getValue().poll();
+                if(entry.getValue().isEmpty())
+                    iterator.remove();
+                idle--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
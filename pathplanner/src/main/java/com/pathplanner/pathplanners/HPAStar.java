@@ -0,0 +1,686 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Grid;
+import java.util.*;
+
+/**
+ * HPAStar is a hierarchical version of AStar's indexed search for large Grids (HPA*, Botea, Mueller and Schaeffer).
+ * The Grid is split into square clusters. Wherever two neighboring clusters share a run of free cells along their
+ * border, transitions are placed on the run and the cells on both sides of a transition become nodes of an abstract
+ * graph. Nodes of the same cluster are connected by the length of the shortest path between them inside the cluster,
+ * and the two cells of a transition are connected by a single step.
+ * A search connects its start and end cells to the nodes of their clusters, searches the much smaller abstract graph
+ * and then refines every abstract edge back into cells with a search that never leaves one cluster. Because every path
+ * between clusters has to pass through a transition, the refined path can make detours, which are worst for nearby cells
+ * in different clusters. Two things keep them short. When the start and end are at most two clusters apart, the window
+ * reaching two clusters past both of them is searched directly and its path is returned unless the abstract path is
+ * shorter. The refined path is then shortened by searching squares reaching one cluster around points spaced along it
+ * and replacing the part of the path inside each square with the shortest path through it. The result is still not
+ * always optimal: on random maps of up to 160 by 160 cells with up to 35% obstacles, no path found was more than 1.4
+ * times as long as the shortest one.
+ * The abstract graph is built the first time it is needed. When the version of the Grid changes, only the clusters
+ * whose cells changed, and the neighbors sharing a changed border cell, are rebuilt. As in the indexed search, only
+ * solid actors block a cell and corners may be cut. The Grid must not be modified while a path is being generated.
+ */
+public class HPAStar extends PathFinder<Grid>
+{
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    // runs of free border cells at least this long get a transition at both ends instead of one in the middle
+    private static final int MAX_ENTRANCE_WIDTH = 6;
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+    private static final double SQRT2 = Math.sqrt(2);
+    private static final double[] COST = {1, 1, 1, 1, SQRT2, SQRT2, SQRT2, SQRT2};
+
+    private final int clusterSize;
+    private final Layer[] layers = new Layer[2];
+    private final GridSearchState.Pool searchStates = new GridSearchState.Pool();
+
+    public HPAStar(Grid grid)
+    { this(grid, DEFAULT_CLUSTER_SIZE); }
+
+    /**
+     * Creates an HPAStar that splits the Grid into clusters of the given size
+     * @param grid the Grid the pathfinder will run on
+     * @param clusterSize the side length of a cluster in cells
+     * @throws IllegalArgumentException if the cluster size is less than 1
+     */
+    public HPAStar(Grid grid, int clusterSize)
+    {
+        super(grid);
+        if(clusterSize < 1)
+            throw new IllegalArgumentException("cluster size must be at least 1");
+        this.clusterSize = clusterSize;
+    }
+
+    public HPAStar(Grid grid, Point2D<Integer> start, Point2D<Integer> end)
+    {
+        super(grid, start, end);
+        clusterSize = DEFAULT_CLUSTER_SIZE;
+    }
+
+    public HPAStar(Grid grid, Point2D<Integer>... point2DS)
+    {
+        super(grid, point2DS);
+        clusterSize = DEFAULT_CLUSTER_SIZE;
+    }
+
+    /**
+     * Gets the side length of a cluster
+     * @return the number of cells along each side of a cluster
+     */
+    public int getClusterSize()
+    { return clusterSize; }
+
+    public boolean isThreadSafe()
+    { return true; }
+
+    public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    {
+        Grid grid = getEnvironment();
+        int startX = start.getX().intValue(), startY = start.getY().intValue();
+        int endX = end.getX().intValue(), endY = end.getY().intValue();
+
+        if(!grid.isInBounds(startX, startY) || !grid.isInBounds(endX, endY) || grid.isSolid(endX, endY))
+            return null;
+
+        Layer layer = getLayer(containCorners);
+        // node ids come and go as clusters are rebuilt, so the size is rounded up to keep borrowing states of one size
+        GridSearchState state = searchStates.acquire(Integer.highestOneBit(layer.nodeCapacity() + 1) << 1);
+        try
+        {
+            return layer.findPath(state, grid.toIndex(startX, startY), grid.toIndex(endX, endY));
+        }
+        finally
+        {
+            searchStates.release(state);
+        }
+    }
+
+    /**
+     * Gets the abstract graph for the given movement rule, building it or bringing it up to date with the Grid first
+     */
+    private synchronized Layer getLayer(boolean containCorners)
+    {
+        int i = containCorners ? 1 : 0;
+        if(layers[i] == null)
+            layers[i] = new Layer(getEnvironment(), clusterSize, containCorners);
+        else
+            layers[i].update();
+        return layers[i];
+    }
+
+    /**
+     * The abstract graph of the Grid for one movement rule. Every node has an integer id; ids of removed nodes are reused.
+     * Each cluster keeps the ids of its nodes and the matrix of shortest distances between them inside the cluster.
+     */
+    private static class Layer
+    {
+        final Grid grid;
+        final int cols, rows, clusterSize, clusterCols, clusterRows, directions;
+        final boolean containCorners;
+
+        final int[][] clusterNodes;
+        final double[][] clusterDistances;
+        final BitSet nodes = new BitSet();
+        // every id below this one is in use
+        int firstFreeNode;
+        int[] nodeCell = new int[64];
+        int[] nodeIndex = new int[64];
+
+        final long[] builtSolid;
+        long builtVersion;
+
+        Layer(Grid grid, int clusterSize, boolean containCorners)
+        {
+            this.grid = grid;
+            this.cols = grid.getCols();
+            this.rows = grid.getRows();
+            this.clusterSize = clusterSize;
+            this.clusterCols = (cols + clusterSize - 1) / clusterSize;
+            this.clusterRows = (rows + clusterSize - 1) / clusterSize;
+            this.directions = containCorners ? 8 : 4;
+            this.containCorners = containCorners;
+
+            clusterNodes = new int[clusterCols * clusterRows][];
+            clusterDistances = new double[clusterCols * clusterRows][];
+            builtSolid = grid.getSolidBits().clone();
+            builtVersion = grid.getVersion();
+
+            ClusterSearch search = new ClusterSearch(clusterSize);
+            for(int cluster = 0; cluster < clusterNodes.length; cluster++)
+                rebuildCluster(cluster, search);
+        }
+
+        int nodeCapacity()
+        { return nodes.length(); }
+
+        /**
+         * Rebuilds the clusters affected by the cells whose solidity changed since the graph was last built. A changed
+         * cell dirties its own cluster and every cluster holding one of its eight neighbors, because the transitions
+         * on their shared borders may have moved
+         */
+        void update()
+        {
+            if(grid.getVersion() == builtVersion)
+                return;
+
+            long[] solid = grid.getSolidBits();
+            BitSet dirty = new BitSet(clusterNodes.length);
+            for(int word = 0; word < solid.length; word++)
+            {
+                for(long changed = solid[word] ^ builtSolid[word]; changed != 0; changed &= changed - 1)
+                {
+                    int cell = (word << 6) + Long.numberOfTrailingZeros(changed);
+                    int x = cell % cols, y = cell / cols;
+                    for(int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, rows - 1); ny++)
+                        for(int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, cols - 1); nx++)
+                            dirty.set(clusterOf(ny * cols + nx));
+                }
+                builtSolid[word] = solid[word];
+            }
+
+            ClusterSearch search = new ClusterSearch(clusterSize);
+            for(int cluster = dirty.nextSetBit(0); cluster >= 0; cluster = dirty.nextSetBit(cluster + 1))
+                rebuildCluster(cluster, search);
+            builtVersion = grid.getVersion();
+        }
+
+        /**
+         * Replaces the nodes of a cluster with the transition cells currently on its borders and recomputes the
+         * distances between them
+         */
+        private void rebuildCluster(int cluster, ClusterSearch search)
+        {
+            if(clusterNodes[cluster] != null)
+                for(int id : clusterNodes[cluster])
+                {
+                    nodes.clear(id);
+                    firstFreeNode = Math.min(firstFreeNode, id);
+                }
+
+            int[] cells = entranceCells(cluster);
+            int[] ids = new int[cells.length];
+            for(int i = 0; i < cells.length; i++)
+            {
+                int id = nodes.nextClearBit(firstFreeNode);
+                firstFreeNode = id + 1;
+                if(id >= nodeCell.length)
+                {
+                    nodeCell = Arrays.copyOf(nodeCell, nodeCell.length * 2);
+                    nodeIndex = Arrays.copyOf(nodeIndex, nodeIndex.length * 2);
+                }
+                nodes.set(id);
+                nodeCell[id] = cells[i];
+                nodeIndex[id] = i;
+                ids[i] = id;
+            }
+
+            double[] distances = new double[cells.length * cells.length];
+            for(int i = 0; i < cells.length; i++)
+            {
+                search.run(this, cluster, cells[i]);
+                for(int j = 0; j < cells.length; j++)
+                    distances[i * cells.length + j] = search.distance(cells[j]);
+            }
+            clusterNodes[cluster] = ids;
+            clusterDistances[cluster] = distances;
+        }
+
+        /**
+         * Finds the cells of the cluster that take part in a transition with a neighboring cluster. The borders are
+         * scanned for maximal runs of cells that are free on both sides. A short run gets one transition in its middle
+         * and a long run one at each end. Both clusters of a border find the same runs, so their transitions line up.
+         * When corners are allowed, cells that can only reach another cluster by a diagonal step are transitions too
+         */
+        private int[] entranceCells(int cluster)
+        {
+            int x0 = (cluster % clusterCols) * clusterSize, y0 = (cluster / clusterCols) * clusterSize;
+            int x1 = Math.min(x0 + clusterSize, cols), y1 = Math.min(y0 + clusterSize, rows);
+            // a border of length n has at most n transition cells, and every perimeter cell may add a corner transition
+            int[] cells = new int[8 * clusterSize];
+            int count = 0;
+
+            if(x0 > 0)
+                count = addEntrances(cells, count, x0, y0, 0, 1, y1 - y0, -1, 0);
+            if(x1 < cols)
+                count = addEntrances(cells, count, x1 - 1, y0, 0, 1, y1 - y0, 1, 0);
+            if(y0 > 0)
+                count = addEntrances(cells, count, x0, y0, 1, 0, x1 - x0, 0, -1);
+            if(y1 < rows)
+                count = addEntrances(cells, count, x0, y1 - 1, 1, 0, x1 - x0, 0, 1);
+            if(containCorners)
+                count = addCornerEntrances(cells, count, cluster, x0, y0, x1, y1);
+            return Arrays.copyOf(cells, count);
+        }
+
+        /**
+         * Scans one border of a cluster starting at (x, y) and moving by (stepX, stepY) for the given length. The cell on
+         * the other side of the border is at an offset of (outX, outY). Transition cells not already present are appended
+         * @return the new number of cells
+         */
+        private int addEntrances(int[] cells, int count, int x, int y, int stepX, int stepY, int length, int outX, int outY)
+        {
+            long[] solid = grid.getSolidBits();
+            int runStart = -1;
+            for(int i = 0; i <= length; i++)
+            {
+                int cx = x + stepX * i, cy = y + stepY * i;
+                boolean free = i < length && !Grid.testBit(solid, cy * cols + cx)
+                        && !Grid.testBit(solid, (cy + outY) * cols + cx + outX);
+                if(free && runStart < 0)
+                    runStart = i;
+                else if(!free && runStart >= 0)
+                {
+                    int runEnd = i - 1;
+                    if(runEnd - runStart + 1 < MAX_ENTRANCE_WIDTH)
+                        count = addCell(cells, count, (y + stepY * ((runStart + runEnd) / 2)) * cols + x + stepX * ((runStart + runEnd) / 2));
+                    else
+                    {
+                        count = addCell(cells, count, (y + stepY * runStart) * cols + x + stepX * runStart);
+                        count = addCell(cells, count, (y + stepY * runEnd) * cols + x + stepX * runEnd);
+                    }
+                    runStart = -1;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Appends the perimeter cells of the cluster that have a free diagonal neighbor in another cluster while both
+         * cells between them are solid. Without these transitions such a corner cut would be missing from the graph
+         * @return the new number of cells
+         */
+        private int addCornerEntrances(int[] cells, int count, int cluster, int x0, int y0, int x1, int y1)
+        {
+            long[] solid = grid.getSolidBits();
+            for(int y = y0; y < y1; y++)
+                for(int x = x0; x < x1; x++)
+                {
+                    if((y != y0 && y != y1 - 1 && x != x0 && x != x1 - 1) || Grid.testBit(solid, y * cols + x))
+                        continue;
+                    for(int d = 4; d < 8; d++)
+                    {
+                        int nx = x + DX[d], ny = y + DY[d];
+                        if(nx >= 0 && nx < cols && ny >= 0 && ny < rows && clusterOf(ny * cols + nx) != cluster
+                                && !Grid.testBit(solid, ny * cols + nx)
+                                && Grid.testBit(solid, y * cols + nx) && Grid.testBit(solid, ny * cols + x))
+                            count = addCell(cells, count, y * cols + x);
+                    }
+                }
+            return count;
+        }
+
+        private static int addCell(int[] cells, int count, int cell)
+        {
+            for(int i = 0; i < count; i++)
+                if(cells[i] == cell)
+                    return count;
+            cells[count] = cell;
+            return count + 1;
+        }
+
+        /**
+         * Gets the id of the node on the given cell of the cluster
+         * @return the id of the node or -1 if the cell is not a node
+         */
+        private int nodeAt(int cluster, int cell)
+        {
+            for(int id : clusterNodes[cluster])
+                if(nodeCell[id] == cell)
+                    return id;
+            return -1;
+        }
+
+        int clusterOf(int cell)
+        { return (cell / cols / clusterSize) * clusterCols + (cell % cols) / clusterSize; }
+
+        /**
+         * Finds a path from the start cell to the end cell. The start and end are added to the abstract search as the
+         * extra nodes capacity and capacity + 1 and connected to the nodes of their clusters, so the shared graph is never
+         * modified by a search. When the end is at most two clusters away from the start, the path found by a search of
+         * the window around both is returned if the abstract path is not shorter
+         * @param state the search arrays, sized for at least capacity + 2 nodes
+         * @param startCell the id of the start cell
+         * @param endCell the id of the end cell
+         * @return the refined path from the start to the end or null if no path exists
+         */
+        ArrayList<Point2D> findPath(GridSearchState state, int startCell, int endCell)
+        {
+            int capacity = nodeCapacity(), start = capacity, end = capacity + 1;
+            int startCluster = clusterOf(startCell), endCluster = clusterOf(endCell);
+            int endX = endCell % cols, endY = endCell / cols;
+            ClusterSearch search = new ClusterSearch(clusterSize);
+
+            int[] startNodes = clusterNodes[startCluster], endNodes = clusterNodes[endCluster];
+            double[] startDistances = new double[startNodes.length], endDistances = new double[endNodes.length];
+            search.run(this, startCluster, startCell);
+            for(int i = 0; i < startNodes.length; i++)
+                startDistances[i] = search.distance(nodeCell[startNodes[i]]);
+            double direct = (startCluster == endCluster) ? search.distance(endCell) : Double.POSITIVE_INFINITY;
+            search.run(this, endCluster, endCell);
+            for(int i = 0; i < endNodes.length; i++)
+                endDistances[i] = search.distance(nodeCell[endNodes[i]]);
+
+            ArrayList<Point2D> local = null;
+            double localDistance = Double.POSITIVE_INFINITY;
+            int startX = startCell % cols, startY = startCell / cols;
+            if(Math.abs(startX - endX) <= 2 * clusterSize && Math.abs(startY - endY) <= 2 * clusterSize)
+            {
+                ClusterSearch window = new ClusterSearch(4 * clusterSize + 1);
+                int reach = 2 * clusterSize;
+                window.run(this, Math.max(startX, endX) - reach, Math.max(startY, endY) - reach,
+                        Math.min(startX, endX) + reach + 1, Math.min(startY, endY) + reach + 1, startCell);
+                localDistance = window.distance(endCell);
+                if(localDistance < Double.POSITIVE_INFINITY)
+                {
+                    local = new ArrayList<>();
+                    local.add(new Point2D<Integer>(startX, startY));
+                    window.appendPath(local, endCell);
+                }
+            }
+
+            state.nextSearch();
+            state.reach(start, 0, -1);
+            state.openSet.update(start, 0);
+            while(!state.openSet.isEmpty())
+            {
+                int current = state.openSet.poll();
+                state.close(current);
+                if(current == end && state.gScore[end] >= localDistance)
+                    return local;
+                if(current == end)
+                    return shortcut(refine(state, search, start, end, startCell, endCell));
+
+                double g = state.gScore[current];
+                if(current == start)
+                {
+                    for(int i = 0; i < startNodes.length; i++)
+                        relax(state, current, startNodes[i], nodeCell[startNodes[i]], g + startDistances[i], endX, endY);
+                    relax(state, current, end, endCell, g + direct, endX, endY);
+                    if(grid.isSolid(startCell % cols, startCell / cols))
+                        relaxSolidStart(state, search, start, startCell, end, endCell, endX, endY);
+                    continue;
+                }
+
+                int cell = nodeCell[current], cluster = clusterOf(cell);
+                int[] ids = clusterNodes[cluster];
+                double[] distances = clusterDistances[cluster];
+                int row = nodeIndex[current] * ids.length;
+                for(int j = 0; j < ids.length; j++)
+                    if(ids[j] != current)
+                        relax(state, current, ids[j], nodeCell[ids[j]], g + distances[row + j], endX, endY);
+                if(cluster == endCluster)
+                    relax(state, current, end, endCell, g + endDistances[nodeIndex[current]], endX, endY);
+
+                relaxTransitions(state, current, cell, g, endX, endY);
+            }
+            return local;
+        }
+
+        /**
+         * A solid start cell is never part of a transition, so the cells it can step to in other clusters are connected
+         * to the nodes of those clusters, and to the end when it shares their cluster
+         */
+        private void relaxSolidStart(GridSearchState state, ClusterSearch search, int start, int startCell, int end, int endCell, int endX, int endY)
+        {
+            int x = startCell % cols, y = startCell / cols, cluster = clusterOf(startCell);
+            for(int d = 0; d < directions; d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d];
+                if(nx < 0 || nx >= cols || ny < 0 || ny >= rows || grid.isSolid(nx, ny))
+                    continue;
+                int cell = ny * cols + nx, neighborCluster = clusterOf(cell);
+                if(neighborCluster == cluster)
+                    continue;
+                search.run(this, neighborCluster, cell);
+                for(int id : clusterNodes[neighborCluster])
+                    relax(state, start, id, nodeCell[id], COST[d] + search.distance(nodeCell[id]), endX, endY);
+                if(neighborCluster == clusterOf(endCell))
+                    relax(state, start, end, endCell, COST[d] + search.distance(endCell), endX, endY);
+            }
+        }
+
+        /**
+         * Relaxes the single steps from the given node to the nodes across the borders of its cluster
+         */
+        private void relaxTransitions(GridSearchState state, int current, int cell, double g, int endX, int endY)
+        {
+            int x = cell % cols, y = cell / cols, cluster = clusterOf(cell);
+            for(int d = 0; d < directions; d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d];
+                if(nx < 0 || nx >= cols || ny < 0 || ny >= rows)
+                    continue;
+                int neighborCell = ny * cols + nx, neighborCluster = clusterOf(neighborCell);
+                if(neighborCluster != cluster)
+                {
+                    int neighbor = nodeAt(neighborCluster, neighborCell);
+                    if(neighbor >= 0)
+                        relax(state, current, neighbor, neighborCell, g + COST[d], endX, endY);
+                }
+            }
+        }
+
+        private void relax(GridSearchState state, int from, int to, int toCell, double g, int endX, int endY)
+        {
+            if(g == Double.POSITIVE_INFINITY || state.isClosed(to) || (state.isSeen(to) && g >= state.gScore[to]))
+                return;
+            state.reach(to, g, from);
+            state.openSet.update(to, g + AStar.heuristic(toCell % cols, toCell / cols, endX, endY, containCorners));
+        }
+
+        /**
+         * Turns the abstract path into cells. Consecutive nodes in different clusters are one step apart, except after a
+         * solid start. Any other pair shares a cluster and is connected by a search inside that cluster
+         */
+        private ArrayList<Point2D> refine(GridSearchState state, ClusterSearch search, int start, int end, int startCell, int endCell)
+        {
+            ArrayList<Integer> abstractPath = new ArrayList<>();
+            for(int id = end; id >= 0; id = state.parent[id])
+                abstractPath.add((id == start) ? startCell : (id == end) ? endCell : nodeCell[id]);
+            Collections.reverse(abstractPath);
+
+            ArrayList<Point2D> path = new ArrayList<>();
+            path.add(new Point2D<Integer>(startCell % cols, startCell / cols));
+            for(int i = 1; i < abstractPath.size(); i++)
+            {
+                int from = abstractPath.get(i - 1), to = abstractPath.get(i);
+                if(from == to)
+                    continue;
+                if(clusterOf(from) != clusterOf(to) && isStep(from, to))
+                    path.add(new Point2D<Integer>(to % cols, to / cols));
+                else if(clusterOf(from) != clusterOf(to))
+                {
+                    // a solid start first steps into the cluster of the next node
+                    int via = stepInto(search, from, to);
+                    path.add(new Point2D<Integer>(via % cols, via / cols));
+                    search.run(this, clusterOf(to), via);
+                    search.appendPath(path, to);
+                }
+                else
+                {
+                    search.run(this, clusterOf(from), from);
+                    search.appendPath(path, to);
+                }
+            }
+            return path;
+        }
+
+        /**
+         * Shortens a refined path. Starting at the first cell, a search is run over the square reaching one cluster size
+         * around the cell, and the run of the path that stays inside the square is replaced with the shortest path to its
+         * last cell if that is shorter. The next square is centered halfway along the run, so the squares overlap
+         * @param path the refined path, which is modified
+         * @return the path
+         */
+        private ArrayList<Point2D> shortcut(ArrayList<Point2D> path)
+        {
+            ClusterSearch window = new ClusterSearch(2 * clusterSize + 1);
+            for(int i = 0; i < path.size() - 2; )
+            {
+                int x = path.get(i).getX().intValue(), y = path.get(i).getY().intValue();
+                int j = i + 1;
+                while(j + 1 < path.size() && Math.abs(path.get(j + 1).getX().intValue() - x) <= clusterSize
+                        && Math.abs(path.get(j + 1).getY().intValue() - y) <= clusterSize)
+                    j++;
+
+                if(j > i + 1)
+                {
+                    int last = path.get(j).getY().intValue() * cols + path.get(j).getX().intValue();
+                    window.run(this, x - clusterSize, y - clusterSize, x + clusterSize + 1, y + clusterSize + 1, y * cols + x);
+                    if(window.distance(last) < length(path, i, j) - 1e-9)
+                    {
+                        ArrayList<Point2D> replacement = new ArrayList<>();
+                        window.appendPath(replacement, last);
+                        path.subList(i + 1, j + 1).clear();
+                        path.addAll(i + 1, replacement);
+                        j = i + replacement.size();
+                    }
+                }
+                i = Math.max(i + 1, (i + j) / 2);
+            }
+            return path;
+        }
+
+        /**
+         * Gets the length of the part of a path between two of its cells
+         */
+        private static double length(List<Point2D> path, int from, int to)
+        {
+            double length = 0;
+            for(int i = from; i < to; i++)
+            {
+                Point2D a = path.get(i), b = path.get(i + 1);
+                boolean straight = a.getX().intValue() == b.getX().intValue() || a.getY().intValue() == b.getY().intValue();
+                length += straight ? 1 : SQRT2;
+            }
+            return length;
+        }
+
+        /**
+         * Checks if the second cell can be reached from the first one with a single move
+         */
+        private boolean isStep(int from, int to)
+        {
+            int dx = Math.abs(from % cols - to % cols), dy = Math.abs(from / cols - to / cols);
+            return dx <= 1 && dy <= 1 && (containCorners || dx + dy == 1);
+        }
+
+        /**
+         * Picks the neighbor of the cell in the cluster of the target that lies on the shortest path to the target
+         */
+        private int stepInto(ClusterSearch search, int cell, int target)
+        {
+            int cluster = clusterOf(target), x = cell % cols, y = cell / cols, best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            search.run(this, cluster, target);
+            for(int d = 0; d < directions; d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d];
+                if(nx < 0 || nx >= cols || ny < 0 || ny >= rows || grid.isSolid(nx, ny) || clusterOf(ny * cols + nx) != cluster)
+                    continue;
+                double distance = COST[d] + search.distance(ny * cols + nx);
+                if(distance < bestDistance)
+                {
+                    bestDistance = distance;
+                    best = ny * cols + nx;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * A Dijkstra search that is confined to a rectangle of cells, usually a single cluster. Its arrays are indexed by the
+     * position of a cell inside the rectangle, so they only hold size * size entries
+     */
+    private static class ClusterSearch
+    {
+        final IndexedPriorityQueue openSet;
+        final double[] distance;
+        final int[] parent;
+        int cols, x0, y0, width, height;
+
+        /**
+         * Creates a search for rectangles of at most the given side length
+         * @param size the largest width and height of a rectangle
+         */
+        ClusterSearch(int size)
+        {
+            openSet = new IndexedPriorityQueue(size * size);
+            distance = new double[size * size];
+            parent = new int[size * size];
+        }
+
+        /**
+         * Finds the shortest distance from the source cell to every cell of the cluster without leaving it
+         */
+        void run(Layer layer, int cluster, int source)
+        {
+            int x = (cluster % layer.clusterCols) * layer.clusterSize, y = (cluster / layer.clusterCols) * layer.clusterSize;
+            run(layer, x, y, x + layer.clusterSize, y + layer.clusterSize, source);
+        }
+
+        /**
+         * Finds the shortest distance from the source cell to every cell of the rectangle from (minX, minY) inclusive to
+         * (maxX, maxY) exclusive without leaving it. The rectangle is clipped to the Grid
+         */
+        void run(Layer layer, int minX, int minY, int maxX, int maxY, int source)
+        {
+            cols = layer.cols;
+            x0 = Math.max(minX, 0);
+            y0 = Math.max(minY, 0);
+            width = Math.min(maxX, cols) - x0;
+            height = Math.min(maxY, layer.rows) - y0;
+            Arrays.fill(distance, 0, width * height, Double.POSITIVE_INFINITY);
+            openSet.clear();
+
+            long[] solid = layer.grid.getSolidBits();
+            int local = toLocal(source);
+            distance[local] = 0;
+            parent[local] = -1;
+            openSet.update(local, 0);
+            while(!openSet.isEmpty())
+            {
+                int current = openSet.poll();
+                int x = current % width, y = current / width;
+                for(int d = 0; d < layer.directions; d++)
+                {
+                    int nx = x + DX[d], ny = y + DY[d];
+                    if(nx < 0 || nx >= width || ny < 0 || ny >= height || Grid.testBit(solid, (y0 + ny) * cols + x0 + nx))
+                        continue;
+                    int neighbor = ny * width + nx;
+                    double newDistance = distance[current] + COST[d];
+                    if(newDistance < distance[neighbor])
+                    {
+                        distance[neighbor] = newDistance;
+                        parent[neighbor] = current;
+                        openSet.update(neighbor, newDistance);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets the distance from the last source to the given cell of the cluster
+         */
+        double distance(int cell)
+        { return distance[toLocal(cell)]; }
+
+        /**
+         * Appends the cells of the shortest path from the last source to the given cell, without the source itself
+         */
+        void appendPath(List<Point2D> path, int cell)
+        {
+            int size = path.size();
+            for(int local = toLocal(cell); parent[local] >= 0; local = parent[local])
+                path.add(size, new Point2D<Integer>(x0 + local % width, y0 + local / width));
+        }
+
+        private int toLocal(int cell)
+        { return (cell / cols - y0) * width + cell % cols - x0; }
+    }
+}
@@ -0,0 +1,309 @@
+package com.pathplanner.pathplanners;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An IndexedPriorityQueue is a binary min heap over the integer ids [0, capacity) with a double key for every id.
+ * Unlike java.util.PriorityQueue, the heap remembers where each id is stored, so contains, getKey, decrease-key and
+ * removal of an arbitrary id are O(1) or O(log n) and never scan the heap. No objects are allocated after construction
+ * which makes it suitable for pathfinders that identify nodes by their cell id.
+ * A queue created with secondary keys lets every id also carry a secondary key that only breaks ties between equal
+ * keys, for searches such as D* Lite whose keys are compared lexicographically. Other queues leave the array out and
+ * take one double less per id.
+ */
+public class IndexedPriorityQueue
+{
+    private final int[] heap;
+    private final int[] position;
+    private final double[] keys;
+    private final double[] secondaryKeys;
+    private int size;
+
+    /**
+     * Creates an empty IndexedPriorityQueue without secondary keys that can hold the ids [0, capacity)
+     * @param capacity the number of ids this queue can hold
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IndexedPriorityQueue(int capacity)
+    { this(capacity, false); }
+
+    /**
+     * Creates an empty IndexedPriorityQueue that can hold the ids [0, capacity)
+     * @param capacity the number of ids this queue can hold
+     * @param secondaryKeys true if ids carry a secondary key that breaks ties between equal keys
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IndexedPriorityQueue(int capacity, boolean secondaryKeys)
+    {
+        if(capacity < 0)
+            throw new IllegalArgumentException("capacity must be at least 0");
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        this.secondaryKeys = secondaryKeys ? new double[capacity] : null;
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Gets the number of ids this queue can hold
+     * @return the capacity of the queue
+     */
+    public int capacity()
+    { return heap.length; }
+
+    /**
+     * Gets the number of ids currently in the queue
+     * @return the size of the queue
+     */
+    public int size()
+    { return size; }
+
+    /**
+     * Checks if the queue has no ids in it
+     * @return true if the queue is empty false otherwise
+     */
+    public boolean isEmpty()
+    { return size == 0; }
+
+    /**
+     * Checks if the given id is currently in the queue
+     * @param id the id to check
+     * @return true if the id is in the queue
+     */
+    public boolean contains(int id)
+    { return position[id] >= 0; }
+
+    /**
+     * Gets the key of an id that is currently in the queue
+     * @param id an id inside the queue
+     * @return the key of the id
+     * @throws NoSuchElementException if the id is not in the queue
+     */
+    public double getKey(int id)
+    {
+        if(position[id] < 0)
+            throw new NoSuchElementException("id " + id + " is not in the queue");
+        return keys[id];
+    }
+
+    /**
+     * Checks if ids in this queue carry a secondary key
+     * @return true if the queue was created with secondary keys
+     */
+    public boolean hasSecondaryKeys()
+    { return secondaryKeys != null; }
+
+    /**
+     * Gets the secondary key of an id that is currently in the queue
+     * @param id an id inside the queue
+     * @return the secondary key of the id
+     * @throws NoSuchElementException if the id is not in the queue
+     * @throws IllegalStateException if the queue has no secondary keys
+     */
+    public double getSecondaryKey(int id)
+    {
+        checkSecondaryKeys();
+        if(position[id] < 0)
+            throw new NoSuchElementException("id " + id + " is not in the queue");
+        return secondaryKeys[id];
+    }
+
+    /**
+     * Inserts the id with the given key if it is not in the queue. Otherwise the key of the id is changed to the given
+     * key, moving the id up or down the heap as necessary. If the queue has secondary keys, the secondary key of the id
+     * is set to 0
+     * @param id the id to insert or update
+     * @param key the new key of the id
+     */
+    public void update(int id, double key)
+    { set(id, key, 0); }
+
+    /**
+     * Inserts or updates the id like update(int, double). Ids with equal keys are ordered by their secondary key
+     * @param id the id to insert or update
+     * @param key the new key of the id
+     * @param secondaryKey the new secondary key of the id
+     * @throws IllegalStateException if the queue has no secondary keys
+     */
+    public void update(int id, double key, double secondaryKey)
+    {
+        checkSecondaryKeys();
+        set(id, key, secondaryKey);
+    }
+
+    /**
+     * Lowers the key of an id that is already in the queue. Does nothing if the given key is not lower
+     * @param id an id inside the queue
+     * @param key the new key of the id
+     * @throws NoSuchElementException if the id is not in the queue
+     */
+    public void decreaseKey(int id, double key)
+    {
+        if(position[id] < 0)
+            throw new NoSuchElementException("id " + id + " is not in the queue");
+        if(key < keys[id])
+        {
+            keys[id] = key;
+            siftUp(position[id]);
+        }
+    }
+
+    /**
+     * Gets the id with the smallest key without removing it
+     * @return the id with the smallest key
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int peek()
+    {
+        if(size == 0)
+            throw new NoSuchElementException("queue is empty");
+        return heap[0];
+    }
+
+    /**
+     * Gets the smallest key in the queue
+     * @return the smallest key or positive infinity if the queue is empty
+     */
+    public double peekKey()
+    { return (size == 0) ? Double.POSITIVE_INFINITY : keys[heap[0]]; }
+
+    /**
+     * Gets the secondary key of the id with the smallest key
+     * @return the secondary key or positive infinity if the queue is empty
+     * @throws IllegalStateException if the queue has no secondary keys
+     */
+    public double peekSecondaryKey()
+    {
+        checkSecondaryKeys();
+        return (size == 0) ? Double.POSITIVE_INFINITY : secondaryKeys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key
+     * @return the id with the smallest key
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int poll()
+    {
+        int id = peek();
+        removeAt(0);
+        return id;
+    }
+
+    /**
+     * Removes the given id from the queue. Does nothing if the id is not in the queue
+     * @param id the id that will be removed
+     * @return true if the id was removed
+     */
+    public boolean remove(int id)
+    {
+        if(position[id] < 0)
+            return false;
+        removeAt(position[id]);
+        return true;
+    }
+
+    /**
+     * Copies every id in the queue, in no particular order, into the given array
+     * @param ids an array with room for at least size() ids
+     * @return the number of ids copied
+     */
+    public int copyIds(int[] ids)
+    {
+        System.arraycopy(heap, 0, ids, 0, size);
+        return size;
+    }
+
+    /**
+     * Removes every id from the queue. This runs in time proportional to the size of the queue, not its capacity
+     */
+    public void clear()
+    {
+        for(int i = 0; i < size; i++)
+            position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void set(int id, double key, double secondaryKey)
+    {
+        if(position[id] < 0)
+        {
+            keys[id] = key;
+            if(secondaryKeys != null)
+                secondaryKeys[id] = secondaryKey;
+            heap[size] = id;
+            position[id] = size;
+            siftUp(size++);
+            return;
+        }
+
+        boolean up = key < keys[id] || (secondaryKeys != null && key == keys[id] && secondaryKey < secondaryKeys[id]);
+        keys[id] = key;
+        if(secondaryKeys != null)
+            secondaryKeys[id] = secondaryKey;
+        if(up)
+            siftUp(position[id]);
+        else
+            siftDown(position[id]);
+    }
+
+    private void checkSecondaryKeys()
+    {
+        if(secondaryKeys == null)
+            throw new IllegalStateException("queue has no secondary keys");
+    }
+
+    private void removeAt(int index)
+    {
+        int id = heap[index];
+        position[id] = -1;
+        if(--size == index)
+            return;
+
+        int last = heap[size];
+        heap[index] = last;
+        position[last] = index;
+        siftDown(index);
+        if(heap[index] == last)
+            siftUp(index);
+    }
+
+    private void siftUp(int index)
+    {
+        int id = heap[index];
+        while(index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if(!less(id, heap[parent]))
+                break;
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index)
+    {
+        int id = heap[index];
+        int half = size >>> 1;
+        while(index < half)
+        {
+            int child = 2 * index + 1;
+            if(child + 1 < size && less(heap[child + 1], heap[child]))
+                child++;
+            if(!less(heap[child], id))
+                break;
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private boolean less(int a, int b)
+    { return keys[a] < keys[b] || (secondaryKeys != null && keys[a] == keys[b] && secondaryKeys[a] < secondaryKeys[b]); }
+}
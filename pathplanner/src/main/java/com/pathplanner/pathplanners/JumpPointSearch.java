@@ -0,0 +1,400 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Grid;
+import java.util.ArrayList;
+
+/**
+ * This class is an implementation of Jump Point Search, an AStar based pathfinder for uniform cost Grids. Instead of
+ * adding every neighbor of a cell to the open set, JPS prunes symmetric neighbors and jumps in a straight or diagonal
+ * line until it reaches a cell with a forced neighbor, the goal or a solid cell. Only those jump points are added to the
+ * open set which removes most of the expansions of AStar on open maps.
+ * It follows the movement rules of AStar's indexed search: only solid actors block a cell, a diagonal move only needs
+ * the cell it moves to to be free, so corners may be cut, and step costs are 1 for straight moves and sqrt(2) for
+ * corners. Its paths are therefore as short as the paths of AStar. The generated path segments only contain the jump
+ * points; consecutive points are always connected by a straight or 45 degree line of free cells. When corners are not
+ * allowed the search falls back to the indexed AStar search.
+ * Optionally, the jump distances can be precomputed for every cell and all eight directions (JPS+). The tables do not
+ * depend on the goal: a jump that passes the row or column of the goal additionally stops there, so every jump takes
+ * O(1). The tables are rebuilt lazily the first time they are used after the occupancy of the Grid changed.
+ * All state of a search is local to that search, so several segments can be planned at the same time.
+ */
+public class JumpPointSearch extends PathFinder<Grid>
+{
+    private static final double SQRT2 = Math.sqrt(2);
+    private static final int EAST = 0, WEST = 1, SOUTH = 2, NORTH = 3;
+    private static final int SOUTH_EAST = 4, SOUTH_WEST = 5, NORTH_EAST = 6, NORTH_WEST = 7;
+
+    private final GridSearchState.Pool searchStates = new GridSearchState.Pool();
+    private final AStar fallback = indexedAStar(getEnvironment());
+
+    private boolean precomputed;
+    private int[][] jumpTable;
+    private long jumpTableVersion = -1;
+
+    public JumpPointSearch(Grid grid)
+    { super(grid); }
+
+    public JumpPointSearch(Grid grid, Point2D<Integer> start, Point2D<Integer> end)
+    { super(grid, start, end); }
+
+    public JumpPointSearch(Grid grid, Point2D<Integer>... point2DS)
+    { super(grid, point2DS); }
+
+    /**
+     * Sets whether this pathfinder uses the precomputed JPS+ jump tables. The tables take eight ints per cell
+     * @param precomputed true to use the precomputed tables
+     */
+    public synchronized void setPrecomputed(boolean precomputed)
+    {
+        this.precomputed = precomputed;
+        if(!precomputed)
+            jumpTable = null;
+        settingsChanged();
+    }
+
+    /**
+     * Checks whether this pathfinder uses the precomputed JPS+ jump tables
+     * @return true if the tables are used
+     */
+    public synchronized boolean isPrecomputed()
+    { return precomputed; }
+
+    public boolean isThreadSafe()
+    { return true; }
+
+    /**
+     * Generates the optimal path from the given start point to the given end point. The path only contains the start
+     * point, the jump points and the end point.
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal moves are allowed
+     * @return the optimal path from the start to end point or null if no path exists
+     */
+    public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    {
+        if(!containCorners)
+            return fallback.generatePathSegment(start, end, false);
+
+        Grid grid = getEnvironment();
+        int startX = start.getX().intValue(), startY = start.getY().intValue();
+        int goalX = end.getX().intValue(), goalY = end.getY().intValue();
+
+        if(!grid.isInBounds(startX, startY) || !grid.isInBounds(goalX, goalY) || grid.isSolid(goalX, goalY))
+            return null;
+
+        GridSearchState state = searchStates.acquire(grid.getRows() * grid.getCols());
+        try
+        {
+            return new Search(grid, goalX, goalY, getJumpTable(grid), state).run(startX, startY);
+        }
+        finally
+        {
+            searchStates.release(state);
+        }
+    }
+
+    /**
+     * Gets the jump tables for the current occupancy of the Grid, rebuilding them if the Grid changed
+     * @return the jump tables or null if precomputed tables are not used
+     */
+    private synchronized int[][] getJumpTable(Grid grid)
+    {
+        if(precomputed && (jumpTable == null || jumpTableVersion != grid.getVersion()))
+        {
+            jumpTableVersion = grid.getVersion();
+            jumpTable = new Search(grid, -1, -1, null, null).buildJumpTable();
+        }
+        return jumpTable;
+    }
+
+    private static AStar indexedAStar(Grid grid)
+    {
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        return aStar;
+    }
+
+    private static double octile(int x1, int y1, int x2, int y2)
+    {
+        int dx = Math.abs(x1 - x2), dy = Math.abs(y1 - y2);
+        return dx + dy + (SQRT2 - 2) * Math.min(dx, dy);
+    }
+
+    /**
+     * The state of a single search: the Grid being searched, its goal, the jump tables and the search arrays
+     */
+    private static class Search
+    {
+        private final long[] solid;
+        private final int cols, rows, goalX, goalY;
+        private final int[][] jumpTable;
+        private final GridSearchState state;
+
+        Search(Grid grid, int goalX, int goalY, int[][] jumpTable, GridSearchState state)
+        {
+            this.solid = grid.getSolidBits();
+            this.cols = grid.getCols();
+            this.rows = grid.getRows();
+            this.goalX = goalX;
+            this.goalY = goalY;
+            this.jumpTable = jumpTable;
+            this.state = state;
+        }
+
+        /**
+         * Searches from the start cell to the goal
+         * @return the path of jump points or null if no path exists
+         */
+        ArrayList<Point2D> run(int startX, int startY)
+        {
+            state.nextSearch();
+
+            int startId = startY * cols + startX;
+            int goal = goalY * cols + goalX;
+            state.reach(startId, 0, -1);
+            state.openSet.update(startId, octile(startX, startY, goalX, goalY));
+
+            while(!state.openSet.isEmpty())
+            {
+                int current = state.openSet.poll();
+                state.close(current);
+
+                if(current == goal)
+                    return state.reconstructPath(goal, cols);
+
+                int x = current % cols, y = current / cols;
+                int parent = state.parent[current];
+                if(parent < 0)
+                {
+                    for(int dy = -1; dy <= 1; dy++)
+                        for(int dx = -1; dx <= 1; dx++)
+                            if(dx != 0 || dy != 0)
+                                expand(current, x, y, dx, dy);
+                }
+                else
+                {
+                    int dx = Integer.signum(x - parent % cols), dy = Integer.signum(y - parent / cols);
+                    if(dx != 0 && dy != 0)
+                    {
+                        expand(current, x, y, dx, 0);
+                        expand(current, x, y, 0, dy);
+                        expand(current, x, y, dx, dy);
+                        if(!isFree(x - dx, y))
+                            expand(current, x, y, -dx, dy);
+                        if(!isFree(x, y - dy))
+                            expand(current, x, y, dx, -dy);
+                    }
+                    else if(dx != 0)
+                    {
+                        expand(current, x, y, dx, 0);
+                        if(!isFree(x, y - 1))
+                            expand(current, x, y, dx, -1);
+                        if(!isFree(x, y + 1))
+                            expand(current, x, y, dx, 1);
+                    }
+                    else
+                    {
+                        expand(current, x, y, 0, dy);
+                        if(!isFree(x - 1, y))
+                            expand(current, x, y, -1, dy);
+                        if(!isFree(x + 1, y))
+                            expand(current, x, y, 1, dy);
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Jumps from the current cell in the given direction and adds the jump point that is found to the open set
+         */
+        private void expand(int current, int x, int y, int dx, int dy)
+        {
+            int jumpPoint = jump(x, y, dx, dy);
+            if(jumpPoint < 0 || state.isClosed(jumpPoint))
+                return;
+
+            int jx = jumpPoint % cols, jy = jumpPoint / cols;
+            double newGScore = state.gScore[current] + octile(x, y, jx, jy);
+            if(!state.isSeen(jumpPoint) || newGScore < state.gScore[jumpPoint])
+            {
+                state.reach(jumpPoint, newGScore, current);
+                state.openSet.update(jumpPoint, newGScore + octile(jx, jy, goalX, goalY));
+            }
+        }
+
+        /**
+         * Moves from the cell (x, y) in the given direction until a jump point is found
+         * @return the id of the jump point or -1 if the jump ran into a solid cell or the edge of the Grid
+         */
+        private int jump(int x, int y, int dx, int dy)
+        {
+            if(dx == 0 || dy == 0)
+                return jumpStraight(x, y, dx, dy);
+            if(jumpTable != null)
+                return jumpDiagonalPrecomputed(x, y, dx, dy);
+
+            while(true)
+            {
+                x += dx;
+                y += dy;
+                if(!isFree(x, y))
+                    return -1;
+                if(x == goalX && y == goalY)
+                    return y * cols + x;
+                if(hasForcedNeighbor(x, y, dx, dy))
+                    return y * cols + x;
+                if(jumpStraight(x, y, dx, 0) >= 0 || jumpStraight(x, y, 0, dy) >= 0)
+                    return y * cols + x;
+            }
+        }
+
+        /**
+         * Moves from the cell (x, y) in the given horizontal or vertical direction until a jump point is found
+         * @return the id of the jump point or -1 if the jump ran into a solid cell or the edge of the Grid
+         */
+        private int jumpStraight(int x, int y, int dx, int dy)
+        {
+            if(jumpTable != null)
+                return jumpStraightPrecomputed(x, y, dx, dy);
+
+            while(true)
+            {
+                x += dx;
+                y += dy;
+                if(!isFree(x, y))
+                    return -1;
+                if(x == goalX && y == goalY)
+                    return y * cols + x;
+                if(hasForcedNeighbor(x, y, dx, dy))
+                    return y * cols + x;
+            }
+        }
+
+        /**
+         * Looks up the straight jump from the cell (x, y) in the precomputed table. A positive entry is the distance to the
+         * next jump point, otherwise its negation is the number of free cells before a solid cell or the edge of the Grid
+         */
+        private int jumpStraightPrecomputed(int x, int y, int dx, int dy)
+        {
+            int distance = jumpTable[direction(dx, dy)][y * cols + x];
+            int reach = Math.abs(distance);
+
+            if(dy == 0 && goalY == y && (goalX - x) * dx > 0 && (goalX - x) * dx <= reach)
+                return goalY * cols + goalX;
+            if(dx == 0 && goalX == x && (goalY - y) * dy > 0 && (goalY - y) * dy <= reach)
+                return goalY * cols + goalX;
+            return (distance > 0) ? (y + dy * distance) * cols + x + dx * distance : -1;
+        }
+
+        /**
+         * Looks up the diagonal jump from the cell (x, y) in the precomputed table. The table entry has the same meaning as
+         * for straight jumps. If the goal lies ahead in both directions of the jump, the cell of the jump in the row or
+         * column of the goal, whichever comes first, is a jump point as well, since a straight jump from it may reach the goal
+         */
+        private int jumpDiagonalPrecomputed(int x, int y, int dx, int dy)
+        {
+            int distance = jumpTable[direction(dx, dy)][y * cols + x];
+            int reach = Math.abs(distance);
+
+            int toGoalX = (goalX - x) * dx, toGoalY = (goalY - y) * dy;
+            if(toGoalX > 0 && toGoalY > 0 && Math.min(toGoalX, toGoalY) <= reach)
+            {
+                int steps = Math.min(toGoalX, toGoalY);
+                return (y + dy * steps) * cols + x + dx * steps;
+            }
+            return (distance > 0) ? (y + dy * distance) * cols + x + dx * distance : -1;
+        }
+
+        /**
+         * Checks if a free cell reached by a move in the given direction has a forced neighbor. A forced neighbor is a
+         * free cell beside the move that could not be reached optimally without passing through the current cell. Since
+         * corners may be cut, this is a free cell next to a solid cell that is beside the move
+         */
+        private boolean hasForcedNeighbor(int x, int y, int dx, int dy)
+        {
+            if(dx != 0 && dy != 0)
+                return (!isFree(x - dx, y) && isFree(x - dx, y + dy)) || (!isFree(x, y - dy) && isFree(x + dx, y - dy));
+            if(dx != 0)
+                return (!isFree(x, y - 1) && isFree(x + dx, y - 1)) || (!isFree(x, y + 1) && isFree(x + dx, y + 1));
+            return (!isFree(x - 1, y) && isFree(x - 1, y + dy)) || (!isFree(x + 1, y) && isFree(x + 1, y + dy));
+        }
+
+        /**
+         * Builds the jump tables. The straight tables sweep every row and column once against each direction, and the
+         * diagonal tables then sweep the Grid against each diagonal, since a diagonal entry depends on the straight entries
+         * of the next cell
+         */
+        int[][] buildJumpTable()
+        {
+            int[][] table = new int[8][rows * cols];
+            int[] east = table[EAST], west = table[WEST], south = table[SOUTH], north = table[NORTH];
+
+            for(int y = 0; y < rows; y++)
+            {
+                for(int x = cols - 1; x >= 0; x--)
+                    east[y * cols + x] = nextJumpDistance(x + 1, y, 1, 0, (x + 1 < cols) ? east[y * cols + x + 1] : 0);
+                for(int x = 0; x < cols; x++)
+                    west[y * cols + x] = nextJumpDistance(x - 1, y, -1, 0, (x > 0) ? west[y * cols + x - 1] : 0);
+            }
+            for(int x = 0; x < cols; x++)
+            {
+                for(int y = rows - 1; y >= 0; y--)
+                    south[y * cols + x] = nextJumpDistance(x, y + 1, 0, 1, (y + 1 < rows) ? south[(y + 1) * cols + x] : 0);
+                for(int y = 0; y < rows; y++)
+                    north[y * cols + x] = nextJumpDistance(x, y - 1, 0, -1, (y > 0) ? north[(y - 1) * cols + x] : 0);
+            }
+            for(int dy = -1; dy <= 1; dy += 2)
+                for(int dx = -1; dx <= 1; dx += 2)
+                {
+                    int[] diagonal = table[direction(dx, dy)];
+                    for(int y = (dy > 0) ? rows - 1 : 0; y >= 0 && y < rows; y -= dy)
+                        for(int x = (dx > 0) ? cols - 1 : 0; x >= 0 && x < cols; x -= dx)
+                        {
+                            int nx = x + dx, ny = y + dy;
+                            boolean inside = nx >= 0 && nx < cols && ny >= 0 && ny < rows;
+                            diagonal[y * cols + x] = nextDiagonalJumpDistance(nx, ny, dx, dy, table,
+                                    inside ? diagonal[ny * cols + nx] : 0);
+                        }
+                }
+            return table;
+        }
+
+        /**
+         * Computes a straight jump table entry from the entry of the next cell (x, y) in the direction of the jump
+         */
+        private int nextJumpDistance(int x, int y, int dx, int dy, int next)
+        {
+            if(!isFree(x, y))
+                return 0;
+            if(hasForcedNeighbor(x, y, dx, dy))
+                return 1;
+            return (next > 0) ? next + 1 : next - 1;
+        }
+
+        /**
+         * Computes a diagonal jump table entry from the entry of the next cell (x, y) in the direction of the jump. The
+         * next cell is a jump point if it has a forced neighbor or a straight jump from it finds a jump point
+         */
+        private int nextDiagonalJumpDistance(int x, int y, int dx, int dy, int[][] table, int next)
+        {
+            if(!isFree(x, y))
+                return 0;
+            int id = y * cols + x;
+            if(hasForcedNeighbor(x, y, dx, dy) || table[direction(dx, 0)][id] > 0 || table[direction(0, dy)][id] > 0)
+                return 1;
+            return (next > 0) ? next + 1 : next - 1;
+        }
+
+        private static int direction(int dx, int dy)
+        {
+            if(dx != 0 && dy != 0)
+                return (dy > 0) ? ((dx > 0) ? SOUTH_EAST : SOUTH_WEST) : ((dx > 0) ? NORTH_EAST : NORTH_WEST);
+            return (dx > 0) ? EAST : (dx < 0) ? WEST : (dy > 0) ? SOUTH : NORTH;
+        }
+
+        private boolean isFree(int x, int y)
+        { return x >= 0 && x < cols && y >= 0 && y < rows && !Grid.testBit(solid, y * cols + x); }
+    }
+}
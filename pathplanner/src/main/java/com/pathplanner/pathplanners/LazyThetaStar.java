@@ -0,0 +1,150 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathprocessing.GridPathShortener;
+import com.pathplanner.world.environment.Grid;
+import java.util.ArrayList;
+
+/**
+ * This class is an implementation of Lazy Theta*, an any-angle version of AStar on a Grid. Like Theta*, a cell reached
+ * from the current cell may take the parent of the current cell as its own parent, so the path bends only where it
+ * has to instead of following the 45 degree moves of AStar. Theta* checks line of sight for every neighbor it
+ * generates. Lazy Theta* assumes the line of sight is there and only checks it once the cell is expanded. If the check
+ * fails, the cell takes the best of its expanded neighbors as parent instead. Most generated cells are never expanded,
+ * so this saves most of the line of sight checks.
+ * Line of sight is checked on the solid bitset of the Grid with the supercover traversal of GridPathShortener, so the
+ * paths follow its movement model: only solid actors block a cell and lines may pass exactly through a corner. The
+ * heuristic is the straight line distance. The returned path segments only contain the cells where the path bends,
+ * and consecutive points are always in line of sight. When corners are not allowed the search only expands straight
+ * neighbors, but the lines between the points of the path may still go in any direction.
+ * The search arrays are borrowed from a pool, so several segments can be planned at the same time.
+ * @see GridPathShortener#lineOfSight(long[], int, int, int, int, int)
+ */
+public class LazyThetaStar extends PathFinder<Grid>
+{
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+    private static final double SQRT2 = Math.sqrt(2);
+    private static final double[] COST = {1, 1, 1, 1, SQRT2, SQRT2, SQRT2, SQRT2};
+
+    private final GridSearchState.Pool searchStates = new GridSearchState.Pool();
+
+    public LazyThetaStar(Grid grid)
+    { super(grid); }
+
+    public LazyThetaStar(Grid grid, Point2D<Integer> start, Point2D<Integer> end)
+    { super(grid, start, end); }
+
+    public LazyThetaStar(Grid grid, Point2D<Integer>... point2DS)
+    { super(grid, point2DS); }
+
+    public boolean isThreadSafe()
+    { return true; }
+
+    /**
+     * Generates an any-angle path from the given start point to the given end point
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal neighbors are expanded
+     * @return the path from the start to end point, with only the points where it bends, or null if no path exists
+     */
+    public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
+    {
+        Grid grid = getEnvironment();
+        int startX = start.getX().intValue(), startY = start.getY().intValue();
+        int endX = end.getX().intValue(), endY = end.getY().intValue();
+
+        if(!grid.isInBounds(startX, startY) || !grid.isInBounds(endX, endY) || grid.isSolid(endX, endY))
+            return null;
+
+        GridSearchState state = searchStates.acquire(grid.getRows() * grid.getCols());
+        try
+        { return search(state, grid, grid.toIndex(startX, startY), grid.toIndex(endX, endY), containCorners); }
+        finally
+        { searchStates.release(state); }
+    }
+
+    /**
+     * Runs the search using the arrays of the given state. The parent of the start cell is -1 in the state, but the
+     * start cell acts as its own parent
+     */
+    private ArrayList<Point2D> search(GridSearchState state, Grid grid, int startId, int goal, boolean containCorners)
+    {
+        int cols = grid.getCols(), rows = grid.getRows();
+        int directions = containCorners ? 8 : 4;
+        long[] solid = grid.getSolidBits();
+        state.nextSearch();
+
+        state.reach(startId, 0, -1);
+        state.openSet.update(startId, distance(startId, goal, cols));
+
+        while(!state.openSet.isEmpty())
+        {
+            int current = state.openSet.poll();
+            int x = current % cols, y = current / cols;
+
+            // the line of sight to the parent was assumed when the cell was reached, so it is checked now
+            int parent = state.parent[current];
+            if(parent >= 0 && !GridPathShortener.lineOfSight(solid, cols, parent % cols, parent / cols, x, y))
+                setBestClosedNeighbor(state, cols, rows, current, directions);
+            state.close(current);
+
+            if(current == goal)
+                return state.reconstructPath(goal, cols);
+
+            int from = (state.parent[current] >= 0) ? state.parent[current] : current;
+            for(int d = 0; d < directions; d++)
+            {
+                int nx = x + DX[d], ny = y + DY[d];
+                if(nx < 0 || nx >= cols || ny < 0 || ny >= rows)
+                    continue;
+
+                int neighbor = ny * cols + nx;
+                if(state.isClosed(neighbor) || Grid.testBit(solid, neighbor))
+                    continue;
+
+                double newGScore = state.gScore[from] + distance(from, neighbor, cols);
+                if(!state.isSeen(neighbor) || newGScore < state.gScore[neighbor])
+                {
+                    state.reach(neighbor, newGScore, from);
+                    state.openSet.update(neighbor, newGScore + distance(neighbor, goal, cols));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes the expanded neighbor that reaches the cell with the lowest g score its parent. The cell was generated by an
+     * expanded neighbor, so there always is one
+     */
+    private static void setBestClosedNeighbor(GridSearchState state, int cols, int rows, int id, int directions)
+    {
+        int x = id % cols, y = id / cols;
+        double best = Double.POSITIVE_INFINITY;
+        int bestParent = -1;
+        for(int d = 0; d < directions; d++)
+        {
+            int nx = x + DX[d], ny = y + DY[d];
+            if(nx < 0 || nx >= cols || ny < 0 || ny >= rows)
+                continue;
+
+            int neighbor = ny * cols + nx;
+            if(state.isClosed(neighbor) && state.gScore[neighbor] + COST[d] < best)
+            {
+                best = state.gScore[neighbor] + COST[d];
+                bestParent = neighbor;
+            }
+        }
+        state.reach(id, best, bestParent);
+    }
+
+    /**
+     * The straight line distance between the centers of two cells
+     */
+    private static double distance(int a, int b, int cols)
+    {
+        int dx = a % cols - b % cols, dy = a / cols - b / cols;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -2,21 +2,20 @@ package com.pathplanner.pathplanners;
 
 import com.pathplanner.geometry.Point2D;
 import com.pathplanner.world.environment.Plane;
+import com.pathplanner.world.environment.VisibilityGraph;
 import java.util.*;
 
 /**
  * This class is an implementation of the Line Of Sight algorithm which is based of the AStar Algorithm. This class runs
  * on a Plane Environment and will find the optimal path between a starting and an ending point. In addition, this class
  * overrides the abstract method _generatePath method. This method provides functionality for path optimization.
- * @version 2
+ * @version 3
  * @author Jeffrey
  * @sinve 10/19/2020
  */
 public class LineOfSightStar extends PathFinder<Plane>
 {
-    private PriorityQueue<PathFinderData> openSet;
-    private HashSet<Point2D> closedSet;
-    private HashMap<Point2D, Point2D> pointConnectionLibrary;
+    private boolean bidirectionalSearch;
 
     /**
      * Creates an instance of the LineOfSight algorithm. This constructor takes a plane as paramter and
@@ -45,10 +44,35 @@ public class LineOfSightStar extends PathFinder<Plane>
     public LineOfSightStar(Plane plane, Point2D<Double> ... point2DS)
     { super(plane, point2DS); }
 
+    /**
+     * Sets whether this LineOfSightStar uses the bidirectional search. The bidirectional search runs one search forward
+     * from the start and one backward from the end over the visibility graph, always expanding the side with the
+     * smaller open set, and stops once no path through either frontier can be shorter than the best path found where
+     * they met. Each side uses the distance to its own target as heuristic. The path is still optimal.
+     * @param bidirectionalSearch true to use the bidirectional search
+     */
+    public void setBidirectionalSearch(boolean bidirectionalSearch)
+    {
+        this.bidirectionalSearch = bidirectionalSearch;
+        settingsChanged();
+    }
+
+    /**
+     * Checks whether this LineOfSightStar uses the bidirectional search
+     * @return true if the bidirectional search is used
+     */
+    public boolean isBidirectionalSearch()
+    { return bidirectionalSearch; }
+
+    public boolean isThreadSafe()
+    { return true; }
+
     /**
      * This method generates the the optimal path from the given start point to the given end point.
      * This method does not generate the entire path including each stop point. Instead it acts as the base for
      * the generatePath method which will create the entire path.
+     * The search runs over the visibility graph of the Plane, which already connects every pair of bounding points
+     * with line of sight. Only the start and end points need to be connected to the graph for each segment.
      * @param start the start point of the segment
      * @param end the end point of the segment
      * @param containCorners this comes from overriding this method. Corners are meaningless for Line Of Sight AStar
@@ -56,81 +80,166 @@ public class LineOfSightStar extends PathFinder<Plane>
      */
     public ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners)
     {
-        openSet = new PriorityQueue<>();
-        closedSet = new HashSet<>();
-        pointConnectionLibrary = new HashMap<>();
+        if(start.equals(end))
+            return new ArrayList<>(Collections.singletonList(end));
+
+        Plane plane = getEnvironment();
+        VisibilityGraph graph = plane.getVisibilityGraph();
+        int startId = graph.capacity(), endId = startId + 1;
 
-        Set<Point2D<Double>> connectionPoints = ((Plane)super.getEnvironment()).getBoundingPoints();
-        connectionPoints.add(start);
-        connectionPoints.add(end);
+        BitSet startVisible = graph.visibleFrom(start);
+        BitSet endVisible = graph.visibleFrom(end);
+        boolean directLineOfSight = plane.LineOfSight(start, end);
+        if(bidirectionalSearch)
+            return bidirectionalSearch(graph, start, end, startVisible, endVisible, directLineOfSight);
 
-        PathFinderData startGroup = new PathFinderData(start, 0, heuristic(start,end));
-        openSet.add(startGroup);
+        IndexedPriorityQueue openSet = new IndexedPriorityQueue(endId + 1);
+        boolean[] closedSet = new boolean[endId + 1];
+        double[] gScore = new double[endId + 1];
+        int[] pointConnectionLibrary = new int[endId + 1];
+        Arrays.fill(gScore, Double.POSITIVE_INFINITY);
+
+        gScore[startId] = 0;
+        pointConnectionLibrary[startId] = -1;
+        openSet.update(startId, heuristic(start, end));
 
         while(!openSet.isEmpty())
         {
-            PathFinderData current = openSet.poll();
-            closedSet.add(current.point);
+            int current = openSet.poll();
+            closedSet[current] = true;
 
-            if(current.point.equals(end))
-                return reconstructPath(end);
+            if(current == endId)
+                return reconstructPath(graph, pointConnectionLibrary, start, end);
 
-            for(Point2D currentConnectionPoint : connectionPoints)
-            {
-                if(!closedSet.contains(currentConnectionPoint) && ((Plane)super.getEnvironment()).LineOfSight(current.point, currentConnectionPoint))
-                {
-                    double newGScore = current.gScore + heuristic(current.point, currentConnectionPoint);
-                    PathFinderData currentKeyPointData = getProcessedPointData(currentConnectionPoint);
+            Point2D currentPoint = (current == startId) ? start : graph.getPoint(current);
+            BitSet neighbors = (current == startId) ? startVisible : graph.getNeighbors(current);
 
-                    if(currentKeyPointData == null || newGScore < currentKeyPointData.gScore) {
-                        openSet.add(new PathFinderData(currentConnectionPoint, newGScore, heuristic(currentConnectionPoint, end)));
-                        pointConnectionLibrary.put(currentConnectionPoint, current.point);
-                    }
-                }
-            }
+            for(int next = neighbors.nextSetBit(0); next >= 0; next = neighbors.nextSetBit(next + 1))
+                if(!closedSet[next])
+                    relax(openSet, gScore, pointConnectionLibrary, current, currentPoint, next, graph.getPoint(next), end);
+
+            if((current == startId) ? directLineOfSight : endVisible.get(current))
+                relax(openSet, gScore, pointConnectionLibrary, current, currentPoint, endId, end, end);
         }
         return null;
     }
 
     /**
-     * Reconstructs the path for the _generatePathMethod
-     * @param end the end point for path generation
-     * @return the optimal path connecting these points
+     * Updates the gScore of the next node if reaching it from the current node is shorter than its current gScore
      */
-    private ArrayList<Point2D> reconstructPath(Point2D<Double> end)
+    private void relax(IndexedPriorityQueue openSet, double[] gScore, int[] pointConnectionLibrary,
+                       int current, Point2D currentPoint, int next, Point2D nextPoint, Point2D end)
     {
-        Point2D current = end;
-        ArrayList<Point2D> path = new ArrayList<>();
-        path.add(end);
-        while(pointConnectionLibrary.get(current) != null)
+        double newGScore = gScore[current] + heuristic(currentPoint, nextPoint);
+        if(newGScore < gScore[next])
+        {
+            gScore[next] = newGScore;
+            pointConnectionLibrary[next] = current;
+            openSet.update(next, newGScore + heuristic(nextPoint, end));
+        }
+    }
+
+    /**
+     * Searches from the start and the end at the same time. Each side keeps its own gScores and parents and uses the
+     * distance to its own target as heuristic. Whenever one side reaches a node the other side has reached, the two half
+     * paths form a path and the shortest of these is kept as best. The search stops once the smallest f score of either
+     * open set is at least best, since no path through that frontier can be shorter
+     */
+    private ArrayList<Point2D> bidirectionalSearch(VisibilityGraph graph, Point2D start, Point2D end,
+                                                   BitSet startVisible, BitSet endVisible, boolean directLineOfSight)
+    {
+        int startId = graph.capacity(), endId = startId + 1;
+        IndexedPriorityQueue[] openSet = {new IndexedPriorityQueue(endId + 1), new IndexedPriorityQueue(endId + 1)};
+        boolean[][] closedSet = new boolean[2][endId + 1];
+        double[][] gScore = new double[2][endId + 1];
+        int[][] pointConnectionLibrary = new int[2][endId + 1];
+        Arrays.fill(gScore[0], Double.POSITIVE_INFINITY);
+        Arrays.fill(gScore[1], Double.POSITIVE_INFINITY);
+
+        gScore[0][startId] = gScore[1][endId] = 0;
+        pointConnectionLibrary[0][startId] = pointConnectionLibrary[1][endId] = -1;
+        openSet[0].update(startId, heuristic(start, end));
+        openSet[1].update(endId, heuristic(end, start));
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while(!openSet[0].isEmpty() && !openSet[1].isEmpty() && openSet[0].peekKey() < best && openSet[1].peekKey() < best)
         {
-            current = pointConnectionLibrary.get(current);
-            path.add(current);
+            // side 0 searches from the start to the end and side 1 from the end to the start
+            int side = (openSet[0].size() <= openSet[1].size()) ? 0 : 1, other = 1 - side;
+            int source = (side == 0) ? startId : endId, target = (side == 0) ? endId : startId;
+            BitSet sourceVisible = (side == 0) ? startVisible : endVisible;
+            BitSet targetVisible = (side == 0) ? endVisible : startVisible;
+            Point2D targetPoint = (side == 0) ? end : start;
+
+            int current = openSet[side].poll();
+            closedSet[side][current] = true;
+            if(current == target)
+                continue;
+
+            Point2D currentPoint = (current == startId) ? start : (current == endId) ? end : graph.getPoint(current);
+            BitSet neighbors = (current == source) ? sourceVisible : graph.getNeighbors(current);
+            for(int next = neighbors.nextSetBit(0); next >= 0; next = neighbors.nextSetBit(next + 1))
+            {
+                if(closedSet[side][next])
+                    continue;
+                relax(openSet[side], gScore[side], pointConnectionLibrary[side], current, currentPoint, next,
+                        graph.getPoint(next), targetPoint);
+                if(gScore[side][next] + gScore[other][next] < best)
+                {
+                    best = gScore[side][next] + gScore[other][next];
+                    meeting = next;
+                }
+            }
+            if((current == source) ? directLineOfSight : targetVisible.get(current))
+            {
+                relax(openSet[side], gScore[side], pointConnectionLibrary[side], current, currentPoint, target,
+                        targetPoint, targetPoint);
+                if(gScore[side][target] < best)
+                {
+                    best = gScore[side][target];
+                    meeting = target;
+                }
+            }
         }
+
+        if(meeting < 0)
+            return null;
+        ArrayList<Point2D> path = new ArrayList<>();
+        for(int current = meeting; current >= 0; current = pointConnectionLibrary[0][current])
+            path.add((current == startId) ? start : (current == endId) ? end : graph.getPoint(current));
         Collections.reverse(path);
+        for(int current = pointConnectionLibrary[1][meeting]; current >= 0; current = pointConnectionLibrary[1][current])
+            path.add((current == startId) ? start : (current == endId) ? end : graph.getPoint(current));
         return path;
     }
 
     /**
-     * Checks if the openSet contain the given point and return the data associated with that point
-     * @param point the point the method will search for
-     * @return PathFinderData associated with the point. Null if the point is not in the openset
+     * Reconstructs the path for the _generatePathMethod
+     * @param graph the visibility graph that was searched
+     * @param pointConnectionLibrary the node each node was reached from
+     * @param start the start point for path generation
+     * @param end the end point for path generation
+     * @return the optimal path connecting these points
      */
-    private PathFinderData getProcessedPointData(Point2D<Double> point)
+    private ArrayList<Point2D> reconstructPath(VisibilityGraph graph, int[] pointConnectionLibrary, Point2D start, Point2D end)
     {
-        for(PathFinderData group : openSet)
-            if(group.point.equals(point))
-                return group;
-        return null;
+        ArrayList<Point2D> path = new ArrayList<>();
+        path.add(end);
+        int startId = graph.capacity();
+        for(int current = pointConnectionLibrary[startId + 1]; current != startId; current = pointConnectionLibrary[current])
+            path.add(graph.getPoint(current));
+        path.add(start);
+        Collections.reverse(path);
+        return path;
     }
 
     /**
-     * Cost of arriving at a certain point. This is set to be the distance squared formula. Please note that the
-     * squared distance was chosen to save on computing power.
+     * Cost of arriving at a certain point. This is the euclidean distance between the points.
      * @param start first point
      * @param end second point
-     * @return distance squared between them
+     * @return distance between them
      */
-    private double heuristic(Point2D<Double> start, Point2D<Double> end)
+    private double heuristic(Point2D start, Point2D end)
     { return start.distance(end); }
-}
\ No newline at end of file
+}
@@ -0,0 +1,272 @@
+package com.pathplanner.pathplanners;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Environment;
+import com.pathplanner.world.environment.Grid;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A PathCache stores the results of generatePathSegment so that repeated queries are answered without searching again.
+ * An entry is keyed by the identity and settings version of the pathfinder, the identity and version of the
+ * Environment, the start and end point and the corner mode. Since every change to an Environment gives it a new
+ * version, and every change to the settings of a pathfinder gives it a new settings version, an entry can never be
+ * returned for an Environment or pathfinder that changed after the entry was stored, nor to another pathfinder. Such
+ * stale entries are never hit again and simply age out of the cache.
+ * The cache is bounded both by a number of entries and by an estimate of the memory its paths use. Once either bound is
+ * exceeded the least recently used entries are evicted. Queries with no path are cached as well.
+ * If reverse lookups are enabled, a query from a to b that misses is answered with the reversed path of a cached query
+ * from b to a. The costs between two free positions are symmetric for every pathfinder in this package, but the
+ * endpoints are not: a path may start on a solid cell of a Grid but never end on one. A reversed path is therefore only
+ * returned if it was found and neither of its endpoints is a solid cell. A cached query without a path is never
+ * reversed.
+ * Paths are copied point by point when they are stored and when they are returned, so callers may modify them freely.
+ * A PathCache may be shared by several pathfinders and threads. Each pathfinder only ever gets the paths it planned
+ * itself.
+ * @see CachingPathFinder
+ */
+public class PathCache
+{
+    // rough heap cost of one cached entry without its points and of one cached point
+    private static final long ENTRY_BYTES = 128;
+    private static final long POINT_BYTES = 56;
+
+    private static final Point2D[] NO_PATH = new Point2D[0];
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean reverseLookups;
+    private final LinkedHashMap<Key, Point2D[]> entries;
+    private long bytes;
+    private long hits, reverseHits, misses, evictions;
+
+    /**
+     * Creates a cache with the given bounds that answers reversed queries
+     * @param maxEntries the most entries the cache holds
+     * @param maxBytes the most memory, in estimated bytes, the cached paths may use
+     * @throws IllegalArgumentException if a bound is not positive
+     */
+    public PathCache(int maxEntries, long maxBytes)
+    { this(maxEntries, maxBytes, true); }
+
+    /**
+     * Creates a cache with the given bounds
+     * @param maxEntries the most entries the cache holds
+     * @param maxBytes the most memory, in estimated bytes, the cached paths may use
+     * @param reverseLookups true if a query may be answered with the reversed path of the opposite query
+     * @throws IllegalArgumentException if a bound is not positive
+     */
+    public PathCache(int maxEntries, long maxBytes, boolean reverseLookups)
+    {
+        if(maxEntries <= 0 || maxBytes <= 0)
+            throw new IllegalArgumentException("Positive cache bounds expected");
+
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.reverseLookups = reverseLookups;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the path between two points from the cache or generates it with the given pathfinder and stores it
+     * @param pathFinder the pathfinder that generates the path on a miss
+     * @param start the start point of the segment
+     * @param end the end point of the segment
+     * @param containCorners true if diagonal movement is allowed
+     * @return a copy of the path from the start to the end point or null if no path exists
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public ArrayList<Point2D> getPath(PathFinder<?> pathFinder, Point2D start, Point2D end, boolean containCorners)
+    {
+        if(pathFinder == null || start == null || end == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+
+        Environment<?> environment = pathFinder.getEnvironment();
+        long version = environment.getVersion(), settingsVersion = pathFinder.getSettingsVersion();
+        Key key = new Key(pathFinder, settingsVersion, environment, version, start, end, containCorners);
+
+        synchronized(this)
+        {
+            Point2D[] path = entries.get(key);
+            if(path != null)
+            {
+                hits++;
+                return copy(path, false);
+            }
+            if(reverseLookups)
+            {
+                path = entries.get(new Key(pathFinder, settingsVersion, environment, version, end, start, containCorners));
+                if(path != null && path != NO_PATH && !isSolid(environment, start) && !isSolid(environment, end))
+                {
+                    reverseHits++;
+                    return copy(path, true);
+                }
+            }
+            misses++;
+        }
+
+        ArrayList<Point2D> path = pathFinder.generatePathSegment(start, end, containCorners);
+        put(key, (path == null) ? NO_PATH : toArray(path));
+        return path;
+    }
+
+    /**
+     * Removes every entry. The counters are kept
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size()
+    { return entries.size(); }
+
+    /**
+     * Gets the estimated memory used by the cached paths
+     * @return the estimated size of the cache in bytes
+     */
+    public synchronized long getMemoryUsage()
+    { return bytes; }
+
+    /**
+     * Gets the number of queries answered with the path of the same query
+     * @return the number of direct hits
+     */
+    public synchronized long getHitCount()
+    { return hits; }
+
+    /**
+     * Gets the number of queries answered with the reversed path of the opposite query
+     * @return the number of reverse hits
+     */
+    public synchronized long getReverseHitCount()
+    { return reverseHits; }
+
+    public synchronized long getMissCount()
+    { return misses; }
+
+    public synchronized long getEvictionCount()
+    { return evictions; }
+
+    public synchronized String toString()
+    {
+        return "PathCache[" + entries.size() + " entries, " + bytes + " bytes, " + hits + " hits, " + reverseHits
+                + " reverse hits, " + misses + " misses, " + evictions + " evictions]";
+    }
+
+    /**
+     * Stores the path and evicts the least recently used entries until both bounds hold again. A path that is larger
+     * than the memory bound on its own is not stored
+     */
+    private synchronized void put(Key key, Point2D[] path)
+    {
+        long size = sizeOf(path);
+        if(size > maxBytes)
+            return;
+
+        Point2D[] old = entries.put(key, path);
+        bytes += size - ((old == null) ? 0 : sizeOf(old));
+
+        Iterator<Map.Entry<Key, Point2D[]>> iterator = entries.entrySet().iterator();
+        while((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext())
+        {
+            bytes -= sizeOf(iterator.next().getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Checks if the point is a solid cell of a Grid. Paths may start on such a cell but never end on one
+     */
+    private static boolean isSolid(Environment<?> environment, Point2D point)
+    {
+        if(!(environment instanceof Grid))
+            return false;
+        Grid grid = (Grid) environment;
+        int x = point.getX().intValue(), y = point.getY().intValue();
+        return grid.isInBounds(x, y) && grid.isSolid(x, y);
+    }
+
+    private static long sizeOf(Point2D[] path)
+    { return ENTRY_BYTES + POINT_BYTES * path.length; }
+
+    @SuppressWarnings("unchecked")
+    private static Point2D[] toArray(ArrayList<Point2D> path)
+    {
+        Point2D[] points = new Point2D[path.size()];
+        for(int i = 0; i < points.length; i++)
+            points[i] = new Point2D(path.get(i));
+        return points;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayList<Point2D> copy(Point2D[] path, boolean reverse)
+    {
+        if(path == NO_PATH)
+            return null;
+
+        ArrayList<Point2D> points = new ArrayList<>(path.length);
+        for(int i = 0; i < path.length; i++)
+            points.add(new Point2D(path[reverse ? path.length - 1 - i : i]));
+        return points;
+    }
+
+    /**
+     * The key of a cached path. The pathfinder and the Environment are compared by identity and the points by their
+     * coordinates, so an Integer and a Double point at the same position are the same point
+     */
+    private static class Key
+    {
+        private final PathFinder<?> pathFinder;
+        private final long settingsVersion;
+        private final Environment<?> environment;
+        private final long version;
+        private final double startX, startY, endX, endY;
+        private final boolean containCorners;
+        private final int hash;
+
+        Key(PathFinder<?> pathFinder, long settingsVersion, Environment<?> environment, long version, Point2D start,
+            Point2D end, boolean containCorners)
+        {
+            this.pathFinder = pathFinder;
+            this.settingsVersion = settingsVersion;
+            this.environment = environment;
+            this.version = version;
+            startX = start.getX().doubleValue();
+            startY = start.getY().doubleValue();
+            endX = end.getX().doubleValue();
+            endY = end.getY().doubleValue();
+            this.containCorners = containCorners;
+
+            int h = System.identityHashCode(pathFinder);
+            h = 31 * h + Long.hashCode(settingsVersion);
+            h = 31 * h + System.identityHashCode(environment);
+            h = 31 * h + Long.hashCode(version);
+            h = 31 * h + Double.hashCode(startX);
+            h = 31 * h + Double.hashCode(startY);
+            h = 31 * h + Double.hashCode(endX);
+            h = 31 * h + Double.hashCode(endY);
+            hash = 31 * h + (containCorners ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return pathFinder == key.pathFinder && settingsVersion == key.settingsVersion && environment == key.environment
+                    && version == key.version && containCorners == key.containCorners
+                    && startX == key.startX && startY == key.startY && endX == key.endX && endY == key.endY;
+        }
+
+        @Override
+        public int hashCode()
+        { return hash; }
+    }
+}
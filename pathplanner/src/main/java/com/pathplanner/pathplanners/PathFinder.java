@@ -7,12 +7,17 @@ import com.pathplanner.world.environment.Environment;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public abstract class PathFinder<E extends Environment>
 {
     private E environment;
     private List<Point2D> constraintPoints;
     private List<Point2D> path;
+    private long settingsVersion;
 
     public PathFinder(E environment)
     {
@@ -104,31 +109,115 @@ public abstract class PathFinder<E extends Environment>
 
     public List<Point2D> generatePath(boolean containCorners)
     {
-        path = new ArrayList<>();
-        if(constraintPoints.size() > 1)
-        {
-            for(int i = 1; i < constraintPoints.size(); i++) {
-                ArrayList<Point2D> pathPart = generatePathSegment(constraintPoints.get(i - 1), constraintPoints.get(i), containCorners);
-                if(pathPart != null) {
-                    pathPart.remove(pathPart.size() - 1);
-                    path.addAll(pathPart);
-                }
-                else {
-                    path = null;
-                    return null;
-                }
-            }
-            path.add(constraintPoints.get(constraintPoints.size()-1));
+        if(constraintPoints.size() < 2)
+            return stitchPath(Collections.emptyList());
+
+        List<ArrayList<Point2D>> pathParts = new ArrayList<>(constraintPoints.size() - 1);
+        for(int i = 1; i < constraintPoints.size(); i++) {
+            ArrayList<Point2D> pathPart = generatePathSegment(constraintPoints.get(i - 1), constraintPoints.get(i), containCorners);
+            if(pathPart == null)
+                return stitchPath(null);
+            pathParts.add(pathPart);
         }
-        else if(constraintPoints.size() == 1)
-            path.add(constraintPoints.get(0));
-        else
-            return null;
-        return path;
+        return stitchPath(pathParts);
     }
 
+    /**
+     * Gets the version of the settings of this PathFinder. Every setter that can change the paths returned by
+     * generatePathSegment gives the PathFinder a new settings version, so a cached path can tell whether it was planned
+     * with the current settings
+     * @return the current settings version
+     * @see PathCache
+     */
+    public long getSettingsVersion()
+    { return settingsVersion; }
+
+    /**
+     * Gives this PathFinder a new settings version. Subclasses call this from every setter that can change their paths
+     */
+    protected final void settingsChanged()
+    { settingsVersion++; }
+
+    /**
+     * Checks if several threads may call generatePathSegment on this PathFinder at the same time. A PathFinder that
+     * keeps the state of its last search between calls, or reuses one set of search arrays, is not thread safe; it is
+     * either wrong or runs its searches one at a time when shared. Give every thread its own instance of such a
+     * PathFinder instead. Setters are never thread safe and must not be called while a search is running
+     * @return true if concurrent calls to generatePathSegment are safe and run in parallel
+     */
+    public boolean isThreadSafe()
+    { return false; }
+
+    /**
+     * Generates the path like generatePath(boolean) but plans every segment between two consecutive constraint points
+     * as its own task on the given Executor. The segments are joined in order once every task is done, so the result is
+     * the same as the sequential path. If this PathFinder is not thread safe the segments are planned one after the
+     * other on the calling thread instead. The environment must not be modified while the path is being generated
+     * @param containCorners true if diagonal movement is allowed
+     * @param executor the executor that runs the segment tasks
+     * @return the path through every constraint point or null if a segment has no path
+     */
+    public List<Point2D> generatePath(boolean containCorners, Executor executor)
+    {
+        if(executor == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        if(!isThreadSafe())
+            return generatePath(containCorners);
+        if(constraintPoints.size() < 2)
+            return stitchPath(Collections.emptyList());
+
+        List<CompletableFuture<ArrayList<Point2D>>> tasks = new ArrayList<>(constraintPoints.size() - 1);
+        for(int i = 1; i < constraintPoints.size(); i++) {
+            Point2D start = constraintPoints.get(i - 1), end = constraintPoints.get(i);
+            tasks.add(CompletableFuture.supplyAsync(() -> generatePathSegment(start, end, containCorners), executor));
+        }
+
+        List<ArrayList<Point2D>> pathParts = new ArrayList<>(tasks.size());
+        try {
+            for(CompletableFuture<ArrayList<Point2D>> task : tasks)
+                pathParts.add(task.join());
+        }
+        catch(CompletionException e) {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+
+        return stitchPath(pathParts.contains(null) ? null : pathParts);
+    }
+
+    /**
+     * Generates the path with every segment planned in parallel on the common ForkJoinPool
+     * @param containCorners true if diagonal movement is allowed
+     * @return the path through every constraint point or null if a segment has no path
+     * @see #generatePath(boolean, Executor)
+     * @see #isThreadSafe()
+     */
+    public List<Point2D> generatePathParallel(boolean containCorners)
+    { return generatePath(containCorners, ForkJoinPool.commonPool()); }
+
     public abstract ArrayList<Point2D> generatePathSegment(Point2D start, Point2D end, boolean containCorners);
 
+    /**
+     * Joins the segments between consecutive constraint points into the path. The last point of each segment is the
+     * first point of the next one, so it is dropped and the last constraint point is added at the end
+     * @param pathParts the segments in order or null if a segment has no path
+     * @return the stored path
+     */
+    private List<Point2D> stitchPath(List<ArrayList<Point2D>> pathParts)
+    {
+        if(pathParts == null || constraintPoints.isEmpty()) {
+            path = (pathParts == null) ? null : new ArrayList<>();
+            return null;
+        }
+
+        path = new ArrayList<>();
+        for(ArrayList<Point2D> pathPart : pathParts)
+            path.addAll(pathPart.subList(0, pathPart.size() - 1));
+        path.add(constraintPoints.get(constraintPoints.size() - 1));
+        return path;
+    }
+
     private void isValidPoint(Point2D point)
     {
         if(point == null)
@@ -46,7 +46,7 @@ public class PathFinderData<E extends Number> implements Comparable<PathFinderDa
      * Compares this LOSStar group to another LOSStar group. They compare the sum of gScore + fScore
      */
     public int compareTo(PathFinderData other)
-    { return (int) (this.getScore() - (other.getScore())); }
+    { return Double.compare(this.getScore(), other.getScore()); }
 
     /**
      * Checks if the given object is equal to the current PathFinderData. They are equivalent if the points are equal
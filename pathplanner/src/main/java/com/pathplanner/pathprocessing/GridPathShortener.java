@@ -0,0 +1,144 @@
+package com.pathplanner.pathprocessing;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.environment.Grid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GridPathShortener removes the waypoints of a Grid path that can be skipped in a straight line, turning the staircase
+ * of one waypoint per cell returned by the Grid pathfinders into a few long segments. From each kept waypoint it looks
+ * for the farthest later waypoint in line of sight. It probes 2, 4, 8... waypoints ahead until a probe is blocked and
+ * then binary searches between the last visible probe and the blocked one. The waypoint found is kept and the search
+ * starts again from it. Each search costs about as much as the run it skips times its logarithm, so the whole pass is
+ * O(n log n) in the length of the path, and every segment of the result is in line of sight.
+ * Line of sight is checked on the solid bitset of the Grid with a supercover traversal, which visits every cell the line
+ * between the two cell centers passes through. It follows the movement model of the Grid pathfinders: only solid cells
+ * block, and a line passing exactly through the corner between two cells goes diagonally without checking the two
+ * cells beside the corner, just like a diagonal step may cut a corner.
+ */
+public final class GridPathShortener
+{
+    private GridPathShortener() {}
+
+    /**
+     * Removes every waypoint of the path that can be skipped in a straight line
+     * @param grid the Grid the path was planned on
+     * @param path the waypoints of the path, one cell after the other
+     * @return the kept waypoints, starting and ending with the ends of the path
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static ArrayList<Point2D> shorten(Grid grid, List<Point2D> path)
+    {
+        if(grid == null || path == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        if(path.size() <= 2)
+            return new ArrayList<>(path);
+
+        long[] solid = grid.getSolidBits();
+        ArrayList<Point2D> shortened = new ArrayList<>();
+        shortened.add(path.get(0));
+        for(int anchor = 0; anchor < path.size() - 1; )
+        {
+            anchor = farthestVisible(solid, grid.getCols(), path, anchor);
+            shortened.add(path.get(anchor));
+        }
+        return shortened;
+    }
+
+    /**
+     * Checks if the line between the centers of two cells crosses no solid cell. The start cell is not checked
+     * @param grid the Grid that is checked
+     * @param x0 the x coordinate of the start cell
+     * @param y0 the y coordinate of the start cell
+     * @param x1 the x coordinate of the end cell
+     * @param y1 the y coordinate of the end cell
+     * @return true if every other cell on the line is inside the Grid and not solid
+     */
+    public static boolean lineOfSight(Grid grid, int x0, int y0, int x1, int y1)
+    {
+        if(!grid.isInBounds(x0, y0) || !grid.isInBounds(x1, y1))
+            return false;
+        return lineOfSight(grid.getSolidBits(), grid.getCols(), x0, y0, x1, y1);
+    }
+
+    /**
+     * Finds a later waypoint in line of sight of the anchor, as far along the path as the probes reach. The waypoint
+     * right after the anchor is always reachable, since consecutive waypoints are neighboring cells
+     */
+    private static int farthestVisible(long[] solid, int cols, List<Point2D> path, int anchor)
+    {
+        int last = path.size() - 1, visible = anchor + 1, blocked = -1;
+        for(int step = 2; blocked < 0; step *= 2)
+        {
+            int probe = Math.min(last, anchor + step);
+            if(probe <= visible)
+                return visible;
+            if(lineOfSight(solid, cols, path.get(anchor), path.get(probe)))
+                visible = probe;
+            else
+                blocked = probe;
+            if(probe == last && blocked < 0)
+                return last;
+        }
+
+        while(blocked - visible > 1)
+        {
+            int middle = (visible + blocked) >>> 1;
+            if(lineOfSight(solid, cols, path.get(anchor), path.get(middle)))
+                visible = middle;
+            else
+                blocked = middle;
+        }
+        return visible;
+    }
+
+    private static boolean lineOfSight(long[] solid, int cols, Point2D from, Point2D to)
+    {
+        return lineOfSight(solid, cols, from.getX().intValue(), from.getY().intValue(),
+                to.getX().intValue(), to.getY().intValue());
+    }
+
+    /**
+     * Checks line of sight directly on a solid bitset, for callers that test many lines on the same Grid. Both cells must
+     * be inside the Grid. It walks the cells between the two centers with an integer supercover traversal. error tracks
+     * which cell border the line crosses next: positive for a vertical border, negative for a horizontal one and zero for
+     * a corner
+     * @param solid the solid bitset of the Grid
+     * @param cols the number of columns of the Grid
+     * @return true if every cell on the line after the start cell is not solid
+     * @see Grid#getSolidBits()
+     */
+    public static boolean lineOfSight(long[] solid, int cols, int x0, int y0, int x1, int y1)
+    {
+        int dx = Math.abs(x1 - x0), dy = Math.abs(y1 - y0);
+        int stepX = (x1 > x0) ? 1 : -1, stepY = (y1 > y0) ? 1 : -1;
+        int error = dx - dy, x = x0, y = y0;
+        dx *= 2;
+        dy *= 2;
+        for(int remaining = (dx + dy) / 2; remaining > 0; remaining--)
+        {
+            if(error > 0)
+            {
+                x += stepX;
+                error -= dy;
+            }
+            else if(error < 0)
+            {
+                y += stepY;
+                error += dx;
+            }
+            else
+            {
+                x += stepX;
+                y += stepY;
+                error += dx - dy;
+                remaining--;
+            }
+            if(Grid.testBit(solid, y * cols + x))
+                return false;
+        }
+        return true;
+    }
+}
@@ -6,11 +6,20 @@ import com.pathplanner.pathprocessing.pathSegment.RouteLineSegment;
 import com.pathplanner.pathprocessing.pathSegment.RouteSegment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * A ParametricPath joins RouteSegments into a single path. Its parameter t runs from 0 to the number of segments, with
+ * segment i covering [i, i + 1], so equal steps of t do not cover equal distances. The distance queries convert a
+ * distance along the path into t with the arc length of every segment: a binary search over the distance at the start of
+ * each segment followed by a lookup in the arc length table of that segment. The start distances are computed on the
+ * first distance query, so invalidateLengths must be called after the constraints of a segment change.
+ */
 public class ParametricPath extends Path<Double>
 {
     private List<RouteSegment> parametrization;
+    private double[] segmentStart;
 
     public ParametricPath(List<Point2D<Double>> path, List<RouteSegment> parametrization)
     {
@@ -28,17 +37,105 @@ public class ParametricPath extends Path<Double>
     }
 
     public Point2D<Double> getPoint(double t)
-    { return parametrization.get((int) t).getPoint(t - Math.floor(t)); }
+    {
+        int segment = segmentIndex(t);
+        return parametrization.get(segment).getPoint(t - segment);
+    }
 
     public Vector2D getTangent(double t)
-    { return parametrization.get((int) t).getTangent(t - Math.floor(t)); }
+    {
+        int segment = segmentIndex(t);
+        return parametrization.get(segment).getTangent(t - segment);
+    }
+
+    /**
+     * Gets the arc length of the whole path
+     * @return the length of the path
+     */
+    public double totalLength()
+    {
+        prepareLengths();
+        return segmentStart[parametrization.size()];
+    }
+
+    /**
+     * Gets the t at which the given distance along the path has been travelled. Distances outside of the path are
+     * clamped to its ends
+     * @param distance the distance from the start of the path
+     * @return the t at that distance
+     */
+    public double parameterAtDistance(double distance)
+    {
+        prepareLengths();
+        int segment = Arrays.binarySearch(segmentStart, 0, parametrization.size(), distance);
+        segment = (segment >= 0) ? segment : Math.max(0, -segment - 2);
+        return segment + parametrization.get(segment).parameterAtDistance(distance - segmentStart[segment]);
+    }
+
+    /**
+     * Gets the point at the given distance along the path
+     * @param distance the distance from the start of the path
+     * @return the point at that distance
+     */
+    public Point2D<Double> pointAtDistance(double distance)
+    { return getPoint(parameterAtDistance(distance)); }
+
+    /**
+     * Gets the tangent at the given distance along the path
+     * @param distance the distance from the start of the path
+     * @return the tangent at that distance
+     */
+    public Vector2D tangentAtDistance(double distance)
+    { return getTangent(parameterAtDistance(distance)); }
+
+    /**
+     * Drops the distances at the start of every segment. Must be called after the constraints of a segment change
+     */
+    public void invalidateLengths()
+    { segmentStart = null; }
+
+    public int getSegmentCount()
+    { return parametrization.size(); }
+
+    public RouteSegment getSegment(int index)
+    { return parametrization.get(index); }
+
+    /**
+     * Creates a sampler that steps through the path by the given amount of t
+     * @param step the amount t grows by between two samples
+     * @return a new sampler positioned at the start of the path
+     */
+    public PathSampler sampleByParameter(double step)
+    { return new PathSampler(this, step, false); }
+
+    /**
+     * Creates a sampler that steps through the path by the given distance
+     * @param step the distance between two samples
+     * @return a new sampler positioned at the start of the path
+     */
+    public PathSampler sampleByDistance(double step)
+    { return new PathSampler(this, step, true); }
+
+    /**
+     * Gets the segment t lies on. The end of the path, t = getSegmentCount(), lies on the last segment
+     */
+    private int segmentIndex(double t)
+    { return Math.max(0, Math.min(parametrization.size() - 1, (int) Math.floor(t))); }
 
     @Override
     public double distance()
+    { return totalLength(); }
+
+    private void prepareLengths()
     {
-        double distance = 0;
-        for(RouteSegment seg : parametrization)
-            distance += seg.getDistance();
-        return distance;
+        if(segmentStart != null)
+            return;
+        if(parametrization.isEmpty())
+            throw new IllegalStateException("Path has no segments");
+
+        double[] start = new double[parametrization.size() + 1];
+        for(int i = 0; i < parametrization.size(); i++)
+            start[i + 1] = start[i] + parametrization.get(i).getDistance();
+        segmentStart = start;
     }
 }
@@ -5,13 +5,16 @@ import com.pathplanner.geometry.Vector2D;
 
 import java.util.List;
 
-public abstract class Path
+public abstract class Path<T extends Number>
 {
-    protected List<Point2D> path;
+    protected List<Point2D<T>> path;
 
-    public Path(List<Point2D> path)
+    public Path(List<Point2D<T>> path)
     { this.path = path; }
 
+    public int size()
+    { return path.size(); }
+
     public double distance() {
         double distance = 0;
         for(int i = 1; i < path.size(); i++)
@@ -22,7 +25,7 @@ public abstract class Path
     public double displacement()
     { return path.get(0).distance(path.get(path.size()-1)); }
 
-    public Point2D getPosition(int index)
+    public Point2D<T> getPosition(int index)
     { return path.get(index); }
 
     public Vector2D getTangent(int index)
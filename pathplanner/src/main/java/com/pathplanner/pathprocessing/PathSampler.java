@@ -0,0 +1,156 @@
+package com.pathplanner.pathprocessing;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathprocessing.pathSegment.RouteSegment;
+
+/**
+ * A PathSampler walks a ParametricPath at a fixed step and produces the point and tangent of every sample without
+ * creating any objects, so it can run inside control loops that sample at a high rate. Samples are either a fixed amount
+ * of t apart, where t runs from 0 to the number of segments, or a fixed distance apart along the path. The first sample
+ * is the start of the path and the last sample is always its end, even if it is closer than one step to the sample
+ * before it. When sampling by distance, t within a segment is found with the arc length table of the segment, so the
+ * samples are evenly spaced along curved segments too.
+ * Samples are read one at a time with next, in bulk into an array with fill, or passed to a SampleConsumer with
+ * forEachRemaining. Each sample is STRIDE values long: t, x, y and the x and y of the tangent. A PathSampler must not be
+ * shared between threads.
+ * @see ParametricPath#sampleByParameter(double)
+ * @see ParametricPath#sampleByDistance(double)
+ */
+public class PathSampler
+{
+    public static final int STRIDE = 5;
+
+    private final ParametricPath path;
+    private final double step, total;
+    private final boolean byDistance;
+    private final double[] segmentStart;
+    private final int sampleCount;
+    private final double[] sample = new double[STRIDE];
+
+    private int index, segment;
+
+    /**
+     * Creates a sampler positioned at the start of the path
+     * @param path the path that will be sampled
+     * @param step the amount of t or distance between two samples
+     * @param byDistance true if step is a distance
+     * @throws IllegalArgumentException if path is null or step is not positive
+     */
+    public PathSampler(ParametricPath path, double step, boolean byDistance)
+    {
+        if(path == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        if(!(step > 0) || Double.isInfinite(step))
+            throw new IllegalArgumentException("Positive step expected");
+        this.path = path;
+        this.step = step;
+        this.byDistance = byDistance;
+
+        segmentStart = new double[path.getSegmentCount() + 1];
+        for(int i = 0; i < path.getSegmentCount(); i++)
+            segmentStart[i + 1] = segmentStart[i] + (byDistance ? path.getSegment(i).getDistance() : 1);
+        total = segmentStart[path.getSegmentCount()];
+        sampleCount = (path.getSegmentCount() == 0) ? 0 : (int) Math.ceil(total / step - 1e-9) + 1;
+    }
+
+    /**
+     * Gets the number of samples this sampler produces from the start of the path to its end
+     * @return the number of samples
+     */
+    public int getSampleCount()
+    { return sampleCount; }
+
+    public boolean hasNext()
+    { return index < sampleCount; }
+
+    /**
+     * Writes the next sample into the array as t, x, y, the x of the tangent and the y of the tangent
+     * @param samples the array the sample is written into
+     * @param offset the index the sample starts at
+     * @throws IllegalStateException if there are no samples left
+     */
+    public void next(double[] samples, int offset)
+    {
+        if(!hasNext())
+            throw new IllegalStateException("No samples left");
+
+        double position = (index == sampleCount - 1) ? total : index * step;
+        while(segment < path.getSegmentCount() - 1 && segmentStart[segment + 1] <= position)
+            segment++;
+        RouteSegment routeSegment = path.getSegment(segment);
+        double t = byDistance ? routeSegment.parameterAtDistance(position - segmentStart[segment])
+                : Math.min(1, Math.max(0, position - segment));
+        boolean last = index == sampleCount - 1;
+        if(last)
+            t = 1;
+
+        samples[offset] = segment + t;
+        routeSegment.getPoint(t, samples, offset + 1);
+        routeSegment.getTangent(t, samples, offset + 3);
+        if(last)
+        {
+            // summing the lengths of the segments and evaluating a segment at t = 1 can both be off by rounding, so the
+            // last sample is set to the end of the path exactly
+            Point2D<Double> end = routeSegment.getConstraint(routeSegment.constraintCount() - 1);
+            samples[offset + 1] = end.getX();
+            samples[offset + 2] = end.getY();
+        }
+        index++;
+    }
+
+    /**
+     * Writes as many of the next samples as fit into the array, one after the other
+     * @param samples the array the samples are written into
+     * @param offset the index the first sample starts at
+     * @param maxSamples the most samples that will be written
+     * @return the number of samples written
+     */
+    public int fill(double[] samples, int offset, int maxSamples)
+    {
+        int count = 0;
+        for(; count < maxSamples && hasNext(); count++)
+            next(samples, offset + count * STRIDE);
+        return count;
+    }
+
+    /**
+     * Passes every sample that is left to the consumer
+     * @param consumer the consumer that is given the samples
+     * @throws IllegalArgumentException if consumer is null
+     */
+    public void forEachRemaining(SampleConsumer consumer)
+    {
+        if(consumer == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        while(hasNext())
+        {
+            next(sample, 0);
+            consumer.accept(sample[0], sample[1], sample[2], sample[3], sample[4]);
+        }
+    }
+
+    /**
+     * Moves the sampler back to the start of the path
+     */
+    public void reset()
+    {
+        index = 0;
+        segment = 0;
+    }
+
+    /**
+     * A SampleConsumer is given the samples of a PathSampler one at a time
+     */
+    public interface SampleConsumer
+    {
+        /**
+         * Called once for every sample
+         * @param t the parameter of the sample on the path
+         * @param x the x coordinate of the point
+         * @param y the y coordinate of the point
+         * @param tangentX the x component of the tangent
+         * @param tangentY the y component of the tangent
+         */
+        void accept(double t, double x, double y, double tangentX, double tangentY);
+    }
+}
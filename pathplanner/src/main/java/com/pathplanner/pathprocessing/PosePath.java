@@ -4,13 +4,40 @@ import com.pathplanner.geometry.Point2D;
 import com.pathplanner.geometry.Pose2D;
 import com.pathplanner.geometry.Vector2D;
 
+import java.util.Arrays;
 import java.util.List;
 
-public class PosePath extends Path
+/**
+ * A PosePath is a list of poses, each with a position, velocity and acceleration. A PosePath created with times is a
+ * trajectory: pose i is reached at times[i], and sampleAt finds the pose at any time between them with a binary search.
+ * @see TrajectoryGenerator
+ */
+public class PosePath extends Path<Double>
 {
+    private final double[] times;
+
+    @SuppressWarnings("unchecked")
     public PosePath(List<Pose2D<Double>> list)
     {
-        super(list);
+        super((List) list);
+        times = null;
+    }
+
+    /**
+     * Creates a trajectory that reaches every pose at the matching time
+     * @param list the poses of the trajectory
+     * @param times the time each pose is reached at, in increasing order
+     * @throws IllegalArgumentException if an argument is null or the sizes do not match
+     */
+    @SuppressWarnings("unchecked")
+    public PosePath(List<Pose2D<Double>> list, double[] times)
+    {
+        super((List) list);
+        if(list == null || times == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        if(list.size() != times.length || times.length == 0)
+            throw new IllegalArgumentException("A time for every pose expected");
+        this.times = times;
     }
 
     @Override
@@ -19,5 +46,76 @@ public class PosePath extends Path
     }
 
     public Vector2D getVelocity(int index)
-    { return ((Pose2D<Double>) super.getPosition(index)).getVelocity(); }
+    { return getPosition(index).getVelocity(); }
+
+    public boolean isTimed()
+    { return times != null; }
+
+    /**
+     * Gets the time the pose at the index is reached at
+     * @param index the index of the pose
+     * @return the time of the pose
+     * @throws IllegalStateException if the path has no times
+     */
+    public double getTime(int index)
+    {
+        checkTimed();
+        return times[index];
+    }
+
+    /**
+     * Gets the time the last pose is reached at
+     * @return the duration of the trajectory
+     * @throws IllegalStateException if the path has no times
+     */
+    public double getDuration()
+    {
+        checkTimed();
+        return times[times.length - 1];
+    }
+
+    /**
+     * Gets the pose at the given time. The position between two poses follows the cubic Hermite curve through their
+     * positions and velocities, the velocity is its derivative and the acceleration changes linearly. Times outside of
+     * the trajectory are clamped to its ends
+     * @param time the time of the pose
+     * @return a new pose at that time
+     * @throws IllegalStateException if the path has no times
+     */
+    public Pose2D<Double> sampleAt(double time)
+    {
+        checkTimed();
+        if(!(time > times[0]))
+            return copy(getPosition(0));
+        else if(time >= times[times.length - 1])
+            return copy(getPosition(times.length - 1));
+
+        int i = Arrays.binarySearch(times, time);
+        if(i >= 0)
+            return copy(getPosition(i));
+        i = -i - 2;
+
+        Pose2D<Double> a = getPosition(i), b = getPosition(i + 1);
+        double dt = times[i + 1] - times[i], u = (time - times[i]) / dt;
+        double u2 = u * u, u3 = u2 * u;
+        double h00 = 2 * u3 - 3 * u2 + 1, h10 = u3 - 2 * u2 + u, h01 = -2 * u3 + 3 * u2, h11 = u3 - u2;
+        double d00 = 6 * u2 - 6 * u, d10 = 3 * u2 - 4 * u + 1, d01 = -6 * u2 + 6 * u, d11 = 3 * u2 - 2 * u;
+
+        Vector2D va = a.getVelocity(), vb = b.getVelocity(), aa = a.getAcceleration(), ab = b.getAcceleration();
+        double x = h00 * a.getX() + h10 * dt * va.getX() + h01 * b.getX() + h11 * dt * vb.getX();
+        double y = h00 * a.getY() + h10 * dt * va.getY() + h01 * b.getY() + h11 * dt * vb.getY();
+        Vector2D velocity = new Vector2D((d00 * a.getX() + d01 * b.getX()) / dt + d10 * va.getX() + d11 * vb.getX(),
+                (d00 * a.getY() + d01 * b.getY()) / dt + d10 * va.getY() + d11 * vb.getY());
+        Vector2D acceleration = new Vector2D(aa.getX() + (ab.getX() - aa.getX()) * u, aa.getY() + (ab.getY() - aa.getY()) * u);
+        return new Pose2D<Double>(x, y, velocity, acceleration);
+    }
+
+    private void checkTimed()
+    {
+        if(times == null)
+            throw new IllegalStateException("PosePath has no times");
+    }
+
+    private static Pose2D<Double> copy(Pose2D<Double> pose)
+    { return new Pose2D<Double>(new Point2D<Double>(pose), new Vector2D(pose.getVelocity()), new Vector2D(pose.getAcceleration())); }
 }
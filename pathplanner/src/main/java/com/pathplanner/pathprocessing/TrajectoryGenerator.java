@@ -0,0 +1,149 @@
+package com.pathplanner.pathprocessing;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.geometry.Pose2D;
+import com.pathplanner.geometry.Vector2D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A TrajectoryGenerator turns a ParametricPath into a time-optimal trajectory under a velocity limit, an acceleration
+ * limit along the path and a lateral acceleration limit. The path is sampled every resolution units of distance and the
+ * curvature at each sample is estimated from the change of the tangent angle. The lateral limit caps the speed at each
+ * sample to sqrt(maxLateralAcceleration / curvature), so sharp corners between line segments are taken slowly. A forward
+ * pass then limits how fast the speed can rise and a backward pass how fast it can fall, which gives the fastest speed
+ * profile that respects every limit. The acceleration limit is applied along the path on its own and does not share a
+ * budget with the lateral acceleration.
+ * The result is a timed PosePath whose poses hold the velocity and the acceleration, including the centripetal part, at
+ * every sample.
+ * @see PosePath#sampleAt(double)
+ */
+public class TrajectoryGenerator
+{
+    public static final double DEFAULT_RESOLUTION = 0.05;
+
+    private final double maxVelocity, maxAcceleration, maxLateralAcceleration;
+    private double resolution = DEFAULT_RESOLUTION;
+
+    /**
+     * Creates a generator with the given limits
+     * @param maxVelocity the highest speed
+     * @param maxAcceleration the highest acceleration and deceleration along the path
+     * @param maxLateralAcceleration the highest acceleration towards the center of a curve
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public TrajectoryGenerator(double maxVelocity, double maxAcceleration, double maxLateralAcceleration)
+    {
+        if(!(maxVelocity > 0) || !(maxAcceleration > 0) || !(maxLateralAcceleration > 0))
+            throw new IllegalArgumentException("Positive limits expected");
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxLateralAcceleration = maxLateralAcceleration;
+    }
+
+    /**
+     * Sets the distance between two samples of the path
+     * @param resolution the distance between samples
+     * @throws IllegalArgumentException if resolution is not positive
+     */
+    public void setResolution(double resolution)
+    {
+        if(!(resolution > 0) || Double.isInfinite(resolution))
+            throw new IllegalArgumentException("Positive resolution expected");
+        this.resolution = resolution;
+    }
+
+    public double getResolution()
+    { return resolution; }
+
+    /**
+     * Generates a trajectory that starts and ends at rest
+     * @param path the path that will be followed
+     * @return the timed trajectory
+     */
+    public PosePath generate(ParametricPath path)
+    { return generate(path, 0, 0); }
+
+    /**
+     * Generates a trajectory that starts and ends at the given speeds, or as close to them as the limits allow
+     * @param path the path that will be followed
+     * @param startVelocity the speed at the start of the path
+     * @param endVelocity the speed at the end of the path
+     * @return the timed trajectory
+     * @throws IllegalArgumentException if path is null or a speed is negative
+     */
+    public PosePath generate(ParametricPath path, double startVelocity, double endVelocity)
+    {
+        if(path == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        if(!(startVelocity >= 0) || !(endVelocity >= 0))
+            throw new IllegalArgumentException("Non-negative velocities expected");
+
+        PathSampler sampler = path.sampleByDistance(resolution);
+        int n = sampler.getSampleCount();
+        double[] samples = new double[n * PathSampler.STRIDE];
+        sampler.fill(samples, 0, n);
+
+        double[] distance = new double[n], heading = new double[n], curvature = new double[n], velocity = new double[n];
+        double total = path.totalLength();
+        for(int i = 0; i < n; i++)
+        {
+            distance[i] = (i == n - 1) ? total : i * resolution;
+            double tangentX = samples[i * PathSampler.STRIDE + 3], tangentY = samples[i * PathSampler.STRIDE + 4];
+            // a segment of length zero has no direction, so it keeps the heading before it
+            heading[i] = (tangentX == 0 && tangentY == 0 && i > 0) ? heading[i - 1] : Math.atan2(tangentY, tangentX);
+        }
+
+        // the speed each sample allows on its own, then the forward and backward passes
+        for(int i = 0; i < n; i++)
+        {
+            int before = Math.max(0, i - 1), after = Math.min(n - 1, i + 1);
+            double span = distance[after] - distance[before];
+            curvature[i] = (span == 0) ? 0 : angleBetween(heading[before], heading[after]) / span;
+            velocity[i] = (curvature[i] == 0) ? maxVelocity
+                    : Math.min(maxVelocity, Math.sqrt(maxLateralAcceleration / Math.abs(curvature[i])));
+        }
+        velocity[0] = Math.min(velocity[0], startVelocity);
+        for(int i = 1; i < n; i++)
+            velocity[i] = Math.min(velocity[i], Math.sqrt(velocity[i - 1] * velocity[i - 1] + 2 * maxAcceleration * (distance[i] - distance[i - 1])));
+        velocity[n - 1] = Math.min(velocity[n - 1], endVelocity);
+        for(int i = n - 2; i >= 0; i--)
+            velocity[i] = Math.min(velocity[i], Math.sqrt(velocity[i + 1] * velocity[i + 1] + 2 * maxAcceleration * (distance[i + 1] - distance[i])));
+
+        double[] times = new double[n];
+        List<Pose2D<Double>> poses = new ArrayList<>(n);
+        for(int i = 0; i < n; i++)
+        {
+            double step = (i == n - 1) ? 0 : distance[i + 1] - distance[i];
+            double acceleration = 0;
+            if(i < n - 1)
+            {
+                double sum = velocity[i] + velocity[i + 1];
+                // constant acceleration over the step, or accelerating and then braking over it when both ends are at rest
+                times[i + 1] = times[i] + ((sum > 0) ? 2 * step / sum : 2 * Math.sqrt(step / maxAcceleration));
+                acceleration = (step == 0) ? 0 : (velocity[i + 1] * velocity[i + 1] - velocity[i] * velocity[i]) / (2 * step);
+            }
+
+            double cos = Math.cos(heading[i]), sin = Math.sin(heading[i]);
+            double lateral = curvature[i] * velocity[i] * velocity[i];
+            Point2D<Double> position = new Point2D<Double>(samples[i * PathSampler.STRIDE + 1], samples[i * PathSampler.STRIDE + 2]);
+            poses.add(new Pose2D<Double>(position, new Vector2D(cos * velocity[i], sin * velocity[i]),
+                    new Vector2D(cos * acceleration - sin * lateral, sin * acceleration + cos * lateral)));
+        }
+        return new PosePath(poses, times);
+    }
+
+    /**
+     * Gets the signed angle that turns the first heading into the second, between -pi and pi
+     */
+    private static double angleBetween(double from, double to)
+    {
+        double angle = to - from;
+        while(angle > Math.PI)
+            angle -= 2 * Math.PI;
+        while(angle < -Math.PI)
+            angle += 2 * Math.PI;
+        return angle;
+    }
+}
@@ -1,8 +1,12 @@
 package com.pathplanner.pathprocessing.pathFactory;
 
+import com.pathplanner.geometry.Point2D;
 import com.pathplanner.pathprocessing.ParametricPath;
 import com.pathplanner.pathprocessing.WayPointPath;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ParametricPathFactory<T extends Number>
 {
 
@@ -12,6 +16,9 @@ public class ParametricPathFactory<T extends Number>
     public ParametricPathFactory(WayPointPath<T> path)
     {
         this.path = path;
-        parametricPath = new ParametricPath(path);
+        List<Point2D<Double>> points = new ArrayList<>(path.size());
+        for(int i = 0; i < path.size(); i++)
+            points.add(new Point2D<Double>(path.getPosition(i).getX().doubleValue(), path.getPosition(i).getY().doubleValue()));
+        parametricPath = new ParametricPath(points);
     }
 }
@@ -1,19 +1,37 @@
 package com.pathplanner.pathprocessing.pathSegment;
 
+import com.pathplanner.geometry.Point2D;
 import com.pathplanner.geometry.Vector2D;
 
-import java.awt.geom.Point2D;
 import java.util.List;
 
-public class RouteBezierSegment<E extends Point2D> extends RouteSegment<E>
+/**
+ * A RouteBezierSegment is a Bezier curve of any degree, with the start point, the control points and the end point as its constraints. recalculateSegment converts the
+ * constraints into the coefficients of the polynomial in t, so points and tangents are evaluated with Horner's method without creating any objects. The power basis loses
+ * precision for very high degrees, so long curves are better split into several segments of low degree. The arc length comes from the cached table of RouteSegment.
+ */
+public class RouteBezierSegment extends RouteSegment
 {
-    public RouteBezierSegment(E startPoint)
+    /**
+     * The coefficients of the curve and of its derivative, lowest power first
+     */
+    private double[] xCoefficients, yCoefficients, xDerivative, yDerivative;
+
+    public RouteBezierSegment(Point2D<Double> startPoint)
     {
         super();
         super.addConstraint(0,startPoint);
     }
 
-    public RouteBezierSegment(List<E> constraintPoint)
+    @SafeVarargs
+    public RouteBezierSegment(Point2D<Double>... constraintPoints)
+    {
+        super();
+        for(Point2D<Double> point : constraintPoints)
+            super.addConstraint(point);
+    }
+
+    public RouteBezierSegment(List<Point2D<Double>> constraintPoint)
     { super(constraintPoint); }
 
     public RouteBezierSegment()
@@ -34,22 +52,71 @@ public class RouteBezierSegment<E extends Point2D> extends RouteSegment<E>
     public int getMaxConstraints()
     { return Integer.MAX_VALUE; }
 
-    public void recalculateSegment() {
+    /**
+     * Converts the constraints into power basis coefficients. The coefficient of t^k is C(n, k) times the k-th forward difference of the constraints
+     */
+    public void recalculateSegment()
+    {
+        int n = super.constraintCount() - 1;
+        double[] x = new double[n + 1], y = new double[n + 1];
+        for(int i = 0; i <= n; i++)
+        {
+            x[i] = super.getConstraint(i).getX().doubleValue();
+            y[i] = super.getConstraint(i).getY().doubleValue();
+        }
 
+        xCoefficients = new double[n + 1];
+        yCoefficients = new double[n + 1];
+        double binomial = 1;
+        for(int k = 0; k <= n; k++)
+        {
+            xCoefficients[k] = binomial * x[0];
+            yCoefficients[k] = binomial * y[0];
+            // the next forward difference, taken in place
+            for(int i = 0; i < n - k; i++)
+            {
+                x[i] = x[i + 1] - x[i];
+                y[i] = y[i + 1] - y[i];
+            }
+            binomial = binomial * (n - k) / (k + 1);
+        }
+
+        xDerivative = new double[Math.max(1, n)];
+        yDerivative = new double[Math.max(1, n)];
+        for(int k = 1; k <= n; k++)
+        {
+            xDerivative[k - 1] = k * xCoefficients[k];
+            yDerivative[k - 1] = k * yCoefficients[k];
+        }
     }
 
     @Override
-    public Point2D.Double _getPoint(double t) {
-        return null;
-    }
+    public Point2D _getPoint(double t)
+    { return new Point2D<Double>(horner(xCoefficients, t), horner(yCoefficients, t)); }
 
     @Override
-    public double getDistance() {
-        return 0;
+    public void _getPoint(double t, double[] point, int offset)
+    {
+        point[offset] = horner(xCoefficients, t);
+        point[offset + 1] = horner(yCoefficients, t);
     }
 
     @Override
-    public Vector2D _getTangent(double t) {
-        return null;
+    public Vector2D _getTangent(double t)
+    { return new Vector2D(horner(xDerivative, t), horner(yDerivative, t)); }
+
+    @Override
+    public void _getTangent(double t, double[] tangent, int offset)
+    {
+        tangent[offset] = horner(xDerivative, t);
+        tangent[offset + 1] = horner(yDerivative, t);
+    }
+
+    private static double horner(double[] coefficients, double t)
+    {
+        double value = coefficients[coefficients.length - 1];
+        for(int k = coefficients.length - 2; k >= 0; k--)
+            value = value * t + coefficients[k];
+        return value;
     }
-}
\ No newline at end of file
+}
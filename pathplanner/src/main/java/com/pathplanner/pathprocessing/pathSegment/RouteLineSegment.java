@@ -19,7 +19,7 @@ public class RouteLineSegment extends RouteSegment
         super.addConstraint(1,endPoint);
     }
 
-    public RouteLineSegment(List<Point2D> constraintPoint)
+    public RouteLineSegment(List<Point2D<Double>> constraintPoint)
     { super(constraintPoint); }
 
     public RouteLineSegment()
@@ -36,9 +36,23 @@ public class RouteLineSegment extends RouteSegment
     public Point2D _getPoint(double t)
     { return new Point2D(super.getConstraint(0).getX().doubleValue() - x1 * t, super.getConstraint(0).getY().doubleValue() - y1 * t); }
 
+    @Override
+    public void _getPoint(double t, double[] point, int offset)
+    {
+        point[offset] = super.getConstraint(0).getX().doubleValue() - x1 * t;
+        point[offset + 1] = super.getConstraint(0).getY().doubleValue() - y1 * t;
+    }
+
     @Override
     public Vector2D _getTangent(double t) {
-        return new Vector2D(y1, x1);
+        return new Vector2D(-x1, -y1);
+    }
+
+    @Override
+    public void _getTangent(double t, double[] tangent, int offset)
+    {
+        tangent[offset] = -x1;
+        tangent[offset + 1] = -y1;
     }
 
     @Override
@@ -3,12 +3,16 @@ import com.pathplanner.geometry.Point2D;
 import com.pathplanner.geometry.Vector2D;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * RouteSegment represents a single segment within the entire route. This class is abstract as there will be different type of segments that extends this class such as
  * LineRouteSegment and SplineRouteSegment, etc. Each segment is defined by predetermined number of constraint points. By default, a minimum and maximum of 2 constraint points
  * is allowed but this can be changed in subclasses by overriding the getMinConstraints() and getMaxConstraints() methods. Each segment point are generated between t = [0,1]
+ * The first distance query after the segment is recalculated builds a table of the arc length at increasing values of t, by integrating the length of the tangent with
+ * adaptive Gauss-Legendre quadrature. The table is then used to convert between distance and t with a binary search and a few Newton steps. The tangent returned by
+ * _getTangent must therefore be the derivative of the point with respect to t.
  */
 public abstract class RouteSegment
 {
@@ -24,6 +28,19 @@ public abstract class RouteSegment
      */
     private boolean modified = true;
 
+    // the nodes and weights of 5 point Gauss-Legendre quadrature on [-1, 1]
+    private static final double[] GAUSS_NODES = {-0.9061798459386640, -0.5384693101056831, 0, 0.5384693101056831, 0.9061798459386640};
+    private static final double[] GAUSS_WEIGHTS = {0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891};
+    private static final int MIN_ARC_INTERVALS = 4, MAX_ARC_DEPTH = 16;
+    private static final double ARC_TOLERANCE = 1e-10;
+
+    /**
+     * The arc length table. arcLength[i] is the distance along the segment from t = 0 to t = arcParameter[i]. The table is empty until it is first needed
+     */
+    private double[] arcParameter = new double[MIN_ARC_INTERVALS + 1], arcLength = new double[MIN_ARC_INTERVALS + 1];
+    private int arcSize;
+    private final double[] tangent = new double[2];
+
     /**
      * Constructor for the RouteSegment. This method uses a List with predefined constraint points. This size of the list must be less than or equal to getMaxConstraints()) or
      * it will throw an IllegalArgumentException
@@ -40,7 +57,7 @@ public abstract class RouteSegment
      * Constructor for the RouteSegment. This method initialzies the constraints with an empty List
      */
     public RouteSegment()
-    { constraints = new ArrayList<> (getMaxConstraints()); }
+    { constraints = new ArrayList<> (Math.min(getMaxConstraints(), 4)); }
 
     /**
      * Returns the minimum number of points required to fully define this route segment. This value is defaulted at 2 and should not be less than 2
@@ -139,10 +156,57 @@ public abstract class RouteSegment
             throw new IllegalStateException("Constraint Size: " + constraints.size() + " < " + getMinConstraints());
         else if(modified) {
             this.recalculateSegment();
+            arcSize = 0;
             modified = false;
         }
     }
 
+    /**
+     * Gets the arc length of the segment from its arc length table
+     * @return the length of the segment
+     */
+    public double getArcLength()
+    {
+        prepareArcLength();
+        return arcLength[arcSize - 1];
+    }
+
+    /**
+     * Gets the t at which the given distance along the segment has been travelled. Distances outside of the segment are clamped to its ends
+     * @param distance the distance from the start of the segment
+     * @return the t between 0 and 1 at that distance
+     */
+    public double parameterAtDistance(double distance)
+    {
+        prepareArcLength();
+        if(!(distance > 0))
+            return 0;
+        else if(distance >= arcLength[arcSize - 1])
+            return 1;
+
+        int i = Arrays.binarySearch(arcLength, 0, arcSize, distance);
+        if(i >= 0)
+            return arcParameter[i];
+        i = -i - 2;
+
+        // Newton steps on the distance travelled, falling back to bisection when a step leaves the bracket
+        double a = arcParameter[i], low = a, high = arcParameter[i + 1];
+        double t = a + (high - a) * (distance - arcLength[i]) / (arcLength[i + 1] - arcLength[i]);
+        for(int step = 0; step < 20; step++)
+        {
+            double error = arcLength[i] + integrateSpeed(a, t) - distance;
+            if(Math.abs(error) <= ARC_TOLERANCE * Math.max(1, distance))
+                break;
+            if(error > 0)
+                high = t;
+            else
+                low = t;
+            double next = t - error / speed(t);
+            t = (next > low && next < high) ? next : (low + high) / 2;
+        }
+        return t;
+    }
+
     /**
      * Gets the point on the segment at the give t. t must be a value between 0 and 1
      * @param t the point you want to get at the give t
@@ -150,22 +214,36 @@ public abstract class RouteSegment
      */
     public Point2D getPoint(double t)
     {
-        if(t < 0 && t > 1)
+        if(t < 0 || t > 1)
             throw new IllegalArgumentException("t must be between 0 and 1");
         prepareGeneration();
         return this._getPoint(t);
     }
 
+    /**
+     * Writes the x and y of the point on the segment at the give t into point[offset] and point[offset + 1]. t must be
+     * a value between 0 and 1
+     * @param t the time parameter
+     * @param point the array the point is written into
+     * @param offset the index of the x coordinate
+     */
+    public void getPoint(double t, double[] point, int offset)
+    {
+        if(t < 0 || t > 1)
+            throw new IllegalArgumentException("t must be between 0 and 1");
+        prepareGeneration();
+        this._getPoint(t, point, offset);
+    }
+
     public List<Point2D> getPoints(int count)
     {
         if(count <= 0)
             throw new IllegalArgumentException(count + "<= 0");
         prepareGeneration();
-        double res = 1 / count;
-        ArrayList<Point2D> list = new ArrayList<>(((int) res) + 1);
+        ArrayList<Point2D> list = new ArrayList<>(count);
 
-        for(double t = 0; t < 1; t += res)
-            list.add(_getPoint(t));
+        for(int i = 0; i < count; i++)
+            list.add(_getPoint((double) i / count));
         return list;
     }
 
@@ -176,25 +254,95 @@ public abstract class RouteSegment
      */
     public Vector2D getTangent(double t)
     {
-        if(t < 0 && t > 1)
+        if(t < 0 || t > 1)
             throw new IllegalArgumentException("t must be between 0 and 1");
         prepareGeneration();
         return this._getTangent(t);
     }
 
+    /**
+     * Writes the x and y of the tangent on the segment at the give t into tangent[offset] and tangent[offset + 1]. t
+     * must be a value between 0 and 1
+     * @param t the time parameter
+     * @param tangent the array the tangent is written into
+     * @param offset the index of the x component
+     */
+    public void getTangent(double t, double[] tangent, int offset)
+    {
+        if(t < 0 || t > 1)
+            throw new IllegalArgumentException("t must be between 0 and 1");
+        prepareGeneration();
+        this._getTangent(t, tangent, offset);
+    }
+
     public List<Vector2D> getTangents(int count)
     {
         if(count <= 0)
             throw new IllegalArgumentException(count + "<= 0");
         prepareGeneration();
-        double res = 1 / count;
-        ArrayList<Vector2D> list = new ArrayList<>(((int) res) + 1);
+        ArrayList<Vector2D> list = new ArrayList<>(count);
 
-        for(double t = 0; t < 1; t += res)
-            list.add(_getTangent(t));
+        for(int i = 0; i < count; i++)
+            list.add(_getTangent((double) i / count));
         return list;
     }
 
+    private void prepareArcLength()
+    {
+        prepareGeneration();
+        if(arcSize > 0)
+            return;
+
+        addArcEntry(0, 0);
+        double distance = 0;
+        for(int i = 0; i < MIN_ARC_INTERVALS; i++)
+        {
+            double a = (double) i / MIN_ARC_INTERVALS, b = (double) (i + 1) / MIN_ARC_INTERVALS;
+            distance = integrateAdaptive(a, b, integrateSpeed(a, b), distance, 0);
+        }
+    }
+
+    /**
+     * Integrates the speed over [a, b], halving the interval until both halves agree with the whole. Every accepted interval adds its end to the table
+     * @return the distance travelled at b
+     */
+    private double integrateAdaptive(double a, double b, double whole, double distance, int depth)
+    {
+        double m = (a + b) / 2, left = integrateSpeed(a, m), right = integrateSpeed(m, b);
+        if(depth >= MAX_ARC_DEPTH || Math.abs(left + right - whole) <= ARC_TOLERANCE * Math.max(1, left + right))
+        {
+            addArcEntry(b, distance + left + right);
+            return distance + left + right;
+        }
+        distance = integrateAdaptive(a, m, left, distance, depth + 1);
+        return integrateAdaptive(m, b, right, distance, depth + 1);
+    }
+
+    private double integrateSpeed(double a, double b)
+    {
+        double half = (b - a) / 2, mid = (a + b) / 2, sum = 0;
+        for(int i = 0; i < GAUSS_NODES.length; i++)
+            sum += GAUSS_WEIGHTS[i] * speed(mid + half * GAUSS_NODES[i]);
+        return sum * half;
+    }
+
+    private double speed(double t)
+    {
+        _getTangent(t, tangent, 0);
+        return Math.hypot(tangent[0], tangent[1]);
+    }
+
+    private void addArcEntry(double t, double distance)
+    {
+        if(arcSize == arcParameter.length)
+        {
+            arcParameter = Arrays.copyOf(arcParameter, arcSize * 2);
+            arcLength = Arrays.copyOf(arcLength, arcSize * 2);
+        }
+        arcParameter[arcSize] = t;
+        arcLength[arcSize++] = distance;
+    }
+
     /**
      * Returns the total displacement from the start to the end of the segment. By default this is euclidean distance but can be overridden
      * @return the displacement from the start point to the end point
@@ -222,10 +370,39 @@ public abstract class RouteSegment
     public abstract Vector2D _getTangent(double t);
 
     /**
-     * abstract method that gets the total distance (arclength) of the current path segment
+     * Writes the point at the give t into the array. Segments that are sampled often should override this so that
+     * no point is created
+     * @param t the time parameter
+     * @param point the array the point is written into
+     * @param offset the index of the x coordinate
+     */
+    public void _getPoint(double t, double[] point, int offset)
+    {
+        Point2D p = _getPoint(t);
+        point[offset] = p.getX().doubleValue();
+        point[offset + 1] = p.getY().doubleValue();
+    }
+
+    /**
+     * Writes the tangent at the give t into the array. Segments that are sampled often should override this so that
+     * no vector is created
+     * @param t the time parameter
+     * @param tangent the array the tangent is written into
+     * @param offset the index of the x component
+     */
+    public void _getTangent(double t, double[] tangent, int offset)
+    {
+        Vector2D v = _getTangent(t);
+        tangent[offset] = v.getX();
+        tangent[offset + 1] = v.getY();
+    }
+
+    /**
+     * Gets the total distance (arclength) of the current path segment. By default this is read from the arc length table but segments with a closed form may override it
      * @return the arc length of the segment
      */
-    public abstract double getDistance();
+    public double getDistance()
+    { return getArcLength(); }
 
     public String toString()
     { return constraints.toString(); }
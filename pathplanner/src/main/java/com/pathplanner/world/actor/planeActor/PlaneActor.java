@@ -1,11 +1,16 @@
 package com.pathplanner.world.actor.planeActor;
 
+import com.pathplanner.geometry.DoubleLine2D;
 import com.pathplanner.geometry.Point2D;
 import com.pathplanner.world.actor.Actor;
 import com.pathplanner.world.actor.properties.Properties;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A PlaneActor is a type of Actor that can only be placed inside a Plane world. A PlaneActor is not specified
@@ -14,6 +19,10 @@ import java.util.Set;
  * Also each PlaneActor can generate a set of bounding points. Bounding points are offset from vertex points facing outwards.
  * By default bounding point are a magnitude of 1 away from vertex points.
  * Lastly all PlaneActors store there point in double precision.
+ * The geometry derived from the vertex points (the centroid, the edges, the bounding box and the bounding points for
+ * every magnitude) is computed the first time it is asked for and then cached, since Planes and pathfinders ask for it
+ * on every query. setPosition and the mutators of subclasses call invalidateGeometry to drop the cache. Code that moves
+ * vertex points directly must call invalidateGeometry itself.
  * @see com.pathplanner.world.environment.Plane
  * @see Actor
  * @author Jeffrey
@@ -29,6 +38,12 @@ public abstract class PlaneActor extends Actor<Double>
      */
     public double boundingMagnitude = 1;
 
+    // the cached geometry, which is null or empty until it is first asked for after a change
+    private volatile Point2D<Double> centroid;
+    private volatile List<DoubleLine2D> edges;
+    private volatile double[] bounds;
+    private final Map<Double, Set<Point2D<Double>>> boundingPoints = new ConcurrentHashMap<>();
+
     /**
      * Constructor for creating an instance of a PlaneActor.
      * Initializes isSolid and isStatic to be true by default
@@ -54,30 +69,39 @@ public abstract class PlaneActor extends Actor<Double>
     @Override
     public Point2D<Double> getPosition()
     {
-        if(getVertexPoints().size() == 1)
-            return getVertexPoints().get(0);
-        else if(getVertexPoints().size() == 2)
-            return new Point2D<Double>(getVertexPoints().get(0).getX().doubleValue()
-                    + getVertexPoints().get(1).getX().doubleValue() / 2,
-                    (getVertexPoints().get(0).getY().doubleValue()
-                            + getVertexPoints().get(1).getY().doubleValue()) / 2);
+        Point2D<Double> position = centroid;
+        if(position == null)
+            centroid = position = computeCentroid();
+        return new Point2D<Double>(position);
+    }
+
+    private Point2D<Double> computeCentroid()
+    {
+        List<Point2D<Double>> vertexPoints = getVertexPoints();
+        if(vertexPoints.size() == 1)
+            return vertexPoints.get(0);
+        else if(vertexPoints.size() == 2)
+            return new Point2D<Double>((vertexPoints.get(0).getX().doubleValue()
+                    + vertexPoints.get(1).getX().doubleValue()) / 2,
+                    (vertexPoints.get(0).getY().doubleValue()
+                            + vertexPoints.get(1).getY().doubleValue()) / 2);
 
         double xSum = 0, ySum = 0;
         double area = 0;
-        for(int i = 0; i < getVertexPoints().size(); i++)
+        for(int i = 0; i < vertexPoints.size(); i++)
         {
-            int j = (i == getVertexPoints().size() - 1) ? 0 : i + 1;
-            xSum += (getVertexPoints().get(i).getX().doubleValue() + getVertexPoints().get(j).getX().doubleValue()) *
-                        (getVertexPoints().get(i).getX().doubleValue() * getVertexPoints().get(j).getY().doubleValue() -
-                            getVertexPoints().get(j).getX().doubleValue() * getVertexPoints().get(i).getY().doubleValue());
-            ySum += (getVertexPoints().get(i).getY().doubleValue() + getVertexPoints().get(j).getY().doubleValue()) *
-                        (getVertexPoints().get(i).getX().doubleValue() * getVertexPoints().get(j).getY().doubleValue() -
-                            getVertexPoints().get(j).getX().doubleValue() * getVertexPoints().get(i).getY().doubleValue());
-            area += (getVertexPoints().get(i).getX().doubleValue() * getVertexPoints().get(j).getY().doubleValue() -
-                    getVertexPoints().get(j).getX().doubleValue() * getVertexPoints().get(i).getY().doubleValue());
+            int j = (i == vertexPoints.size() - 1) ? 0 : i + 1;
+            xSum += (vertexPoints.get(i).getX().doubleValue() + vertexPoints.get(j).getX().doubleValue()) *
+                        (vertexPoints.get(i).getX().doubleValue() * vertexPoints.get(j).getY().doubleValue() -
+                            vertexPoints.get(j).getX().doubleValue() * vertexPoints.get(i).getY().doubleValue());
+            ySum += (vertexPoints.get(i).getY().doubleValue() + vertexPoints.get(j).getY().doubleValue()) *
+                        (vertexPoints.get(i).getX().doubleValue() * vertexPoints.get(j).getY().doubleValue() -
+                            vertexPoints.get(j).getX().doubleValue() * vertexPoints.get(i).getY().doubleValue());
+            area += (vertexPoints.get(i).getX().doubleValue() * vertexPoints.get(j).getY().doubleValue() -
+                    vertexPoints.get(j).getX().doubleValue() * vertexPoints.get(i).getY().doubleValue());
         }
         area /= 2.0;
-        return new Point2D((int) (xSum / (6 * area)), (int) (ySum / (6 * area)));
+        return new Point2D<Double>(xSum / (6 * area), ySum / (6 * area));
     }
 
     /**
@@ -96,11 +120,12 @@ public abstract class PlaneActor extends Actor<Double>
             throw new IllegalArgumentException("Non null parameter expected");
 
         Point2D currentPos = getPosition();
-        Point2D shift = new Point2D<Double>(currentPos.getX().doubleValue() - position.getX().doubleValue(),
-                currentPos.getY().doubleValue() - position.getY().doubleValue());
+        Point2D shift = new Point2D<Double>(position.getX().doubleValue() - currentPos.getX().doubleValue(),
+                position.getY().doubleValue() - currentPos.getY().doubleValue());
         for(Point2D point: getVertexPoints())
             point.setLocation(shift.getX().doubleValue() + point.getX().doubleValue(),
                     shift.getY().doubleValue() + point.getY().doubleValue());
+        invalidateGeometry();
         super.setPosition(getPosition());
     }
 
@@ -115,18 +140,102 @@ public abstract class PlaneActor extends Actor<Double>
      * shape by a certain magnitude. For example the Boudning points of line segment are collinear with the lines but the are
      * a certain distance away from the end point. The position where Boudning points are placed will be used to generate
      * the shortest path and for finding points where shapes block direct line of sight.
+     * The points are computed once per magnitude and cached until the actor changes
+     * @param mag the magnitude of propagation
+     * @return a read-only set containing the propagated points
+     */
+    public Set<Point2D<Double>> getBoundingPoints(double mag)
+    {
+        Set<Point2D<Double>> points = boundingPoints.get(mag);
+        if(points == null)
+        {
+            points = Collections.unmodifiableSet(computeBoundingPoints(mag));
+            boundingPoints.put(mag, points);
+        }
+        return points;
+    }
+
+    /**
+     * Computes the bounding points for the given magnitude. Called by getBoundingPoints when they are not cached
      * @param mag the magnitude of propagation
-     * @return a set containing the propagated points
+     * @return a new set containing the propagated points
      */
-    public abstract Set<Point2D<Double>> getBoundingPoints(double mag);
+    protected abstract Set<Point2D<Double>> computeBoundingPoints(double mag);
 
     /**
      * Get the set of bounding points with the default prograction magneitude defined by the class
-     * @return
+     * @return a read-only set containing the propagated points
      */
     public Set<Point2D<Double>> getBoundingPoints()
     { return getBoundingPoints(boundingMagnitude); }
 
+    /**
+     * Gets the edges of the actor. Edges are the lines between consecutive vertex points, including the line from the
+     * last vertex point back to the first one. A line has a single edge and a point a single edge of length zero
+     * @return a read-only list of the edges
+     */
+    public List<DoubleLine2D> getEdges()
+    {
+        List<DoubleLine2D> lines = edges;
+        if(lines == null)
+        {
+            List<Point2D<Double>> vertexPoints = getVertexPoints();
+            int count = (vertexPoints.size() == 2) ? 1 : vertexPoints.size();
+            lines = new ArrayList<>(count);
+            for(int i = 0; i < count; i++)
+            {
+                Point2D<Double> a = vertexPoints.get(i), b = vertexPoints.get((i == vertexPoints.size() - 1) ? 0 : i + 1);
+                lines.add(new DoubleLine2D(a.getX(), a.getY(), b.getX(), b.getY()));
+            }
+            edges = lines = Collections.unmodifiableList(lines);
+        }
+        return lines;
+    }
+
+    public double getMinX()
+    { return getBounds()[0]; }
+
+    public double getMinY()
+    { return getBounds()[1]; }
+
+    public double getMaxX()
+    { return getBounds()[2]; }
+
+    public double getMaxY()
+    { return getBounds()[3]; }
+
+    /**
+     * Drops the cached centroid, edges, bounding box and bounding points. Must be called after the vertex points change
+     */
+    public void invalidateGeometry()
+    {
+        centroid = null;
+        edges = null;
+        bounds = null;
+        boundingPoints.clear();
+    }
+
+    /**
+     * Gets the axis aligned bounding box of the vertex points as {minX, minY, maxX, maxY}
+     */
+    private double[] getBounds()
+    {
+        double[] box = bounds;
+        if(box == null)
+        {
+            box = new double[] {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for(Point2D<Double> point : getVertexPoints())
+            {
+                box[0] = Math.min(box[0], point.getX());
+                box[1] = Math.min(box[1], point.getY());
+                box[2] = Math.max(box[2], point.getX());
+                box[3] = Math.max(box[3], point.getY());
+            }
+            bounds = box;
+        }
+        return box;
+    }
+
     /**
      * Returns a string containing all the bounding points of the PlaneBarrier
      * @return a String representation of the PlaneBarrier
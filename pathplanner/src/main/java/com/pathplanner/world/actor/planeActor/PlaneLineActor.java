@@ -3,7 +3,8 @@ package com.pathplanner.world.actor.planeActor;
 import com.pathplanner.geometry.Point2D;
 import com.pathplanner.geometry.Line2D;
 import com.pathplanner.world.actor.properties.Properties;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -20,6 +21,7 @@ import java.util.Set;
  */
 public class PlaneLineActor extends PlaneActor {
     private Line2D<Double> line;
+    private List<Point2D<Double>> vertexPoints;
 
     public PlaneLineActor(Double x1, Double y1, Double x2, Double y2, Properties properties)
     {
@@ -69,16 +71,15 @@ public class PlaneLineActor extends PlaneActor {
 
     /**
      * This method gets the vertex points of the PlaneLineActor. The vertex points are defined as the two end points
-     * of the Line.
-     * @return ArrayList<Point2D> containing the bounding points.
+     * of the Line. The list is created once and holds the end points themselves.
+     * @return a read-only List<Point2D> containing the vertex points.
      */
     @Override
     public List<Point2D<Double>> getVertexPoints()
     {
-        ArrayList<Point2D<Double>> boundingPoints = new ArrayList<>(2);
-        boundingPoints.add(line.getP1());
-        boundingPoints.add(line.getP2());
-        return boundingPoints;
+        if(vertexPoints == null)
+            vertexPoints = Collections.unmodifiableList(Arrays.asList(line.getP1(), line.getP2()));
+        return vertexPoints;
     }
     
     /**
@@ -90,7 +91,7 @@ public class PlaneLineActor extends PlaneActor {
      * @return a Set containing all the propagated points of the LineBarrier
      */
     @Override
-    public Set<Point2D<Double>> getBoundingPoints(double mag)
+    protected Set<Point2D<Double>> computeBoundingPoints(double mag)
     {
         Set<Point2D<Double>> propagatedPoints = new HashSet<>();
 
@@ -2,7 +2,7 @@ package com.pathplanner.world.actor.planeActor;
 
 import com.pathplanner.geometry.Point2D;
 import com.pathplanner.world.actor.properties.Properties;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -10,6 +10,7 @@ import java.util.Set;
 public class PlanePointActor extends PlaneActor
 {
     private Point2D<Double> point;
+    private List<Point2D<Double>> vertexPoints;
 
     public PlanePointActor(Point2D<Double> point)
     {
@@ -37,13 +38,13 @@ public class PlanePointActor extends PlaneActor
 
     @Override
     public List<Point2D<Double>> getVertexPoints() {
-        List<Point2D<Double>> list = new ArrayList<>(1);
-        list.add(point);
-        return list;
+        if(vertexPoints == null)
+            vertexPoints = Collections.singletonList(point);
+        return vertexPoints;
     }
 
     @Override
-    public Set<Point2D<Double>> getBoundingPoints(double mag)
+    protected Set<Point2D<Double>> computeBoundingPoints(double mag)
     {
         Set<Point2D<Double>> set = new HashSet<>(4);
 
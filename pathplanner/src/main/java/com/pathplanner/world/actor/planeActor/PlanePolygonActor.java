@@ -1,6 +1,7 @@
 package com.pathplanner.world.actor.planeActor;
 
 import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.properties.Properties;
 
 import java.util.*;
 
@@ -18,17 +19,29 @@ public class PlanePolygonActor extends PlaneActor
     public PlanePolygonActor(Point2D<Double> ... vertex)
     { vertexPoints = new ArrayList<>(Arrays.asList(vertex)); }
 
-    public void setVertex(int index, Point2D<Double> vertex)
-    { vertexPoints.set(index, vertex); }
+    public PlanePolygonActor(Properties properties, Point2D<Double> ... vertex)
+    {
+        super(properties);
+        vertexPoints = new ArrayList<>(Arrays.asList(vertex));
+    }
 
+    public void setVertex(int index, Point2D<Double> vertex)
+    {
+        vertexPoints.set(index, vertex);
+        invalidateGeometry();
+    }
 
+    /**
+     * Each bounding point is a magnitude away from its vertex, pointing away from the two neighbouring vertices.
+     * Vertices in a straight line with their neighbours have no bounding point
+     */
     @Override
-    public Set<Point2D<Double>> getBoundingPoints(double mag)
+    protected Set<Point2D<Double>> computeBoundingPoints(double mag)
     {
         Set<Point2D<Double>> set = new HashSet<>();
         for(int i = 0; i < vertexPoints.size(); i++)
         {
-            int j = (i == 0)? vertexPoints.size() - 2 : i - 1;
+            int j = (i == 0)? vertexPoints.size() - 1 : i - 1;
             int k = (i == vertexPoints.size() - 1)? 0 : i + 1;
 
             Point2D<Double> a = vertexPoints.get(i);
@@ -39,13 +52,19 @@ public class PlanePolygonActor extends PlaneActor
             double y = (b.getY() + c.getY() - a.getY() * 2) * -1;
 
             double vMag = Math.hypot(x, y);
+            if(vMag == 0)
+                continue;
 
-            Point2D<Double> p = new Point2D<>(x / vMag * mag, y / vMag * mag);
+            Point2D<Double> p = new Point2D<>(a.getX() + x / vMag * mag, a.getY() + y / vMag * mag);
             set.add(p);
         }
         return set;
     }
 
+    /**
+     * Gets the vertex points of the polygon. Moving a vertex point directly must be followed by invalidateGeometry
+     * @return the vertex points
+     */
     @Override
     public List<Point2D<Double>> getVertexPoints()
     { return vertexPoints; }
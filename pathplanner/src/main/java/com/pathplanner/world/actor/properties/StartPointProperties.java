@@ -8,4 +8,7 @@ public class StartPointProperties extends StopPointProperties
         if(super.getCount() != 0)
             throw new IllegalStateException("Stop points have already been created");
     }
+
+    public StartPointProperties(int index)
+    { super(index); }
 }
@@ -0,0 +1,269 @@
+package com.pathplanner.world.environment;
+
+import com.pathplanner.geometry.DoubleLine2D;
+import com.pathplanner.world.actor.planeActor.PlaneActor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An EdgeIndex is a uniform grid of buckets over the square [0, size) x [0, size) that stores the edges of the solid
+ * actors on a Plane. Each edge is stored in every bucket its bounding box overlaps, so a line of sight query only walks
+ * the buckets its segment passes through and tests the edges stored there, instead of testing every edge on the Plane.
+ * Edges that leave the indexed square are kept in an overflow list that every query tests, and queries that leave the
+ * square fall back to testing every edge.
+ * Edge coordinates are copied into primitive arrays when an actor is added, so queries do not allocate or unbox.
+ * Queries may run concurrently as long as no edges are added or removed at the same time; each thread keeps its own
+ * record of the edges it already tested.
+ */
+class EdgeIndex
+{
+    // edges are widened by this fraction of a bucket so edges lying on a bucket border are found from both sides
+    private static final double EPSILON = 1e-9;
+
+    private final double size, cellSize;
+    private final int cells;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private int[] overflow = new int[4];
+    private int overflowSize;
+
+    private double[] x1 = new double[16], y1 = new double[16], x2 = new double[16], y2 = new double[16];
+    private int[] freeEdges = new int[16];
+    private int edgeCount, freeCount;
+    private final Map<PlaneActor, int[]> actorEdges = new HashMap<>();
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    /**
+     * Creates an empty EdgeIndex over the square [0, size) x [0, size) split into cells x cells buckets
+     * @param size the side length of the indexed square
+     * @param cells the number of buckets along each side
+     */
+    EdgeIndex(double size, int cells)
+    {
+        this.size = size;
+        this.cells = cells;
+        this.cellSize = size / cells;
+        buckets = new int[cells * cells][];
+        bucketSizes = new int[cells * cells];
+    }
+
+    /**
+     * Adds every edge of the actor to the index
+     * @see PlaneActor#getEdges()
+     * @param actor the actor whose edges will be added
+     */
+    void add(PlaneActor actor)
+    {
+        if(actorEdges.containsKey(actor))
+            return;
+
+        List<DoubleLine2D> edges = actor.getEdges();
+        int[] ids = new int[edges.size()];
+        for(int i = 0; i < edges.size(); i++)
+        {
+            DoubleLine2D edge = edges.get(i);
+            ids[i] = addEdge(edge.getX1(), edge.getY1(), edge.getX2(), edge.getY2());
+        }
+        actorEdges.put(actor, ids);
+    }
+
+    /**
+     * Removes every edge of the actor from the index
+     * @param actor the actor whose edges will be removed
+     */
+    void remove(PlaneActor actor)
+    {
+        int[] ids = actorEdges.remove(actor);
+        if(ids == null)
+            return;
+
+        for(int id : ids)
+        {
+            if(isOverflow(id))
+                overflowSize = removeFrom(overflow, overflowSize, id);
+            else
+            {
+                int minX = cell(Math.min(x1[id], x2[id]) - cellSize * EPSILON), maxX = cell(Math.max(x1[id], x2[id]) + cellSize * EPSILON);
+                int minY = cell(Math.min(y1[id], y2[id]) - cellSize * EPSILON), maxY = cell(Math.max(y1[id], y2[id]) + cellSize * EPSILON);
+                for(int cy = minY; cy <= maxY; cy++)
+                    for(int cx = minX; cx <= maxX; cx++)
+                        bucketSizes[cy * cells + cx] = removeFrom(buckets[cy * cells + cx], bucketSizes[cy * cells + cx], id);
+            }
+            if(freeCount == freeEdges.length)
+                freeEdges = Arrays.copyOf(freeEdges, freeCount * 2);
+            freeEdges[freeCount++] = id;
+        }
+    }
+
+    /**
+     * Removes every edge from the index
+     */
+    void clear()
+    {
+        Arrays.fill(buckets, null);
+        Arrays.fill(bucketSizes, 0);
+        actorEdges.clear();
+        overflowSize = edgeCount = freeCount = 0;
+    }
+
+    /**
+     * Checks if the line (ax,ay) -> (bx,by) intersects any edge in the index
+     * @return true if an edge intersects the line
+     */
+    boolean intersects(double ax, double ay, double bx, double by)
+    {
+        Visited visited = this.visited.get();
+        visited.next(x1.length);
+
+        for(int i = 0; i < overflowSize; i++)
+            if(test(visited, overflow[i], ax, ay, bx, by))
+                return true;
+
+        if(!inside(ax, ay) || !inside(bx, by))
+        {
+            for(int cell = 0; cell < buckets.length; cell++)
+                if(testBucket(visited, cell, ax, ay, bx, by))
+                    return true;
+            return false;
+        }
+
+        // walk the buckets along the line (Amanatides and Woo)
+        int cx = cell(ax), cy = cell(ay), endX = cell(bx), endY = cell(by);
+        int stepX = Integer.signum(endX - cx), stepY = Integer.signum(endY - cy);
+        double dx = bx - ax, dy = by - ay;
+        double deltaX = (dx == 0) ? Double.POSITIVE_INFINITY : cellSize / Math.abs(dx);
+        double deltaY = (dy == 0) ? Double.POSITIVE_INFINITY : cellSize / Math.abs(dy);
+        double maxX = (dx == 0) ? Double.POSITIVE_INFINITY : ((stepX > 0 ? (cx + 1) * cellSize - ax : ax - cx * cellSize) / Math.abs(dx));
+        double maxY = (dy == 0) ? Double.POSITIVE_INFINITY : ((stepY > 0 ? (cy + 1) * cellSize - ay : ay - cy * cellSize) / Math.abs(dy));
+
+        for(int steps = Math.abs(endX - cx) + Math.abs(endY - cy); ; steps--)
+        {
+            if(testBucket(visited, cy * cells + cx, ax, ay, bx, by))
+                return true;
+            if(steps <= 0 || (cx == endX && cy == endY))
+                return false;
+
+            if((maxX < maxY && cx != endX) || cy == endY)
+            {
+                cx += stepX;
+                maxX += deltaX;
+            }
+            else
+            {
+                cy += stepY;
+                maxY += deltaY;
+            }
+        }
+    }
+
+    private int addEdge(double ax, double ay, double bx, double by)
+    {
+        int id;
+        if(freeCount > 0)
+            id = freeEdges[--freeCount];
+        else
+        {
+            id = edgeCount++;
+            if(id == x1.length)
+            {
+                x1 = Arrays.copyOf(x1, id * 2);
+                y1 = Arrays.copyOf(y1, id * 2);
+                x2 = Arrays.copyOf(x2, id * 2);
+                y2 = Arrays.copyOf(y2, id * 2);
+            }
+        }
+        x1[id] = ax;
+        y1[id] = ay;
+        x2[id] = bx;
+        y2[id] = by;
+
+        if(isOverflow(id))
+        {
+            if(overflowSize == overflow.length)
+                overflow = Arrays.copyOf(overflow, overflowSize * 2);
+            overflow[overflowSize++] = id;
+            return id;
+        }
+
+        int minX = cell(Math.min(ax, bx) - cellSize * EPSILON), maxX = cell(Math.max(ax, bx) + cellSize * EPSILON);
+        int minY = cell(Math.min(ay, by) - cellSize * EPSILON), maxY = cell(Math.max(ay, by) + cellSize * EPSILON);
+        for(int cy = minY; cy <= maxY; cy++)
+            for(int cx = minX; cx <= maxX; cx++)
+            {
+                int bucket = cy * cells + cx;
+                if(buckets[bucket] == null)
+                    buckets[bucket] = new int[4];
+                else if(bucketSizes[bucket] == buckets[bucket].length)
+                    buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSizes[bucket] * 2);
+                buckets[bucket][bucketSizes[bucket]++] = id;
+            }
+        return id;
+    }
+
+    private boolean testBucket(Visited visited, int bucket, double ax, double ay, double bx, double by)
+    {
+        int[] edges = buckets[bucket];
+        for(int i = bucketSizes[bucket] - 1; i >= 0; i--)
+            if(test(visited, edges[i], ax, ay, bx, by))
+                return true;
+        return false;
+    }
+
+    private boolean test(Visited visited, int id, double ax, double ay, double bx, double by)
+    {
+        if(visited.stamps[id] == visited.stamp)
+            return false;
+        visited.stamps[id] = visited.stamp;
+        return DoubleLine2D.linesIntersect(x1[id], y1[id], x2[id], y2[id], ax, ay, bx, by);
+    }
+
+    private boolean isOverflow(int id)
+    { return !inside(x1[id], y1[id]) || !inside(x2[id], y2[id]); }
+
+    private boolean inside(double x, double y)
+    { return x >= 0 && x < size && y >= 0 && y < size; }
+
+    private int cell(double coordinate)
+    { return Math.max(0, Math.min(cells - 1, (int) (coordinate / cellSize))); }
+
+    private static int removeFrom(int[] list, int listSize, int id)
+    {
+        for(int i = 0; i < listSize; i++)
+            if(list[i] == id)
+            {
+                list[i] = list[--listSize];
+                return listSize;
+            }
+        return listSize;
+    }
+
+    /**
+     * The edges a thread has already tested during its current query. An edge was tested if its stamp equals the stamp
+     * of the query
+     */
+    private static class Visited
+    {
+        int[] stamps = new int[0];
+        int stamp;
+
+        /**
+         * Starts a new query over the given number of edge ids
+         */
+        void next(int edges)
+        {
+            if(stamps.length < edges)
+            {
+                stamps = new int[edges];
+                stamp = 0;
+            }
+            if(++stamp == Integer.MAX_VALUE)
+            {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+    }
+}
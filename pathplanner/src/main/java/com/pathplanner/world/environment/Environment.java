@@ -4,12 +4,17 @@ import com.pathplanner.geometry.Point2D;
 import com.pathplanner.world.actor.Actor;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Environment is a fully enclosed abstract class that acts as a framework for storing actors. Environments are used
  * with pathfinders to generate the optimal path from a starting point to an ending point while avoiding all obstacles
- * and barriers on the Environment. This class must be overridden to be instantiated and used in a pathfinder
+ * and barriers on the Environment. This class must be overridden to be instantiated and used in a pathfinder.
+ * Every change to the actors of an Environment gives it a new version and is reported to its EnvironmentListeners, so
+ * anything derived from the Environment can tell when it is stale and which region changed.
  * @author Jeffrey
  * @since 10/17/2020
  * @version 1
@@ -17,7 +22,13 @@ import java.util.Set;
  */
 public abstract class Environment<E extends Actor>
 {
+    // versions are drawn from one counter so that two different states never share a version
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
     private int rows, cols;
+    private boolean frozen;
+    private long version = VERSIONS.incrementAndGet();
+    private final List<EnvironmentListener<E>> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Initializes Environment with the given number of rows and columns. Rows and columns must be postive integer number not including 0
@@ -60,6 +71,111 @@ public abstract class Environment<E extends Actor>
      */
     public abstract void addActor(E actor);
 
+    /**
+     * Creates a frozen copy of the Environment. The snapshot holds the same actors as the Environment at the time it was
+     * taken and every precomputed index it needs, and none of them change afterwards, so any number of threads may
+     * read it at once. Adding or removing actors on the snapshot throws an IllegalStateException. The actor objects
+     * themselves are shared with this Environment and must not be moved
+     * @return a read-only copy of the Environment
+     */
+    public abstract Environment<E> snapshot();
+
+    /**
+     * Checks whether the Environment is a read-only snapshot
+     * @return true if actors can no longer be added or removed
+     * @see #snapshot()
+     */
+    public final boolean isFrozen()
+    { return frozen; }
+
+    /**
+     * Makes the Environment read-only. Called by subclasses once a snapshot is fully built
+     */
+    protected final void freeze()
+    { frozen = true; }
+
+    /**
+     * Checks that the Environment can still be modified
+     * @throws IllegalStateException if the Environment is a read-only snapshot
+     */
+    protected final void checkNotFrozen()
+    {
+        if(frozen)
+            throw new IllegalStateException("Environment snapshot is read-only");
+    }
+
+    /**
+     * Moves an actor of the Environment to a new position. Static actors can not be moved
+     * @param actor the actor that will be moved
+     * @param position the new position of the actor
+     * @return true if the actor was moved, false if it is not in the Environment, is static or the new position is
+     * taken
+     * @throws IllegalArgumentException if the new position is not a valid position on the Environment
+     * @throws IllegalStateException if the Environment is a snapshot
+     */
+    public abstract boolean moveActor(E actor, Point2D position);
+
+    /**
+     * Gets the version of the Environment. The version changes every time an actor is added, removed or moved and only
+     * ever increases. Versions are unique across all Environments, except that a snapshot or copy starts with the
+     * version of the Environment it was copied from, because both hold the same actors at that point
+     * @return the current version
+     */
+    public final long getVersion()
+    { return version; }
+
+    /**
+     * Registers a listener that is called after every change to the actors of the Environment
+     * @param listener the listener that will be called
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public void addEnvironmentListener(EnvironmentListener<E> listener)
+    {
+        if(listener == null)
+            throw new IllegalArgumentException("Non-null argument expected");
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addEnvironmentListener. Does nothing if the listener is not registered
+     * @param listener the listener that will be removed
+     */
+    public void removeEnvironmentListener(EnvironmentListener<E> listener)
+    { listeners.remove(listener); }
+
+    /**
+     * Gives the Environment a new version and reports the change to every listener. Subclasses call this after each
+     * change to their actors
+     * @param type the kind of change
+     * @param actor the actor that changed or null when every actor was cleared
+     * @param oldBounds the region the actor covered before the change or null if it was just added
+     * @param bounds the region the actor covers after the change or null if it was removed
+     */
+    protected final void fireChange(EnvironmentEvent.Type type, E actor, EnvironmentEvent.Bounds oldBounds, EnvironmentEvent.Bounds bounds)
+    {
+        version = VERSIONS.incrementAndGet();
+        if(listeners.isEmpty())
+            return;
+        EnvironmentEvent<E> event = new EnvironmentEvent<>(this, type, actor, oldBounds, bounds, version);
+        for(EnvironmentListener<E> listener : listeners)
+            listener.environmentChanged(event);
+    }
+
+    /**
+     * Gives this Environment the version of the Environment it was copied from. Only used while building a copy or
+     * snapshot that holds exactly the same actors
+     * @param source the Environment that was copied
+     */
+    protected final void copyVersion(Environment<E> source)
+    { version = source.version; }
+
+    /**
+     * Gets bounds covering the whole Environment
+     * @return a square box from (0,0) that contains every position of the Environment
+     */
+    protected EnvironmentEvent.Bounds getEnvironmentBounds()
+    { return new EnvironmentEvent.Bounds(0, 0, Math.max(rows, cols), Math.max(rows, cols)); }
+
     public void addAllActor(Collection<E> actors)
     {
         for(E actor : actors)
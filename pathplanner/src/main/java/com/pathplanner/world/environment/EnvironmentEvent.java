@@ -0,0 +1,141 @@
+package com.pathplanner.world.environment;
+
+import com.pathplanner.world.actor.Actor;
+
+/**
+ * An EnvironmentEvent describes a single change to an Environment. It carries the actor that changed and the region of
+ * the Environment the change touched, so a listener can invalidate or update only the part of its caches that overlaps
+ * that region. On a Grid the bounds of an actor are the coordinates of its cell, so min and max are equal. On a Plane
+ * they are the bounding box of the actor's vertex points.
+ * @see EnvironmentListener
+ * @param <E> the type of actor the Environment holds
+ */
+public class EnvironmentEvent<E extends Actor>
+{
+    /**
+     * The kind of change an event describes
+     */
+    public enum Type
+    {
+        /** an actor was added. Only the new bounds are set */
+        ADDED,
+        /** an actor was removed. Only the old bounds are set */
+        REMOVED,
+        /** an actor changed its position. Both the old and the new bounds are set */
+        MOVED,
+        /** every actor was removed at once. The actor is null and the old bounds cover the whole Environment */
+        CLEARED
+    }
+
+    private final Environment<E> environment;
+    private final Type type;
+    private final E actor;
+    private final Bounds oldBounds, bounds;
+    private final long version;
+
+    EnvironmentEvent(Environment<E> environment, Type type, E actor, Bounds oldBounds, Bounds bounds, long version)
+    {
+        this.environment = environment;
+        this.type = type;
+        this.actor = actor;
+        this.oldBounds = oldBounds;
+        this.bounds = bounds;
+        this.version = version;
+    }
+
+    /**
+     * Gets the Environment that changed
+     * @return the source of the event
+     */
+    public Environment<E> getEnvironment()
+    { return environment; }
+
+    public Type getType()
+    { return type; }
+
+    /**
+     * Gets the actor that was added, removed or moved
+     * @return the actor or null for a CLEARED event
+     */
+    public E getActor()
+    { return actor; }
+
+    /**
+     * Gets the region the actor covered before the change
+     * @return the old bounds or null for an ADDED event
+     */
+    public Bounds getOldBounds()
+    { return oldBounds; }
+
+    /**
+     * Gets the region the actor covers after the change
+     * @return the new bounds or null for a REMOVED or CLEARED event
+     */
+    public Bounds getBounds()
+    { return bounds; }
+
+    /**
+     * Gets the version of the Environment right after this change
+     * @return the version of the Environment
+     * @see Environment#getVersion()
+     */
+    public long getVersion()
+    { return version; }
+
+    /**
+     * Checks if the change may have blocked or freed positions of the Environment. This is the case when a solid actor
+     * was added, removed or moved, or when every actor was cleared. Solidity only changes inside the old and new bounds
+     * @return true if positions inside the bounds of the event may have become solid or stopped being solid
+     */
+    public boolean isSolidChanged()
+    { return type == Type.CLEARED || actor.getProperties().isSolid(); }
+
+    public String toString()
+    { return type + " " + actor + " v" + version; }
+
+    /**
+     * An axis aligned box in the coordinates of the Environment. Both the min and the max corner are inclusive
+     */
+    public static class Bounds
+    {
+        private final double minX, minY, maxX, maxY;
+
+        public Bounds(double minX, double minY, double maxX, double maxY)
+        {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        public double getMinX()
+        { return minX; }
+
+        public double getMinY()
+        { return minY; }
+
+        public double getMaxX()
+        { return maxX; }
+
+        public double getMaxY()
+        { return maxY; }
+
+        /**
+         * Checks if this box overlaps the given box. Boxes that only touch overlap
+         * @param other the other box
+         * @return true if the boxes share at least one point
+         */
+        public boolean intersects(Bounds other)
+        { return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY; }
+
+        /**
+         * Checks if the point lies inside or on the edge of this box
+         * @return true if the point is in the box
+         */
+        public boolean contains(double x, double y)
+        { return x >= minX && x <= maxX && y >= minY && y <= maxY; }
+
+        public String toString()
+        { return "[(" + minX + "," + minY + "), (" + maxX + "," + maxY + ")]"; }
+    }
+}
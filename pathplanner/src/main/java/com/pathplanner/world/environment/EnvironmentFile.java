@@ -0,0 +1,362 @@
+package com.pathplanner.world.environment;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.actor.planeActor.PlaneActor;
+import com.pathplanner.world.actor.planeActor.PlaneLineActor;
+import com.pathplanner.world.actor.planeActor.PlanePointActor;
+import com.pathplanner.world.actor.planeActor.PlanePolygonActor;
+import com.pathplanner.world.actor.properties.BarrierProperties;
+import com.pathplanner.world.actor.properties.Properties;
+import com.pathplanner.world.actor.properties.StartPointProperties;
+import com.pathplanner.world.actor.properties.StopPointProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EnvironmentFile reads and writes Grids and Planes in a compact binary format. Files are read through a memory mapped
+ * FileChannel and every section is copied with a single bulk get, so loading does not parse cells or vertices one by one.
+ * All values are little endian and every section starts on an 8 byte boundary.
+ * The file starts with a 32 byte header:
+ * <pre>
+ *   0  int    magic, the bytes "PPEF"
+ *   4  short  format version
+ *   6  short  environment type, 1 for a Grid and 2 for a Plane
+ *   8  int    rows
+ *  12  int    cols
+ *  16  int    actor count
+ *  20  int    vertex count, 0 for a Grid
+ *  24  long   reserved
+ * </pre>
+ * A Grid is followed by its solid cell bitset, packed like Grid.getSolidBits(), and then by (index, x, y, flags) for
+ * every stop point. The cells of solid actors are read back as fixed cells of the Grid and other non solid actors are
+ * not stored.
+ * A Plane is followed by the vertex offset of every actor and one past the last, the flags of every actor, the stop point
+ * index of every actor or -1, and then the x and y of every vertex. Actors are read back as point, line or polygon actors
+ * by their number of vertices.
+ * The flags are 1 for solid, 2 for static and 4 for a start point. Stop points are read back with StopPointProperties,
+ * or StartPointProperties if the start flag is set, and their index. Static actors that are not stop points are read back
+ * with BarrierProperties if they are solid and Properties otherwise. The class of any other Properties is not stored;
+ * such actors are read back with properties that only report the stored flags.
+ * @see Grid
+ * @see Plane
+ */
+public final class EnvironmentFile
+{
+    public static final int MAGIC = 0x46455050;
+    public static final int FORMAT_VERSION = 1;
+    public static final int GRID = 1, PLANE = 2;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int SOLID = 1, STATIC = 2, START = 4;
+
+    private EnvironmentFile() {}
+
+    /**
+     * Writes the Grid to the file, replacing it if it exists
+     * @param grid the Grid that will be written
+     * @param path the file the Grid will be written to
+     * @throws IOException if the file can not be written
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static void write(Grid grid, Path path) throws IOException
+    {
+        if(grid == null || path == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+
+        long[] solidBits = grid.getSolidBits();
+        List<int[]> stopPoints = new ArrayList<>();
+        for(GridActor actor : grid.getActors())
+        {
+            Properties properties = actor.getProperties();
+            if(properties instanceof StopPointProperties)
+                stopPoints.add(new int[] {((StopPointProperties) properties).index, actor.getPosition().getX().intValue(),
+                        actor.getPosition().getY().intValue(), flags(properties)});
+        }
+
+        int stopOffset = HEADER_BYTES + solidBits.length * 8;
+        ByteBuffer buffer = allocate((long) stopOffset + stopPoints.size() * 16L);
+        writeHeader(buffer, GRID, grid.getRows(), grid.getCols(), stopPoints.size(), 0);
+        section(buffer, HEADER_BYTES).asLongBuffer().put(solidBits);
+        IntBuffer stops = section(buffer, stopOffset).asIntBuffer();
+        for(int[] stopPoint : stopPoints)
+            stops.put(stopPoint);
+        write(buffer, path);
+    }
+
+    /**
+     * Writes the Plane to the file, replacing it if it exists
+     * @param plane the Plane that will be written
+     * @param path the file the Plane will be written to
+     * @throws IOException if the file can not be written
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static void write(Plane plane, Path path) throws IOException
+    {
+        if(plane == null || path == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+
+        List<PlaneActor> actors = new ArrayList<>(plane.getActors());
+        int count = actors.size(), vertexCount = 0;
+        for(PlaneActor actor : actors)
+            vertexCount += actor.getVertexPoints().size();
+
+        int flagOffset = HEADER_BYTES + (count + 1) * 4, stopOffset = flagOffset + count * 4;
+        int vertexOffset = align(stopOffset + count * 4);
+        ByteBuffer buffer = allocate((long) vertexOffset + vertexCount * 16L);
+        writeHeader(buffer, PLANE, plane.getRows(), plane.getCols(), count, vertexCount);
+
+        IntBuffer offsets = section(buffer, HEADER_BYTES).asIntBuffer();
+        IntBuffer flags = section(buffer, flagOffset).asIntBuffer();
+        IntBuffer stops = section(buffer, stopOffset).asIntBuffer();
+        DoubleBuffer vertices = section(buffer, vertexOffset).asDoubleBuffer();
+        int offset = 0;
+        for(PlaneActor actor : actors)
+        {
+            Properties properties = actor.getProperties();
+            offsets.put(offset);
+            flags.put(flags(properties));
+            stops.put((properties instanceof StopPointProperties) ? ((StopPointProperties) properties).index : -1);
+            for(Point2D<Double> point : actor.getVertexPoints())
+                vertices.put(point.getX().doubleValue()).put(point.getY().doubleValue());
+            offset += actor.getVertexPoints().size();
+        }
+        offsets.put(offset);
+        write(buffer, path);
+    }
+
+    /**
+     * Reads a Grid or a Plane from the file
+     * @param path the file that will be read
+     * @return the environment stored in the file
+     * @throws IOException if the file can not be read or is not an environment file
+     * @throws IllegalArgumentException if path is null
+     */
+    public static Environment<?> read(Path path) throws IOException
+    {
+        ByteBuffer buffer = map(path);
+        return (readType(buffer) == GRID) ? readGrid(buffer) : readPlane(buffer);
+    }
+
+    /**
+     * Reads a Grid from the file
+     * @param path the file that will be read
+     * @return the Grid stored in the file
+     * @throws IOException if the file can not be read or does not hold a Grid
+     * @throws IllegalArgumentException if path is null
+     */
+    public static Grid readGrid(Path path) throws IOException
+    {
+        ByteBuffer buffer = map(path);
+        if(readType(buffer) != GRID)
+            throw new IOException("Environment file does not hold a Grid");
+        return readGrid(buffer);
+    }
+
+    /**
+     * Reads a Plane from the file
+     * @param path the file that will be read
+     * @return the Plane stored in the file
+     * @throws IOException if the file can not be read or does not hold a Plane
+     * @throws IllegalArgumentException if path is null
+     */
+    public static Plane readPlane(Path path) throws IOException
+    {
+        ByteBuffer buffer = map(path);
+        if(readType(buffer) != PLANE)
+            throw new IOException("Environment file does not hold a Plane");
+        return readPlane(buffer);
+    }
+
+    private static Grid readGrid(ByteBuffer buffer) throws IOException
+    {
+        int rows = buffer.getInt(8), cols = buffer.getInt(12), count = buffer.getInt(16);
+        checkSize(buffer, HEADER_BYTES + (((long) rows * cols + 63) >>> 6) * 8 + count * 16L);
+        int words = (int) (((long) rows * cols + 63) >>> 6);
+        int stopOffset = HEADER_BYTES + words * 8;
+
+        long[] solidBits = new long[words];
+        section(buffer, HEADER_BYTES).asLongBuffer().get(solidBits);
+        Grid grid = new Grid(rows, cols, solidBits);
+
+        int[] stops = new int[count * 4];
+        section(buffer, stopOffset).asIntBuffer().get(stops);
+        for(int i = 0; i < stops.length; i += 4)
+            grid.addActor(new StopPoint(new Point2D<Integer>(stops[i + 1], stops[i + 2]), properties(stops[i + 3], stops[i])));
+        return grid;
+    }
+
+    private static Plane readPlane(ByteBuffer buffer) throws IOException
+    {
+        int rows = buffer.getInt(8), cols = buffer.getInt(12), count = buffer.getInt(16), vertexCount = buffer.getInt(20);
+        checkSize(buffer, HEADER_BYTES + count * 12L + vertexCount * 16L);
+        int flagOffset = HEADER_BYTES + (count + 1) * 4, stopOffset = flagOffset + count * 4;
+        int vertexOffset = align(stopOffset + count * 4);
+        checkSize(buffer, (long) vertexOffset + vertexCount * 16L);
+
+        int[] offsets = new int[count + 1], flags = new int[count], stops = new int[count];
+        double[] vertices = new double[vertexCount * 2];
+        section(buffer, HEADER_BYTES).asIntBuffer().get(offsets);
+        section(buffer, flagOffset).asIntBuffer().get(flags);
+        section(buffer, stopOffset).asIntBuffer().get(stops);
+        section(buffer, vertexOffset).asDoubleBuffer().get(vertices);
+
+        Plane plane = new Plane(rows, cols);
+        for(int i = 0; i < count; i++)
+        {
+            if(offsets[i] < 0 || offsets[i] >= offsets[i + 1] || offsets[i + 1] > vertexCount)
+                throw new IOException("Corrupt environment file");
+            Point2D<Double>[] points = points(vertices, offsets[i], offsets[i + 1]);
+            Properties properties = properties(flags[i], stops[i]);
+            if(points.length == 1)
+                plane.addActor(new PlanePointActor(points[0], properties));
+            else if(points.length == 2)
+                plane.addActor(new PlaneLineActor(points[0], points[1], properties));
+            else
+                plane.addActor(new PlanePolygonActor(properties, points));
+        }
+        return plane;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Point2D<Double>[] points(double[] vertices, int from, int to)
+    {
+        Point2D<Double>[] points = new Point2D[to - from];
+        for(int i = from; i < to; i++)
+            points[i - from] = new Point2D<Double>(vertices[i * 2], vertices[i * 2 + 1]);
+        return points;
+    }
+
+    private static int flags(Properties properties)
+    {
+        return (properties.isSolid() ? SOLID : 0) | (properties.isStatic() ? STATIC : 0)
+                | ((properties instanceof StartPointProperties) ? START : 0);
+    }
+
+    private static Properties properties(int flags, int stopIndex)
+    {
+        boolean solid = (flags & SOLID) != 0, isStatic = (flags & STATIC) != 0;
+        if(stopIndex >= 0)
+            return ((flags & START) != 0) ? new StartPointProperties(stopIndex) : new StopPointProperties(stopIndex);
+        else if(isStatic)
+            return solid ? new BarrierProperties() : new Properties();
+        return new StoredProperties(solid, isStatic);
+    }
+
+    private static void writeHeader(ByteBuffer buffer, int type, int rows, int cols, int count, int vertexCount)
+    {
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, (short) FORMAT_VERSION);
+        buffer.putShort(6, (short) type);
+        buffer.putInt(8, rows);
+        buffer.putInt(12, cols);
+        buffer.putInt(16, count);
+        buffer.putInt(20, vertexCount);
+        buffer.putLong(24, 0);
+    }
+
+    /**
+     * Checks the header of the file and gets the type of environment it holds
+     */
+    private static int readType(ByteBuffer buffer) throws IOException
+    {
+        if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not an environment file");
+        if(buffer.getShort(4) != FORMAT_VERSION)
+            throw new IOException("Unsupported environment file version " + buffer.getShort(4));
+        int type = buffer.getShort(6);
+        if(type != GRID && type != PLANE)
+            throw new IOException("Unknown environment type " + type);
+        if(buffer.getInt(8) <= 0 || buffer.getInt(12) <= 0 || buffer.getInt(16) < 0 || buffer.getInt(20) < 0)
+            throw new IOException("Corrupt environment file");
+        return type;
+    }
+
+    private static void checkSize(ByteBuffer buffer, long size) throws IOException
+    {
+        if(buffer.capacity() < size)
+            throw new IOException("Environment file is truncated");
+    }
+
+    private static ByteBuffer allocate(long size) throws IOException
+    {
+        if(size > Integer.MAX_VALUE)
+            throw new IOException("Environment too large for an environment file");
+        return ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void write(ByteBuffer buffer, Path path) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while(buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer map(Path path) throws IOException
+    {
+        if(path == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            if(channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Environment file too large to map");
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Gets a little endian view of the buffer starting at the offset
+     */
+    private static ByteBuffer section(ByteBuffer buffer, int offset)
+    {
+        ByteBuffer section = buffer.duplicate();
+        section.position(offset);
+        return section.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int align(int offset)
+    { return (offset + 7) & ~7; }
+
+    /**
+     * A stop point of a Grid read from a file
+     */
+    private static class StopPoint extends GridActor
+    {
+        StopPoint(Point2D<Integer> position, Properties properties)
+        { super(position, properties); }
+    }
+
+    /**
+     * The properties of an actor read from a file that are not covered by BarrierProperties or Properties
+     */
+    private static class StoredProperties extends Properties
+    {
+        private final boolean solid, isStatic;
+
+        StoredProperties(boolean solid, boolean isStatic)
+        {
+            this.solid = solid;
+            this.isStatic = isStatic;
+        }
+
+        @Override
+        public boolean isSolid()
+        { return solid; }
+
+        @Override
+        public boolean isStatic()
+        { return isStatic; }
+    }
+}
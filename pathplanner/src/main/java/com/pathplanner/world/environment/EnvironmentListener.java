@@ -0,0 +1,19 @@
+package com.pathplanner.world.environment;
+
+import com.pathplanner.world.actor.Actor;
+
+/**
+ * An EnvironmentListener is told about every actor that is added to, removed from or moved on an Environment. It is
+ * called after the Environment has been updated, on the thread that modified it, so it must not modify the Environment
+ * itself. Listeners may be added and removed from any thread, including from inside a listener.
+ * @see Environment#addEnvironmentListener(EnvironmentListener)
+ * @param <E> the type of actor the Environment holds
+ */
+public interface EnvironmentListener<E extends Actor>
+{
+    /**
+     * Called once for every change to the Environment
+     * @param event the description of the change
+     */
+    void environmentChanged(EnvironmentEvent<E> event);
+}
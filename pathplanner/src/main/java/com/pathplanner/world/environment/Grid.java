@@ -4,124 +4,372 @@ import com.pathplanner.geometry.Point2D;
 import com.pathplanner.world.actor.gridActor.GridActor;
 import java.util.*;
 
-
+/**
+ * A Grid is a special type of Environment that takes GridActors. Each cell of the Grid is identified by an integer id
+ * equal to y * cols + x. Alongside the list of actors, the Grid keeps a per-cell index of the actors placed on each cell
+ * and two packed bitsets (one bit per cell) recording which cells are occupied by any actor and which are occupied by
+ * a solid actor. These are maintained by every method that adds or removes actors so that occupancy and neighbor queries
+ * are O(1) instead of a scan over every actor. Pathfinders may read the bitsets directly with getOccupiedBits() and
+ * getSolidBits(), but must never write to them. Every change is reported to the EnvironmentListeners of the Grid with
+ * the cell of the actor as its bounds. Incremental pathfinders only need the events for which isSolidChanged is true.
+ * A Grid read from an EnvironmentFile may also have fixed cells, which are solid without an actor on them. Fixed cells
+ * behave like cells holding a static solid actor, except that getActor returns null for them and clearActors keeps them.
+ * @see EnvironmentFile
+ */
 public class Grid extends Environment<GridActor>
 {
-    private List<GridActor> actors;
+    private Set<GridActor> actors;
+    private List<GridActor>[] cellActors;
+    private long[] occupiedBits, solidBits;
+    private long[] fixedBits;
 
+    @SuppressWarnings("unchecked")
     public Grid(int rows, int cols)
     {
         super(rows, cols);
-        actors = new LinkedList<>();
+        actors = new LinkedHashSet<>();
+        cellActors = new List[rows * cols];
+        occupiedBits = new long[(rows * cols + 63) >>> 6];
+        solidBits = new long[(rows * cols + 63) >>> 6];
+    }
+
+    /**
+     * Creates a Grid whose set cells are fixed solid cells
+     * @param fixedBits a packed bitset with one bit per cell, owned by the Grid from now on
+     */
+    Grid(int rows, int cols, long[] fixedBits)
+    {
+        this(rows, cols);
+        if(fixedBits.length != solidBits.length)
+            throw new IllegalArgumentException("Bitset does not match the size of the Grid");
+        this.fixedBits = fixedBits;
+        System.arraycopy(fixedBits, 0, occupiedBits, 0, fixedBits.length);
+        System.arraycopy(fixedBits, 0, solidBits, 0, fixedBits.length);
+    }
+
+    /**
+     * Creates a frozen copy of the Grid. The actor index and both occupancy bitsets are copied, so the snapshot keeps
+     * the current occupancy and version no matter how this Grid changes afterwards
+     * @return a read-only copy of the Grid
+     */
+    @Override
+    public Grid snapshot()
+    {
+        Grid grid = new Grid(getRows(), getCols());
+        grid.actors.addAll(actors);
+        for(int i = 0; i < cellActors.length; i++)
+            if(cellActors[i] != null)
+                grid.cellActors[i] = Collections.unmodifiableList(new ArrayList<>(cellActors[i]));
+        System.arraycopy(occupiedBits, 0, grid.occupiedBits, 0, occupiedBits.length);
+        System.arraycopy(solidBits, 0, grid.solidBits, 0, solidBits.length);
+        grid.fixedBits = fixedBits;
+        grid.copyVersion(this);
+        grid.freeze();
+        return grid;
     }
 
+    /**
+     * Checks if the given cell coordinates lie within the Grid. x must be in [0, cols) and y must be in [0, rows)
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @return true if the cell is inside the Grid false otherwise
+     */
+    public boolean isInBounds(int x, int y)
+    { return x >= 0 && x < getCols() && y >= 0 && y < getRows(); }
+
+    /**
+     * Gets the id of the cell at the given coordinates. The id is y * cols + x and is also the index of the cell's bit
+     * in the occupancy bitsets. The coordinates are not checked
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @return the id of the cell
+     */
+    public int toIndex(int x, int y)
+    { return y * getCols() + x; }
+
+    /**
+     * Checks if any actor, solid or not, is placed on the given cell. Cells outside of the Grid are never occupied
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @return true if at least one actor is on the cell
+     */
+    public boolean isOccupied(int x, int y)
+    { return isInBounds(x, y) && testBit(occupiedBits, toIndex(x, y)); }
+
+    /**
+     * Checks if a solid actor is placed on the given cell. Cells outside of the Grid are never solid
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @return true if a solid actor is on the cell
+     */
+    public boolean isSolid(int x, int y)
+    { return isInBounds(x, y) && testBit(solidBits, toIndex(x, y)); }
+
+    /**
+     * Gets the packed bitset of occupied cells. Bit (id & 63) of word (id >>> 6) is set when any actor is on cell id.
+     * The returned array is the live backing array and must not be modified
+     * @return the occupied cell bitset
+     */
+    public long[] getOccupiedBits()
+    { return occupiedBits; }
+
+    /**
+     * Gets the packed bitset of solid cells. Bit (id & 63) of word (id >>> 6) is set when a solid actor is on cell id.
+     * The returned array is the live backing array and must not be modified
+     * @return the solid cell bitset
+     */
+    public long[] getSolidBits()
+    { return solidBits; }
+
+    /**
+     * Tests a single bit of a packed bitset such as the ones returned by getOccupiedBits() and getSolidBits()
+     * @param bits the packed bitset
+     * @param index the index of the bit
+     * @return true if the bit is set
+     */
+    public static boolean testBit(long[] bits, int index)
+    { return (bits[index >>> 6] & (1L << index)) != 0; }
+
     public GridActor getActor(Point2D<Integer> point)
     {
-        for(GridActor actor : actors)
-            if(actor.getPosition().equals(point))
-                return actor;
-        return null;
+        List<GridActor> cell = getCell(point);
+        return (cell == null) ? null : cell.get(0);
     }
 
     public List<GridActor> getActors(Point2D<Integer> point)
     {
-        List<GridActor> actorsAtPosition = new LinkedList<>();
-        for(GridActor actor : actors)
-            if(actor.getPosition().equals(point))
-                actorsAtPosition.add(actor);
-        return actorsAtPosition;
+        List<GridActor> cell = getCell(point);
+        return (cell == null) ? new LinkedList<>() : new LinkedList<>(cell);
     }
 
     @Override
     public boolean contains(GridActor actor)
     { return actors.contains(actor); }
 
+    /**
+     * Adds an actor onto the cell at its position. A solid actor can only be added to an empty cell and a non solid
+     * actor can only share its cell with other non solid actors. Otherwise the actor is not added
+     * @param actor the actor that will be added
+     * @throws IllegalArgumentException if the actor's position is outside of the Grid
+     * @throws IllegalStateException if the Grid is a snapshot
+     */
     @Override
     public void addActor(GridActor actor)
     {
-        GridActor a = getActor(actor.getPosition());
-        if(a == null)
-            actors.add(actor);
-        else if(!a.getProperties().isSolid() && !actor.getProperties().isSolid())
-            actors.add(actor);
+        checkNotFrozen();
+        int x = actor.getPosition().getX().intValue(), y = actor.getPosition().getY().intValue();
+        if(!isInBounds(x, y))
+            throw new IllegalArgumentException("Actor position out of range");
+
+        int index = toIndex(x, y);
+        if(!canEnter(actor, index) || !actors.add(actor))
+            return;
+
+        attach(actor, index);
+        fireChange(EnvironmentEvent.Type.ADDED, actor, null, cellBounds(index));
+    }
+
+    /**
+     * Moves an actor to another cell. The same rules as addActor apply to the new cell
+     * @param actor the actor that will be moved
+     * @param position the cell the actor will be moved to
+     * @return true if the actor was moved, false if it is not on the Grid, is static or the new cell is taken
+     * @throws IllegalArgumentException if the new position is outside of the Grid
+     * @throws IllegalStateException if the Grid is a snapshot
+     */
+    @Override
+    public boolean moveActor(GridActor actor, Point2D position)
+    {
+        checkNotFrozen();
+        if(actor == null || position == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        int x = position.getX().intValue(), y = position.getY().intValue();
+        if(!isInBounds(x, y))
+            throw new IllegalArgumentException("Actor position out of range");
+        if(!actors.contains(actor) || actor.getProperties().isStatic())
+            return false;
+
+        int oldIndex = cellOf(actor);
+        int index = toIndex(x, y);
+        if(oldIndex == index)
+            return true;
+        if(!canEnter(actor, index))
+            return false;
+
+        detach(actor, oldIndex);
+        actor.setPosition(new Point2D<Integer>(x, y));
+        attach(actor, index);
+        fireChange(EnvironmentEvent.Type.MOVED, actor, cellBounds(oldIndex), cellBounds(index));
+        return true;
     }
 
     @Override
     public void clearActors()
-    { actors.clear(); }
+    {
+        checkNotFrozen();
+        actors.clear();
+        Arrays.fill(cellActors, null);
+        Arrays.fill(occupiedBits, 0);
+        Arrays.fill(solidBits, 0);
+        if(fixedBits != null)
+        {
+            System.arraycopy(fixedBits, 0, occupiedBits, 0, fixedBits.length);
+            System.arraycopy(fixedBits, 0, solidBits, 0, fixedBits.length);
+        }
+        fireChange(EnvironmentEvent.Type.CLEARED, null, getEnvironmentBounds(), null);
+    }
 
     public Set<GridActor> getActors()
     { return new HashSet<GridActor>(actors); }
 
-
     public void removeActors(Point2D<Integer> point)
     {
-        Iterator<GridActor> iterator = actors.iterator();
-        while(iterator.hasNext())
-        {
-            if(iterator.next().getPosition().equals(point))
-                iterator.remove();
-        }
+        checkNotFrozen();
+        List<GridActor> cell = getCell(point);
+        if(cell == null)
+            return;
+        for(GridActor actor : new ArrayList<>(cell))
+            removeActor(actor);
     }
 
     public boolean removeActor(GridActor actor)
-    { return actors.remove(actor); }
+    {
+        checkNotFrozen();
+        if(!actors.remove(actor))
+            return false;
+
+        int index = cellOf(actor);
+        detach(actor, index);
+        fireChange(EnvironmentEvent.Type.REMOVED, actor, cellBounds(index), null);
+        return true;
+    }
 
     public Set<GridActor> getNeighboringActors(Point2D<Integer> point, boolean containCorners)
     {
-        Set<Point2D<Integer>> neighbors = getNeighboringPositions(point, containCorners);
         Set<GridActor> occupoedNeighborActor = new HashSet<>();
-        for(GridActor actor : actors)
-            if(neighbors.contains(actor.getPosition()))
-                occupoedNeighborActor.add(actor);
+        for(Point2D<Integer> p : getNeighboringPositions(point, containCorners))
+        {
+            List<GridActor> cell = getCell(p);
+            if(cell != null)
+                occupoedNeighborActor.addAll(cell);
+        }
         return occupoedNeighborActor;
     }
 
     public Set<Point2D<Integer>> getEmptyNeighboringPositions(Point2D<Integer> point, boolean containCorners)
     {
-        Set<Point2D<Integer>> neighbors = getNeighboringPositions(point, containCorners);
         Set<Point2D<Integer>> emptyNeighborPoint = new HashSet<>();
-        for(Point2D<Integer> p : neighbors)
-            if(getActor(p) == null)
+        for(Point2D<Integer> p : getNeighboringPositions(point, containCorners))
+            if(!isOccupied(p.getX(), p.getY()))
                 emptyNeighborPoint.add(p);
         return emptyNeighborPoint;
     }
 
     public Set<Point2D<Integer>> getOccupiedNeighboringPositions(Point2D<Integer> point, boolean containCorners)
     {
-        Set<Point2D<Integer>> neighbors = getNeighboringPositions(point, containCorners);
         Set<Point2D<Integer>> occupoedNeighborPoint = new HashSet<>();
-        for(GridActor actor : actors)
-            if(neighbors.contains(actor.getPosition()))
-                occupoedNeighborPoint.add(actor.getPosition());
+        for(Point2D<Integer> p : getNeighboringPositions(point, containCorners))
+            if(isOccupied(p.getX(), p.getY()))
+                occupoedNeighborPoint.add(p);
         return occupoedNeighborPoint;
     }
 
     public Set<Point2D<Integer>> getNeighboringPositions(Point2D<Integer> point, boolean containCorners)
     {
         HashSet<Point2D<Integer>> neighboringObjects = new HashSet<>();
+        int x = point.getX().intValue(), y = point.getY().intValue();
 
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue() - 1, point.getY().intValue())))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue() - 1, point.getY().intValue()));
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue() + 1, point.getY().intValue())))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue() + 1, point.getY().intValue()));
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue(), point.getY() - 1)))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue(), point.getY() - 1));
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue(), point.getY() + 1)))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue(), point.getY() + 1));
+        if(isInBounds(x - 1, y))
+            neighboringObjects.add(new Point2D<Integer>(x - 1, y));
+        if(isInBounds(x + 1, y))
+            neighboringObjects.add(new Point2D<Integer>(x + 1, y));
+        if(isInBounds(x, y - 1))
+            neighboringObjects.add(new Point2D<Integer>(x, y - 1));
+        if(isInBounds(x, y + 1))
+            neighboringObjects.add(new Point2D<Integer>(x, y + 1));
 
         if(!containCorners)
             return neighboringObjects;
 
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue() - 1, point.getY() - 1)))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue() - 1, point.getY() - 1));
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue() + 1, point.getY() - 1)))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue() + 1, point.getY() - 1));
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue() - 1, point.getY() + 1)))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue() - 1, point.getY() + 1));
-        if(isValidPosition(new Point2D<Integer>(point.getX().intValue() + 1, point.getY() + 1)))
-            neighboringObjects.add(new Point2D<Integer>(point.getX().intValue() + 1, point.getY() + 1));
+        if(isInBounds(x - 1, y - 1))
+            neighboringObjects.add(new Point2D<Integer>(x - 1, y - 1));
+        if(isInBounds(x + 1, y - 1))
+            neighboringObjects.add(new Point2D<Integer>(x + 1, y - 1));
+        if(isInBounds(x - 1, y + 1))
+            neighboringObjects.add(new Point2D<Integer>(x - 1, y + 1));
+        if(isInBounds(x + 1, y + 1))
+            neighboringObjects.add(new Point2D<Integer>(x + 1, y + 1));
 
         return neighboringObjects;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the actors placed on the cell at the given point
+     * @param point the position of the cell
+     * @return the list of actors on the cell or null if the cell is empty or outside of the Grid
+     */
+    private List<GridActor> getCell(Point2D<Integer> point)
+    {
+        int x = point.getX().intValue(), y = point.getY().intValue();
+        return isInBounds(x, y) ? cellActors[toIndex(x, y)] : null;
+    }
+
+    /**
+     * Checks if the actor may be placed on the cell with the given id. Nothing can join a solid actor and a solid actor
+     * needs an empty cell
+     */
+    private boolean canEnter(GridActor actor, int index)
+    { return !testBit(solidBits, index) && !(testBit(occupiedBits, index) && actor.getProperties().isSolid()); }
+
+    /**
+     * Finds the id of the cell the actor was placed on. This is the cell at its position, unless a custom actor changed its
+     * position without going through the Grid, in which case the actor index is searched for it
+     * @return the id of the cell holding the actor, which must be on the Grid
+     */
+    private int cellOf(GridActor actor)
+    {
+        Point2D<Integer> position = actor.getPosition();
+        if(position != null && isInBounds(position.getX().intValue(), position.getY().intValue()))
+        {
+            int index = toIndex(position.getX().intValue(), position.getY().intValue());
+            if(cellActors[index] != null && cellActors[index].contains(actor))
+                return index;
+        }
+        for(int index = 0; index < cellActors.length; index++)
+            if(cellActors[index] != null && cellActors[index].contains(actor))
+                return index;
+        throw new IllegalStateException("Actor is not indexed on the Grid");
+    }
+
+    /**
+     * Places the actor on the cell with the given id in the actor index and both bitsets
+     */
+    private void attach(GridActor actor, int index)
+    {
+        if(cellActors[index] == null)
+            cellActors[index] = new ArrayList<>(1);
+        cellActors[index].add(actor);
+        occupiedBits[index >>> 6] |= 1L << index;
+        if(actor.getProperties().isSolid())
+            solidBits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Takes the actor off the cell with the given id in the actor index and both bitsets
+     */
+    private void detach(GridActor actor, int index)
+    {
+        List<GridActor> cell = cellActors[index];
+        cell.remove(actor);
+        if(cell.isEmpty())
+        {
+            cellActors[index] = null;
+            occupiedBits[index >>> 6] &= ~(1L << index);
+        }
+        if(actor.getProperties().isSolid())
+            solidBits[index >>> 6] &= ~(1L << index);
+    }
+
+    private EnvironmentEvent.Bounds cellBounds(int index)
+    { return new EnvironmentEvent.Bounds(index % getCols(), index / getCols(), index % getCols(), index / getCols()); }
+}
@@ -1,9 +1,10 @@
 package com.pathplanner.world.environment;
 
-import com.pathplanner.geometry.Line2D;
+import com.pathplanner.geometry.DoubleLine2D;
 import com.pathplanner.geometry.Point2D;
 import com.pathplanner.world.actor.planeActor.PlaneActor;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -13,36 +14,120 @@ import java.util.Set;
  */
 public class Plane extends Environment<PlaneActor>
 {
+    // the number of buckets along each side of the edge index
+    private static final int EDGE_INDEX_CELLS = 64;
+
     private Set<PlaneActor> actors;
+    private EdgeIndex edgeIndex;
+    private VisibilityGraph visibilityGraph;
 
     public Plane(int length, int width)
     {
         super(length, width);
         actors = new HashSet<>();
+        edgeIndex = new EdgeIndex(Math.max(length, width), EDGE_INDEX_CELLS);
     }
 
     public Plane(Plane p)
     {
         super(p.getRows(), p.getCols());
-        this.actors = p.actors;
+        this.actors = new HashSet<>(p.actors);
+        edgeIndex = new EdgeIndex(Math.max(getRows(), getCols()), EDGE_INDEX_CELLS);
+        for(PlaneActor actor : actors)
+            if(actor.properties.isSolid())
+                edgeIndex.add(actor);
+        copyVersion(p);
+    }
+
+    /**
+     * Creates a frozen copy of the Plane. The copy gets its own actor set and edge index, and its visibility graph is
+     * built right away so that queries on the snapshot never have to build it
+     * @return a read-only copy of the Plane
+     */
+    @Override
+    public Plane snapshot()
+    {
+        Plane plane = new Plane(getRows(), getCols());
+        for(PlaneActor actor : actors)
+            plane.addActor(actor);
+        plane.getVisibilityGraph();
+        plane.actors = Collections.unmodifiableSet(plane.actors);
+        plane.copyVersion(this);
+        plane.freeze();
+        return plane;
     }
 
     @Override
     public void addActor(PlaneActor actor) {
+        checkNotFrozen();
         if(!super.isValidPosition(actor.getPosition()))
             throw new IllegalArgumentException("Actor position out of range");
-        actors.add(actor);
+        if(!actors.add(actor))
+            return;
+        if(actor.properties.isSolid())
+            edgeIndex.add(actor);
+        if(visibilityGraph != null)
+            visibilityGraph.actorAdded(actor);
+        fireChange(EnvironmentEvent.Type.ADDED, actor, null, getBounds(actor));
+    }
+
+    /**
+     * Moves the centroid of an actor to the given position. The actor is taken out of the edge index and the visibility
+     * graph, shifted and then put back, so line of sight queries see the actor at its new position right away
+     * @param actor the actor that will be moved
+     * @param position the new centroid of the actor
+     * @return true if the actor was moved, false if it is not on the Plane or is static
+     * @throws IllegalArgumentException if the new position is outside of the Plane
+     * @throws IllegalStateException if the Plane is a snapshot
+     */
+    @Override
+    public boolean moveActor(PlaneActor actor, Point2D position)
+    {
+        checkNotFrozen();
+        if(actor == null || position == null)
+            throw new IllegalArgumentException("Non-null arguments expected");
+        if(!super.isValidPosition(position))
+            throw new IllegalArgumentException("Actor position out of range");
+        if(!actors.contains(actor) || actor.properties.isStatic())
+            return false;
+
+        EnvironmentEvent.Bounds oldBounds = getBounds(actor);
+        edgeIndex.remove(actor);
+        if(visibilityGraph != null)
+            visibilityGraph.actorRemoved(actor);
+        actor.setPosition(position);
+        if(actor.properties.isSolid())
+            edgeIndex.add(actor);
+        if(visibilityGraph != null)
+            visibilityGraph.actorAdded(actor);
+        fireChange(EnvironmentEvent.Type.MOVED, actor, oldBounds, getBounds(actor));
+        return true;
     }
 
     public boolean removeActor(PlaneActor actor)
-    { return actors.remove(actor); }
+    {
+        checkNotFrozen();
+        if(!actors.remove(actor))
+            return false;
+        edgeIndex.remove(actor);
+        if(visibilityGraph != null)
+            visibilityGraph.actorRemoved(actor);
+        fireChange(EnvironmentEvent.Type.REMOVED, actor, getBounds(actor), null);
+        return true;
+    }
 
     @Override
     public Set<PlaneActor> getActors()
     { return actors; }
 
     public void clearActors()
-    { actors.clear(); }
+    {
+        checkNotFrozen();
+        actors.clear();
+        edgeIndex.clear();
+        visibilityGraph = null;
+        fireChange(EnvironmentEvent.Type.CLEARED, null, getEnvironmentBounds(), null);
+    }
 
     @Override
     public boolean contains(PlaneActor actor)
@@ -72,24 +157,53 @@ public class Plane extends Environment<PlaneActor>
         return actorBounds;
     }
 
+    /**
+     * Gets the visibility graph connecting the bounding points of every actor on the Plane. The graph is built the first
+     * time this method is called and is then updated incrementally as actors are added and removed through the Plane.
+     * @return the visibility graph of the Plane
+     */
+    public synchronized VisibilityGraph getVisibilityGraph()
+    {
+        if(visibilityGraph == null)
+            visibilityGraph = new VisibilityGraph(this);
+        return visibilityGraph;
+    }
+
+    /**
+     * Checks if there is a direct line of sight between the two points. The line of sight is blocked if the line
+     * between the points intersects an edge of a solid actor. Only the edges stored near the line in the edge index
+     * are tested
+     * @param startPoint the start of the line
+     * @param endPoint the end of the line
+     * @return true if no solid actor blocks the line
+     */
     public boolean LineOfSight(Point2D startPoint, Point2D endPoint)
     {
-        Line2D<Double> intersectionLine = new Line2D(startPoint,endPoint);
+        return !edgeIndex.intersects(startPoint.getX().doubleValue(), startPoint.getY().doubleValue(),
+                endPoint.getX().doubleValue(), endPoint.getY().doubleValue());
+    }
 
-        for(PlaneActor actor : actors)
-        {
-            if(!actor.properties.isSolid())
-                continue;
-
-            List<Point2D<Double>> actorVertexPoints = actor.getVertexPoints();
-            for(int i = 0; i < actorVertexPoints.size(); i++)
-            {
-                int j = (i == actorVertexPoints.size() - 1) ? 0 : i + 1;
-                Line2D<Double> currentLine = new Line2D<Double>(actorVertexPoints.get(i), actorVertexPoints.get(j));
-                if(currentLine.intersects(intersectionLine))
-                    return false;
-            }
-        }
-        return true;
+    /**
+     * Checks if the line between the two points intersects any edge of the actor. The solidity of the actor is not checked
+     * @param actor the actor that may block the line
+     * @param startPoint the start of the line
+     * @param endPoint the end of the line
+     * @return true if the line intersects the actor
+     */
+    boolean blocks(PlaneActor actor, Point2D startPoint, Point2D endPoint)
+    {
+        double ax = startPoint.getX().doubleValue(), ay = startPoint.getY().doubleValue();
+        double bx = endPoint.getX().doubleValue(), by = endPoint.getY().doubleValue();
+
+        for(DoubleLine2D edge : actor.getEdges())
+            if(DoubleLine2D.linesIntersect(edge.getX1(), edge.getY1(), edge.getX2(), edge.getY2(), ax, ay, bx, by))
+                return true;
+        return false;
     }
+
+    /**
+     * Gets the bounding box of the vertex points of the actor
+     */
+    private static EnvironmentEvent.Bounds getBounds(PlaneActor actor)
+    { return new EnvironmentEvent.Bounds(actor.getMinX(), actor.getMinY(), actor.getMaxX(), actor.getMaxY()); }
 }
\ No newline at end of file
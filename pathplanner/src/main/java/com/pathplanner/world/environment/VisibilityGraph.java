@@ -0,0 +1,287 @@
+package com.pathplanner.world.environment;
+
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.planeActor.PlaneActor;
+
+import java.util.*;
+
+/**
+ * A VisibilityGraph connects every bounding point of the actors on a Plane to every other bounding point it has line of
+ * sight to. The graph is owned by its Plane and built once the first time it is requested. After that the Plane keeps
+ * it up to date as actors are added and removed: adding a solid actor only rechecks the edges that cross its edges and
+ * removing one only rechecks the missing edges that crossed it. Only pairs whose line reaches the bounding box of the
+ * actor are handed to the exact check, and pairs with both nodes on the same outer side of the box are skipped without
+ * being looked at. Pathfinders then only need to connect their start and
+ * end points to the graph instead of rechecking line of sight between every pair of bounding points.
+ * Every bounding point is a node with an integer id. Ids of removed nodes are reused by later nodes.
+ * @see Plane#getVisibilityGraph()
+ */
+public class VisibilityGraph
+{
+    private static final double EPSILON = 1e-9;
+
+    private final Plane plane;
+    private final List<Point2D<Double>> points = new ArrayList<>();
+    private final List<BitSet> adjacency = new ArrayList<>();
+    private final BitSet nodes = new BitSet();
+    private final Map<PlaneActor, int[]> actorNodes = new HashMap<>();
+
+    /**
+     * Creates the visibility graph of all actors currently on the Plane
+     * @param plane the Plane this graph belongs to
+     */
+    VisibilityGraph(Plane plane)
+    {
+        this.plane = plane;
+        for(PlaneActor actor : plane.getActors())
+            addNodes(actor);
+        for(int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+            for(int j = nodes.nextSetBit(i + 1); j >= 0; j = nodes.nextSetBit(j + 1))
+                if(plane.LineOfSight(points.get(i), points.get(j)))
+                    connect(i, j);
+    }
+
+    /**
+     * Gets the number of ids in use. Every node id is less than this value but not every id below it is a node
+     * @return one more than the largest node id
+     */
+    public int capacity()
+    { return points.size(); }
+
+    /**
+     * Gets the number of nodes in the graph
+     * @return the number of nodes
+     */
+    public int nodeCount()
+    { return nodes.cardinality(); }
+
+    /**
+     * Checks if the given id is currently a node of the graph
+     * @param id the id to check
+     * @return true if the id is a node
+     */
+    public boolean isNode(int id)
+    { return nodes.get(id); }
+
+    /**
+     * Gets the ids of all nodes in the graph. The returned BitSet must not be modified
+     * @return the set of node ids
+     */
+    public BitSet getNodes()
+    { return nodes; }
+
+    /**
+     * Gets the bounding point of a node
+     * @param id the id of the node
+     * @return the position of the node
+     */
+    public Point2D<Double> getPoint(int id)
+    { return points.get(id); }
+
+    /**
+     * Gets the ids of all nodes the given node has line of sight to. The returned BitSet must not be modified
+     * @param id the id of the node
+     * @return the set of visible node ids
+     */
+    public BitSet getNeighbors(int id)
+    { return adjacency.get(id); }
+
+    /**
+     * Finds every node of the graph the given point has line of sight to. Pathfinders use this to connect their start
+     * and end points to the graph
+     * @param point a point that is not part of the graph
+     * @return a new set of the visible node ids
+     */
+    public BitSet visibleFrom(Point2D point)
+    {
+        BitSet visible = new BitSet(capacity());
+        for(int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+            if(plane.LineOfSight(point, points.get(i)))
+                visible.set(i);
+        return visible;
+    }
+
+    /**
+     * Updates the graph after an actor was added to the Plane. If the actor is solid, the edges that cross it are
+     * removed. The bounding points of the actor are then added and connected to every node they can see.
+     * @param actor the actor that was added
+     */
+    void actorAdded(PlaneActor actor)
+    {
+        if(actorNodes.containsKey(actor))
+            return;
+
+        if(actor.getProperties().isSolid())
+        {
+            Box box = new Box(actor);
+            for(int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+            {
+                BitSet candidates = box.candidates(i);
+                candidates.and(adjacency.get(i));
+                for(int j = candidates.nextSetBit(i + 1); j >= 0; j = candidates.nextSetBit(j + 1))
+                    if(box.reachedBy(points.get(i), points.get(j)) && plane.blocks(actor, points.get(i), points.get(j)))
+                        disconnect(i, j);
+            }
+        }
+
+        for(int i : addNodes(actor))
+            for(int j = nodes.nextSetBit(0); j >= 0; j = nodes.nextSetBit(j + 1))
+                if(j != i && !adjacency.get(i).get(j) && plane.LineOfSight(points.get(i), points.get(j)))
+                    connect(i, j);
+    }
+
+    /**
+     * Updates the graph after an actor was removed from the Plane. The bounding points of the actor are removed. If the
+     * actor is solid, every pair of nodes without an edge whose line crosses the actor is rechecked.
+     * @param actor the actor that was removed
+     */
+    void actorRemoved(PlaneActor actor)
+    {
+        int[] removed = actorNodes.remove(actor);
+        if(removed == null)
+            return;
+
+        for(int i : removed)
+        {
+            BitSet neighbors = adjacency.get(i);
+            for(int j = neighbors.nextSetBit(0); j >= 0; j = neighbors.nextSetBit(j + 1))
+                adjacency.get(j).clear(i);
+            neighbors.clear();
+            nodes.clear(i);
+            points.set(i, null);
+        }
+
+        if(actor.getProperties().isSolid())
+        {
+            Box box = new Box(actor);
+            for(int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+            {
+                BitSet candidates = box.candidates(i);
+                candidates.andNot(adjacency.get(i));
+                for(int j = candidates.nextSetBit(i + 1); j >= 0; j = candidates.nextSetBit(j + 1))
+                    if(box.reachedBy(points.get(i), points.get(j)) && plane.blocks(actor, points.get(i), points.get(j))
+                            && plane.LineOfSight(points.get(i), points.get(j)))
+                        connect(i, j);
+            }
+        }
+    }
+
+    /**
+     * Creates a node for every bounding point of the actor
+     * @param actor the actor whose bounding points will be added
+     * @return the ids of the new nodes
+     */
+    private int[] addNodes(PlaneActor actor)
+    {
+        Set<Point2D<Double>> boundingPoints = actor.getBoundingPoints();
+        int[] ids = new int[boundingPoints.size()];
+        int k = 0;
+        for(Point2D<Double> point : boundingPoints)
+        {
+            int id = nodes.nextClearBit(0);
+            if(id == points.size())
+            {
+                points.add(point);
+                adjacency.add(new BitSet());
+            }
+            else
+                points.set(id, point);
+            nodes.set(id);
+            ids[k++] = id;
+        }
+        actorNodes.put(actor, ids);
+        return ids;
+    }
+
+    /**
+     * The bounding box of an actor together with the nodes that lie outside of it on each side. A line can only cross
+     * the actor if it reaches the box, which it cannot do when both of its nodes are on the same outer side
+     */
+    private class Box
+    {
+        private final double minX, minY, maxX, maxY;
+        private final BitSet left = new BitSet(), right = new BitSet(), below = new BitSet(), above = new BitSet();
+
+        Box(PlaneActor actor)
+        {
+            // widened slightly so that lines touching the box are never skipped because of rounding
+            double margin = EPSILON * Math.max(1, Math.max(actor.getMaxX() - actor.getMinX(), actor.getMaxY() - actor.getMinY()));
+            minX = actor.getMinX() - margin;
+            minY = actor.getMinY() - margin;
+            maxX = actor.getMaxX() + margin;
+            maxY = actor.getMaxY() + margin;
+            for(int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+            {
+                Point2D<Double> point = points.get(i);
+                if(point.getX() < minX)
+                    left.set(i);
+                else if(point.getX() > maxX)
+                    right.set(i);
+                if(point.getY() < minY)
+                    below.set(i);
+                else if(point.getY() > maxY)
+                    above.set(i);
+            }
+        }
+
+        /**
+         * Gets the nodes that are not on an outer side of the box shared with the given node
+         * @param i the id of the node
+         * @return a new BitSet of node ids
+         */
+        BitSet candidates(int i)
+        {
+            BitSet candidates = (BitSet) nodes.clone();
+            if(left.get(i))
+                candidates.andNot(left);
+            else if(right.get(i))
+                candidates.andNot(right);
+            if(below.get(i))
+                candidates.andNot(below);
+            else if(above.get(i))
+                candidates.andNot(above);
+            return candidates;
+        }
+
+        /**
+         * Checks if the line between the two points touches the box by clipping it against each side of the box
+         * @param a the start of the line
+         * @param b the end of the line
+         * @return true if part of the line lies within the box
+         */
+        boolean reachedBy(Point2D<Double> a, Point2D<Double> b)
+        {
+            double dx = b.getX() - a.getX(), dy = b.getY() - a.getY();
+            double[] p = {-dx, dx, -dy, dy};
+            double[] q = {a.getX() - minX, maxX - a.getX(), a.getY() - minY, maxY - a.getY()};
+            double t0 = 0, t1 = 1;
+            for(int k = 0; k < 4; k++)
+            {
+                if(p[k] == 0)
+                {
+                    if(q[k] < 0)
+                        return false;
+                }
+                else if(p[k] < 0)
+                    t0 = Math.max(t0, q[k] / p[k]);
+                else
+                    t1 = Math.min(t1, q[k] / p[k]);
+                if(t0 > t1)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    private void connect(int i, int j)
+    {
+        adjacency.get(i).set(j);
+        adjacency.get(j).set(i);
+    }
+
+    private void disconnect(int i, int j)
+    {
+        adjacency.get(i).clear(j);
+        adjacency.get(j).clear(i);
+    }
+}
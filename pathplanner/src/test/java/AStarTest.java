@@ -0,0 +1,127 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.actor.properties.BarrierProperties;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AStarTest
+{
+    static Grid randomGrid(Random random, int rows, int cols, double density)
+    {
+        Grid grid = new Grid(rows, cols);
+        for(int i = 0; i < rows * cols * density; i++)
+            grid.addActor(new GridActor(new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows)), new BarrierProperties()) {});
+        return grid;
+    }
+
+    static void addBarrier(Grid grid, int x, int y)
+    { grid.addActor(new GridActor(new Point2D<Integer>(x, y), new BarrierProperties()) {}); }
+
+    /**
+     * Checks that the path runs from start to end through free neighboring cells and returns its cost
+     */
+    static double checkedCost(Grid grid, List<Point2D> path, Point2D start, Point2D end, boolean containCorners)
+    {
+        assertEquals(start, path.get(0));
+        assertEquals(end, path.get(path.size() - 1));
+        double cost = 0;
+        for(int i = 1; i < path.size(); i++)
+        {
+            int x = path.get(i).getX().intValue(), y = path.get(i).getY().intValue();
+            int dx = Math.abs(x - path.get(i - 1).getX().intValue()), dy = Math.abs(y - path.get(i - 1).getY().intValue());
+            assertFalse("path enters a solid cell", grid.isSolid(x, y));
+            assertTrue("path skips a cell", dx <= 1 && dy <= 1 && dx + dy > 0 && (containCorners || dx + dy == 1));
+            cost += path.get(i).distance(path.get(i - 1));
+        }
+        return cost;
+    }
+
+    @Test
+    public void indexedSearchMatchesLegacySearch()
+    {
+        Random random = new Random(1);
+        int unreachable = 0, reachable = 0;
+        for(int map = 0; map < 40; map++)
+        {
+            int rows = 10 + random.nextInt(20), cols = 10 + random.nextInt(20);
+            Grid grid = randomGrid(random, rows, cols, 0.3);
+            AStar legacy = new AStar(grid), indexed = new AStar(grid);
+            indexed.setIndexedSearch(true);
+
+            for(int query = 0; query < 20; query++)
+            {
+                boolean containCorners = random.nextBoolean();
+                Point2D<Integer> start = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                Point2D<Integer> end = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                if(grid.isSolid(start.getX(), start.getY()))
+                    continue;
+
+                List<Point2D> expected = legacy.generatePathSegment(start, end, containCorners);
+                List<Point2D> actual = indexed.generatePathSegment(start, end, containCorners);
+                if(expected == null)
+                {
+                    assertNull(actual);
+                    unreachable++;
+                    continue;
+                }
+                assertNotNull(actual);
+                assertEquals(checkedCost(grid, expected, start, end, containCorners),
+                        checkedCost(grid, actual, start, end, containCorners), 1e-9);
+                reachable++;
+            }
+        }
+        assertTrue(unreachable > 0 && reachable > 0);
+    }
+
+    @Test
+    public void walledOffGoalIsUnreachable()
+    {
+        Grid grid = new Grid(10, 10);
+        for(int i = 0; i < 10; i++)
+            addBarrier(grid, 5, i);
+
+        for(boolean indexedSearch : new boolean[]{false, true})
+        {
+            AStar pathFinder = new AStar(grid);
+            pathFinder.setIndexedSearch(indexedSearch);
+            assertNull(pathFinder.generatePathSegment(new Point2D<Integer>(0, 0), new Point2D<Integer>(9, 9), true));
+            assertNull(pathFinder.generatePathSegment(new Point2D<Integer>(0, 0), new Point2D<Integer>(5, 5), true));
+        }
+    }
+
+    @Test
+    public void bidirectionalSearchMatchesIndexedSearch()
+    {
+        Random random = new Random(2);
+        for(int map = 0; map < 20; map++)
+        {
+            Grid grid = randomGrid(random, 30, 30, 0.3);
+            AStar indexed = new AStar(grid), bidirectional = new AStar(grid);
+            indexed.setIndexedSearch(true);
+            bidirectional.setBidirectionalSearch(true);
+
+            for(int query = 0; query < 20; query++)
+            {
+                boolean containCorners = random.nextBoolean();
+                Point2D<Integer> start = new Point2D<Integer>(random.nextInt(30), random.nextInt(30));
+                Point2D<Integer> end = new Point2D<Integer>(random.nextInt(30), random.nextInt(30));
+                if(grid.isSolid(start.getX(), start.getY()))
+                    continue;
+
+                List<Point2D> expected = indexed.generatePathSegment(start, end, containCorners);
+                List<Point2D> actual = bidirectional.generatePathSegment(start, end, containCorners);
+                if(expected == null)
+                    assertNull(actual);
+                else
+                    assertEquals(checkedCost(grid, expected, start, end, containCorners),
+                            checkedCost(grid, actual, start, end, containCorners), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.AnytimeAStar;
+import com.pathplanner.pathplanners.AnytimeResult;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AnytimeAStarTest
+{
+    @Test
+    public void findsOptimalPathWithoutBudget()
+    {
+        Random random = new Random(15);
+        for(int map = 0; map < 30; map++)
+        {
+            int rows = 10 + random.nextInt(30), cols = 10 + random.nextInt(30);
+            Grid grid = AStarTest.randomGrid(random, rows, cols, 0.25);
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(true);
+            AnytimeAStar anytimeAStar = new AnytimeAStar(grid);
+            anytimeAStar.setInflation(1 + random.nextDouble() * 4, 0.25 + random.nextDouble());
+
+            for(int query = 0; query < 20; query++)
+            {
+                boolean containCorners = random.nextBoolean();
+                Point2D<Integer> start = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                Point2D<Integer> end = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                List<Point2D> expected = aStar.generatePathSegment(start, end, containCorners);
+                AnytimeResult result = anytimeAStar.plan(start, end, containCorners);
+                assertFalse(result.isTimedOut());
+                if(expected == null)
+                    assertNull(result.getPath());
+                else
+                {
+                    assertTrue(result.isOptimal());
+                    assertEquals(AStarTest.checkedCost(grid, expected, start, end, containCorners),
+                            AStarTest.checkedCost(grid, result.getPath(), start, end, containCorners), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void staysWithinReportedBoundUnderBudget()
+    {
+        Random random = new Random(16);
+        Grid grid = AStarTest.randomGrid(random, 150, 150, 0.25);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        AnytimeAStar anytimeAStar = new AnytimeAStar(grid);
+        anytimeAStar.setInflation(5, 0.5);
+
+        for(int query = 0; query < 40; query++)
+        {
+            Point2D<Integer> start = new Point2D<Integer>(random.nextInt(150), random.nextInt(150));
+            Point2D<Integer> end = new Point2D<Integer>(random.nextInt(150), random.nextInt(150));
+            List<Point2D> expected = aStar.generatePathSegment(start, end, true);
+            if(expected == null)
+                continue;
+
+            // whichever iteration the budget stops in, the path found so far is within its bound
+            AnytimeResult result = anytimeAStar.plan(start, end, true, 10 + random.nextInt(2000), TimeUnit.MICROSECONDS);
+            if(result.getPath() != null)
+            {
+                assertTrue(result.getBound() >= 1);
+                assertTrue(AStarTest.checkedCost(grid, result.getPath(), start, end, true)
+                        <= result.getBound() * AStarTest.checkedCost(grid, expected, start, end, true) + 1e-9);
+            }
+        }
+    }
+}
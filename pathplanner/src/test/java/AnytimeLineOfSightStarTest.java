@@ -0,0 +1,68 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AnytimeLineOfSightStar;
+import com.pathplanner.pathplanners.AnytimeResult;
+import com.pathplanner.pathplanners.LineOfSightStar;
+import com.pathplanner.world.actor.planeActor.PlanePolygonActor;
+import com.pathplanner.world.actor.properties.BarrierProperties;
+import com.pathplanner.world.environment.Plane;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AnytimeLineOfSightStarTest
+{
+    private static double length(List<Point2D> path)
+    {
+        double length = 0;
+        for(int i = 1; i < path.size(); i++)
+            length += path.get(i).distance(path.get(i - 1));
+        return length;
+    }
+
+    @Test
+    public void matchesLineOfSightStarWithoutBudget()
+    {
+        Random random = new Random(17);
+        Plane plane = new Plane(100, 100);
+        for(int i = 0; i < 15; i++)
+        {
+            double x = 10 + random.nextDouble() * 75, y = 10 + random.nextDouble() * 75;
+            plane.addActor(new PlanePolygonActor(new BarrierProperties(), new Point2D<Double>(x, y),
+                    new Point2D<Double>(x + 6, y), new Point2D<Double>(x + 6, y + 6), new Point2D<Double>(x, y + 6)));
+        }
+        LineOfSightStar lineOfSightStar = new LineOfSightStar(plane);
+        AnytimeLineOfSightStar anytimeLineOfSightStar = new AnytimeLineOfSightStar(plane);
+
+        for(int query = 0; query < 20; query++)
+        {
+            Point2D<Double> start = new Point2D<Double>(random.nextDouble() * 99, random.nextDouble() * 99);
+            Point2D<Double> end = new Point2D<Double>(random.nextDouble() * 99, random.nextDouble() * 99);
+            List<Point2D> expected = lineOfSightStar.generatePathSegment(start, end, false);
+            AnytimeResult result = anytimeLineOfSightStar.plan(start, end, false);
+            if(expected == null)
+                assertNull(result.getPath());
+            else
+            {
+                assertTrue(result.isOptimal());
+                assertEquals(start, result.getPath().get(0));
+                assertEquals(end, result.getPath().get(result.getPath().size() - 1));
+                assertEquals(length(expected), length(result.getPath()), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void returnsSinglePointWhenStartIsEnd()
+    {
+        Plane plane = new Plane(10, 10);
+        Point2D<Double> point = new Point2D<Double>(3.0, 4.0);
+        List<Point2D> expected = new LineOfSightStar(plane).generatePathSegment(point, point, false);
+        AnytimeResult result = new AnytimeLineOfSightStar(plane).plan(point, point, false);
+        assertEquals(expected, result.getPath());
+        assertEquals(1, result.getPath().size());
+        assertTrue(result.isOptimal());
+    }
+}
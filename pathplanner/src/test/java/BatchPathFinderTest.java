@@ -0,0 +1,95 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.BatchPathFinder;
+import com.pathplanner.pathplanners.DStarLite;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BatchPathFinderTest
+{
+    @Test
+    public void givesEveryQueryItsOwnStatefulPathFinder()
+    {
+        Random random = new Random(5);
+        Grid grid = AStarTest.randomGrid(random, 30, 30, 0.2).snapshot();
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+
+        AtomicInteger created = new AtomicInteger();
+        BatchPathFinder<Grid> batch = new BatchPathFinder<>(grid, snapshot ->
+        {
+            created.incrementAndGet();
+            return new DStarLite(snapshot);
+        });
+
+        List<BatchPathFinder.Query> queries = new ArrayList<>();
+        while(queries.size() < 200)
+        {
+            Point2D<Integer> start = new Point2D<Integer>(random.nextInt(30), random.nextInt(30));
+            if(!grid.isSolid(start.getX(), start.getY()))
+                queries.add(new BatchPathFinder.Query(start, new Point2D<Integer>(random.nextInt(30), random.nextInt(30))));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<BatchPathFinder.Result> results = batch.solve(queries, true, executor);
+            for(int i = 0; i < queries.size(); i++)
+            {
+                BatchPathFinder.Query query = queries.get(i);
+                List<Point2D> expected = aStar.generatePathSegment(query.getStart(), query.getGoal(), true);
+                BatchPathFinder.Result result = results.get(i);
+                if(expected == null)
+                    assertEquals(BatchPathFinder.Status.NO_PATH, result.getStatus());
+                else
+                {
+                    assertTrue(result.isFound());
+                    assertEquals(AStarTest.checkedCost(grid, expected, query.getStart(), query.getGoal(), true),
+                            AStarTest.checkedCost(grid, result.getPath(), query.getStart(), query.getGoal(), true), 1e-9);
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertTrue(created.get() >= 1 && created.get() <= 5);
+    }
+
+    @Test
+    public void plansSegmentsOfStatefulPathFinderInOrder()
+    {
+        Grid grid = AStarTest.randomGrid(new Random(6), 20, 20, 0.1);
+        Point2D<Integer>[] points = new Point2D[]{new Point2D<Integer>(0, 0), new Point2D<Integer>(19, 19),
+                new Point2D<Integer>(0, 19), new Point2D<Integer>(19, 0)};
+        for(Point2D<Integer> point : points)
+            grid.removeActors(point);
+
+        DStarLite dStarLite = new DStarLite(grid, points);
+        assertFalse(dStarLite.isThreadSafe());
+        AStar aStar = new AStar(grid, points);
+        aStar.setIndexedSearch(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try
+        {
+            List<Point2D> expected = aStar.generatePath(true), actual = dStarLite.generatePath(true, executor);
+            assertNotNull(actual);
+            assertEquals(AStarTest.checkedCost(grid, expected, points[0], points[3], true),
+                    AStarTest.checkedCost(grid, actual, points[0], points[3], true), 1e-9);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.DStarLite;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DStarLiteTest
+{
+    private static void assertSameCost(Grid grid, AStar aStar, List<Point2D> actual, Point2D start, Point2D end,
+                                       boolean containCorners)
+    {
+        List<Point2D> expected = aStar.generatePathSegment(start, end, containCorners);
+        if(expected == null)
+            assertNull(actual);
+        else
+        {
+            assertNotNull("no path found where AStar finds one", actual);
+            assertEquals(AStarTest.checkedCost(grid, expected, start, end, containCorners),
+                    AStarTest.checkedCost(grid, actual, start, end, containCorners), 1e-9);
+        }
+    }
+
+    @Test
+    public void replansAroundBarrierOnTiedPaths()
+    {
+        Grid grid = new Grid(6, 3);
+        AStarTest.addBarrier(grid, 0, 0);
+        AStarTest.addBarrier(grid, 1, 3);
+        AStarTest.addBarrier(grid, 2, 4);
+        AStarTest.addBarrier(grid, 0, 5);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        Point2D<Integer> start = new Point2D<Integer>(1, 0), end = new Point2D<Integer>(2, 5);
+
+        DStarLite dStarLite = new DStarLite(grid);
+        assertSameCost(grid, aStar, dStarLite.generatePathSegment(start, end, true), start, end, true);
+        AStarTest.addBarrier(grid, 2, 3);
+        assertSameCost(grid, aStar, dStarLite.replan(start), start, end, true);
+    }
+
+    @Test
+    public void replansAfterGridIsCleared()
+    {
+        Grid grid = new Grid(10, 10);
+        for(int i = 0; i < 10; i++)
+            AStarTest.addBarrier(grid, 5, i);
+        Point2D<Integer> start = new Point2D<Integer>(0, 0), end = new Point2D<Integer>(9, 9);
+
+        DStarLite dStarLite = new DStarLite(grid);
+        assertNull(dStarLite.generatePathSegment(start, end, true));
+        grid.clearActors();
+        List<Point2D> path = dStarLite.replan(start);
+        assertNotNull(path);
+        assertEquals(9 * Math.sqrt(2), AStarTest.checkedCost(grid, path, start, end, true), 1e-9);
+    }
+
+    @Test
+    public void replanMatchesFreshSearch()
+    {
+        Random random = new Random(7);
+        for(int map = 0; map < 60; map++)
+        {
+            int rows = 5 + random.nextInt(20), cols = 5 + random.nextInt(20);
+            boolean containCorners = random.nextBoolean();
+            Grid grid = AStarTest.randomGrid(random, rows, cols, 0.25);
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(true);
+
+            Point2D<Integer> start = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+            Point2D<Integer> end = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+            grid.removeActors(start);
+            grid.removeActors(end);
+
+            DStarLite dStarLite = new DStarLite(grid);
+            List<Point2D> path = dStarLite.generatePathSegment(start, end, containCorners);
+            assertSameCost(grid, aStar, path, start, end, containCorners);
+
+            for(int round = 0; round < 15; round++)
+            {
+                // the robot moves one step along its path before the next changes are seen
+                Point2D<Integer> position = start;
+                if(path != null && path.size() > 1)
+                    position = new Point2D<Integer>(path.get(1).getX().intValue(), path.get(1).getY().intValue());
+
+                for(int i = 0; i < 1 + random.nextInt(4); i++)
+                {
+                    int x = random.nextInt(cols), y = random.nextInt(rows);
+                    if(grid.isSolid(x, y))
+                        grid.removeActors(new Point2D<Integer>(x, y));
+                    else if(!position.equals(new Point2D<Integer>(x, y)) && !end.equals(new Point2D<Integer>(x, y)))
+                        AStarTest.addBarrier(grid, x, y);
+                }
+
+                start = position;
+                path = dStarLite.replan(start);
+                assertSameCost(grid, aStar, path, start, end, containCorners);
+            }
+            dStarLite.detach();
+        }
+    }
+}
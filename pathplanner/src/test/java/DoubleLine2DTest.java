@@ -0,0 +1,75 @@
+import com.pathplanner.geometry.DoubleLine2D;
+import com.pathplanner.geometry.DoublePoint2D;
+import com.pathplanner.geometry.Line2D;
+import com.pathplanner.geometry.Point2D;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DoubleLine2DTest
+{
+    @Test
+    public void linesIntersect()
+    {
+        assertTrue(DoubleLine2D.linesIntersect(0, 0, 2, 2, 0, 2, 2, 0));
+        assertFalse(DoubleLine2D.linesIntersect(0, 0, 2, 0, 0, 1, 2, 1));
+        // touching end points and overlapping collinear lines intersect, collinear lines with a gap do not
+        assertTrue(DoubleLine2D.linesIntersect(0, 0, 1, 1, 1, 1, 2, 0));
+        assertTrue(DoubleLine2D.linesIntersect(0, 0, 2, 0, 1, 0, 3, 0));
+        assertFalse(DoubleLine2D.linesIntersect(0, 0, 1, 0, 2, 0, 3, 0));
+        // a line ending on the other one
+        assertTrue(DoubleLine2D.linesIntersect(0, 0, 2, 0, 1, 0, 1, 5));
+        assertFalse(DoubleLine2D.linesIntersect(0, 0, 2, 0, 1, 0.5, 1, 5));
+    }
+
+    @Test
+    public void zeroLengthLineIsAPoint()
+    {
+        assertTrue(DoubleLine2D.linesIntersect(1, 0, 1, 0, 0, 0, 2, 0));
+        assertFalse(DoubleLine2D.linesIntersect(5, 0, 5, 0, 0, 0, 2, 0));
+        assertFalse(DoubleLine2D.linesIntersect(0, 0, 2, 0, 5, 0, 5, 0));
+        assertTrue(DoubleLine2D.linesIntersect(3, 3, 3, 3, 3, 3, 3, 3));
+        assertFalse(DoubleLine2D.linesIntersect(3, 3, 3, 3, 4, 3, 4, 3));
+    }
+
+    @Test
+    public void intersectionPoint()
+    {
+        DoublePoint2D point = DoubleLine2D.intersectionPoint(0, 0, 4, 4, 0, 4, 4, 0);
+        assertEquals(2, point.getX(), 1e-12);
+        assertEquals(2, point.getY(), 1e-12);
+        point = new DoubleLine2D(0, 0, 4, 0).intersectionPoint(new DoubleLine2D(1, -1, 1, 3));
+        assertEquals(1, point.getX(), 1e-12);
+        assertEquals(0, point.getY(), 1e-12);
+
+        assertNull(DoubleLine2D.intersectionPoint(0, 0, 2, 0, 0, 1, 2, 1));
+        assertNull(DoubleLine2D.intersectionPoint(0, 0, 1, 1, 3, 0, 2, 1));
+        // collinear lines overlap in more than one point
+        assertNull(DoubleLine2D.intersectionPoint(0, 0, 2, 0, 1, 0, 3, 0));
+    }
+
+    @Test
+    public void ptSegDistSq()
+    {
+        assertEquals(4, DoubleLine2D.ptSegDistSq(0, 0, 4, 0, 2, 2), 1e-12);
+        // beyond either end the distance is to the nearest end point
+        assertEquals(2, DoubleLine2D.ptSegDistSq(0, 0, 4, 0, -1, 1), 1e-12);
+        assertEquals(5, DoubleLine2D.ptSegDistSq(0, 0, 4, 0, 6, 1), 1e-12);
+        assertEquals(25, DoubleLine2D.ptSegDistSq(1, 1, 1, 1, 4, 5), 1e-12);
+        assertEquals(5, new DoubleLine2D(1, 1, 1, 1).ptSegDist(4, 5), 1e-12);
+    }
+
+    @Test
+    public void line2DUsesKernels()
+    {
+        Line2D<Double> line = new Line2D<Double>(0.0, 0.0, 0.0, 0.0);
+        line.setLine(1.0, 2.0, 3.0, 4.0);
+        assertEquals(new Point2D<Double>(1.0, 2.0), line.getP1());
+        assertEquals(new Point2D<Double>(3.0, 4.0), line.getP2());
+
+        Point2D<Double> point = line.intersectionPoint(new Line2D<Double>(1.0, 4.0, 3.0, 2.0));
+        assertEquals(new Point2D<Double>(2.0, 3.0), point);
+        assertNull(line.intersectionPoint(new Line2D<Double>(0.0, 0.0, 1.0, 0.0)));
+        assertEquals(2, line.ptSegDistSq(new Point2D<Double>(4.0, 3.0)), 1e-12);
+    }
+}
@@ -0,0 +1,155 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.Actor;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.actor.planeActor.PlaneActor;
+import com.pathplanner.world.actor.planeActor.PlaneLineActor;
+import com.pathplanner.world.actor.planeActor.PlanePointActor;
+import com.pathplanner.world.actor.planeActor.PlanePolygonActor;
+import com.pathplanner.world.actor.properties.BarrierProperties;
+import com.pathplanner.world.actor.properties.Properties;
+import com.pathplanner.world.actor.properties.StartPointProperties;
+import com.pathplanner.world.actor.properties.StopPointProperties;
+import com.pathplanner.world.environment.EnvironmentFile;
+import com.pathplanner.world.environment.Grid;
+import com.pathplanner.world.environment.Plane;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class EnvironmentFileTest
+{
+    private static final Properties MOVABLE_BARRIER = new Properties()
+    {
+        @Override
+        public boolean isSolid()
+        { return true; }
+
+        @Override
+        public boolean isStatic()
+        { return false; }
+    };
+
+    private static Actor actorAt(Set<? extends Actor> actors, double x, double y)
+    {
+        for(Actor actor : actors)
+            if(actor.getPosition().getX().doubleValue() == x && actor.getPosition().getY().doubleValue() == y)
+                return actor;
+        return null;
+    }
+
+    @Test
+    public void gridKeepsStartPoint() throws IOException
+    {
+        Grid grid = new Grid(5, 5);
+        grid.addActor(new GridActor(new Point2D<Integer>(1, 1), new StartPointProperties(0)) {});
+        grid.addActor(new GridActor(new Point2D<Integer>(3, 3), new StopPointProperties(1)) {});
+        AStarTest.addBarrier(grid, 2, 2);
+
+        Path path = Files.createTempFile("grid", ".ppef");
+        try
+        {
+            EnvironmentFile.write(grid, path);
+            Grid read = EnvironmentFile.readGrid(path);
+            assertTrue(read.isSolid(2, 2));
+            Actor start = actorAt(read.getActors(), 1, 1), stop = actorAt(read.getActors(), 3, 3);
+            assertTrue(start.getProperties() instanceof StartPointProperties);
+            assertEquals(0, ((StopPointProperties) start.getProperties()).index);
+            assertFalse(stop.getProperties() instanceof StartPointProperties);
+            assertEquals(1, ((StopPointProperties) stop.getProperties()).index);
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void planeKeepsStartPoint() throws IOException
+    {
+        Plane plane = new Plane(10, 10);
+        plane.addActor(new PlanePointActor(new Point2D<Double>(1.0, 1.0), new StartPointProperties(0)));
+        plane.addActor(new PlanePointActor(new Point2D<Double>(8.0, 8.0), new StopPointProperties(1)));
+
+        Path path = Files.createTempFile("plane", ".ppef");
+        try
+        {
+            EnvironmentFile.write(plane, path);
+            Plane read = EnvironmentFile.readPlane(path);
+            assertTrue(actorAt(read.getActors(), 1, 1).getProperties() instanceof StartPointProperties);
+            assertFalse(actorAt(read.getActors(), 8, 8).getProperties() instanceof StartPointProperties);
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void gridRoundTripKeepsSolidCells() throws IOException
+    {
+        Grid grid = AStarTest.randomGrid(new Random(17), 37, 29, 0.3);
+        Path path = Files.createTempFile("grid", ".ppef");
+        try
+        {
+            EnvironmentFile.write(grid, path);
+            Grid read = EnvironmentFile.readGrid(path);
+            assertEquals(grid.getRows(), read.getRows());
+            assertEquals(grid.getCols(), read.getCols());
+            assertArrayEquals(grid.getSolidBits(), read.getSolidBits());
+            for(int y = 0; y < grid.getRows(); y++)
+                for(int x = 0; x < grid.getCols(); x++)
+                    assertEquals(grid.isSolid(x, y), read.isSolid(x, y));
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void planeRoundTripKeepsVerticesAndFlags() throws IOException
+    {
+        Plane plane = new Plane(50, 40);
+        List<PlaneActor> actors = Arrays.asList(
+                new PlanePointActor(new Point2D<Double>(2.5, 3.25), new Properties()),
+                new PlaneLineActor(new Point2D<Double>(4.0, 4.0), new Point2D<Double>(9.5, 12.125), new BarrierProperties()),
+                new PlaneLineActor(new Point2D<Double>(30.0, 5.0), new Point2D<Double>(35.0, 5.0), MOVABLE_BARRIER),
+                new PlanePolygonActor(new BarrierProperties(), new Point2D<Double>(15.0, 20.0),
+                        new Point2D<Double>(22.0, 20.0), new Point2D<Double>(18.5, 27.75)),
+                new PlanePolygonActor(MOVABLE_BARRIER, new Point2D<Double>(30.0, 30.0), new Point2D<Double>(36.0, 30.0),
+                        new Point2D<Double>(36.0, 36.0), new Point2D<Double>(30.0, 36.0)));
+        for(PlaneActor actor : actors)
+            plane.addActor(actor);
+
+        Path path = Files.createTempFile("plane", ".ppef");
+        try
+        {
+            EnvironmentFile.write(plane, path);
+            Plane read = EnvironmentFile.readPlane(path);
+            assertEquals(plane.getRows(), read.getRows());
+            assertEquals(plane.getCols(), read.getCols());
+            assertEquals(actors.size(), read.getActors().size());
+
+            Map<List<Point2D<Double>>, PlaneActor> byVertices = new HashMap<>();
+            for(PlaneActor actor : read.getActors())
+                byVertices.put(actor.getVertexPoints(), actor);
+            for(PlaneActor actor : actors)
+            {
+                PlaneActor readActor = byVertices.get(actor.getVertexPoints());
+                assertNotNull("no actor with vertices " + actor.getVertexPoints(), readActor);
+                assertEquals(actor.getClass(), readActor.getClass());
+                assertEquals(actor.getProperties().isSolid(), readActor.getProperties().isSolid());
+                assertEquals(actor.getProperties().isStatic(), readActor.getProperties().isStatic());
+            }
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
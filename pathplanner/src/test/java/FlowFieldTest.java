@@ -0,0 +1,144 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.FlowField;
+import com.pathplanner.pathplanners.FlowFieldPathFinder;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FlowFieldTest
+{
+    /**
+     * Checks that every cost of the field equals the cost of a field computed from scratch on the same Grid
+     */
+    private static void assertMatchesFreshField(FlowField field)
+    {
+        Grid grid = field.getGrid();
+        FlowField fresh = new FlowField(grid, field.getGoal(), field.isContainCorners());
+        fresh.detach();
+        for(int y = 0; y < grid.getRows(); y++)
+            for(int x = 0; x < grid.getCols(); x++)
+                assertEquals("cost of (" + x + "," + y + ")", fresh.getCost(x, y), field.getCost(x, y), 1e-3);
+    }
+
+    /**
+     * Flips the solidity of the given number of random cells, leaving the goal free
+     */
+    private static void flipCells(Random random, Grid grid, Point2D goal, int count)
+    {
+        for(int i = 0; i < count; i++)
+        {
+            int x = random.nextInt(grid.getCols()), y = random.nextInt(grid.getRows());
+            if(grid.isSolid(x, y))
+                grid.removeActors(new Point2D<Integer>(x, y));
+            else if(!goal.equals(new Point2D<Integer>(x, y)))
+                AStarTest.addBarrier(grid, x, y);
+            else
+                i--;
+        }
+    }
+
+    @Test
+    public void updateRepairsFewChangedCells()
+    {
+        Random random = new Random(12);
+        for(int map = 0; map < 30; map++)
+        {
+            int rows = 10 + random.nextInt(20), cols = 10 + random.nextInt(20);
+            Grid grid = AStarTest.randomGrid(random, rows, cols, 0.25);
+            Point2D<Integer> goal = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+            grid.removeActors(goal);
+            FlowField field = new FlowField(grid, goal, random.nextBoolean());
+
+            for(int round = 0; round < 10; round++)
+            {
+                // far fewer than 1/16 of the cells change, so the field is repaired in place
+                flipCells(random, grid, goal, 1 + random.nextInt(3));
+                assertTrue(field.hasChanges());
+                assertTrue(field.update());
+                assertFalse(field.hasChanges());
+                assertEquals(grid.getVersion(), field.getVersion());
+                assertMatchesFreshField(field);
+            }
+            field.detach();
+        }
+    }
+
+    @Test
+    public void updateRecomputesAfterManyChangedCells()
+    {
+        Random random = new Random(13);
+        Grid grid = AStarTest.randomGrid(random, 20, 20, 0.2);
+        Point2D<Integer> goal = new Point2D<Integer>(10, 10);
+        grid.removeActors(goal);
+        FlowField field = new FlowField(grid, goal, true);
+
+        // well over 1/16 of the 400 cells change
+        flipCells(random, grid, goal, 100);
+        assertTrue(field.update());
+        assertMatchesFreshField(field);
+        field.detach();
+    }
+
+    @Test
+    public void pathsMatchAStarAfterChanges()
+    {
+        Random random = new Random(14);
+        Grid grid = AStarTest.randomGrid(random, 25, 25, 0.25);
+        Point2D<Integer> goal = new Point2D<Integer>(12, 12);
+        grid.removeActors(goal);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        FlowFieldPathFinder pathFinder = new FlowFieldPathFinder(grid);
+
+        for(int round = 0; round < 10; round++)
+        {
+            for(int query = 0; query < 20; query++)
+            {
+                boolean containCorners = random.nextBoolean();
+                Point2D<Integer> start = new Point2D<Integer>(random.nextInt(25), random.nextInt(25));
+                List<Point2D> expected = aStar.generatePathSegment(start, goal, containCorners);
+                List<Point2D> actual = pathFinder.generatePathSegment(start, goal, containCorners);
+                if(expected == null)
+                    assertNull(actual);
+                else
+                {
+                    assertNotNull("no path found where AStar finds one", actual);
+                    assertEquals(AStarTest.checkedCost(grid, expected, start, goal, containCorners),
+                            AStarTest.checkedCost(grid, actual, start, goal, containCorners), 1e-3);
+                }
+            }
+            flipCells(random, grid, goal, 1 + random.nextInt(5));
+        }
+        pathFinder.clearFields();
+    }
+
+    @Test
+    public void evictedFieldsStopListening()
+    {
+        Grid grid = new Grid(10, 10);
+        FlowFieldPathFinder pathFinder = new FlowFieldPathFinder(grid, 2);
+        FlowField first = pathFinder.getField(new Point2D<Integer>(1, 1), true);
+        FlowField second = pathFinder.getField(new Point2D<Integer>(2, 2), true);
+        pathFinder.getField(new Point2D<Integer>(1, 1), true);
+        FlowField third = pathFinder.getField(new Point2D<Integer>(3, 3), true);
+        assertEquals(2, pathFinder.getFieldCount());
+
+        // the second field was the least recently used, so it was evicted and detached
+        AStarTest.addBarrier(grid, 5, 5);
+        assertTrue(first.hasChanges());
+        assertFalse(second.hasChanges());
+        assertTrue(third.hasChanges());
+        assertSame(first, pathFinder.getField(new Point2D<Integer>(1, 1), true));
+        assertNotSame(second, pathFinder.getField(new Point2D<Integer>(2, 2), true));
+
+        pathFinder.clearFields();
+        AStarTest.addBarrier(grid, 6, 6);
+        assertFalse(first.hasChanges());
+        assertEquals(0, pathFinder.getFieldCount());
+    }
+}
@@ -0,0 +1,119 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathprocessing.GridPathShortener;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GridPathShortenerTest
+{
+    /**
+     * Checks line of sight by testing every cell in the bounding box of the line. A cell blocks if it is solid and the
+     * line passes through its interior, meaning the corners of the cell lie strictly on both sides of the line.
+     * Coordinates are doubled so the cell corners are integers
+     */
+    private static boolean referenceLineOfSight(Grid grid, int x0, int y0, int x1, int y1)
+    {
+        for(int y = Math.min(y0, y1); y <= Math.max(y0, y1); y++)
+            for(int x = Math.min(x0, x1); x <= Math.max(x0, x1); x++)
+            {
+                if((x == x0 && y == y0) || !grid.isSolid(x, y))
+                    continue;
+                boolean positive = false, negative = false;
+                for(int cornerX = 2 * x - 1; cornerX <= 2 * x + 1; cornerX += 2)
+                    for(int cornerY = 2 * y - 1; cornerY <= 2 * y + 1; cornerY += 2)
+                    {
+                        long side = (long) (x1 - x0) * (cornerY - 2 * y0) - (long) (y1 - y0) * (cornerX - 2 * x0);
+                        positive |= side > 0;
+                        negative |= side < 0;
+                    }
+                if(positive && negative)
+                    return false;
+            }
+        return true;
+    }
+
+    @Test
+    public void lineOfSightMatchesReference()
+    {
+        Random random = new Random(23);
+        for(int map = 0; map < 20; map++)
+        {
+            int rows = 5 + random.nextInt(20), cols = 5 + random.nextInt(20);
+            Grid grid = AStarTest.randomGrid(random, rows, cols, random.nextDouble() * 0.4);
+            for(int query = 0; query < 200; query++)
+            {
+                int x0 = random.nextInt(cols), y0 = random.nextInt(rows), x1 = random.nextInt(cols), y1 = random.nextInt(rows);
+                assertEquals("(" + x0 + "," + y0 + ") to (" + x1 + "," + y1 + ")", referenceLineOfSight(grid, x0, y0, x1, y1),
+                        GridPathShortener.lineOfSight(grid, x0, y0, x1, y1));
+            }
+        }
+    }
+
+    @Test
+    public void diagonalPassesBetweenSolidCornerCells()
+    {
+        Grid grid = new Grid(5, 5);
+        AStarTest.addBarrier(grid, 1, 0);
+        AStarTest.addBarrier(grid, 0, 1);
+        AStarTest.addBarrier(grid, 3, 2);
+        AStarTest.addBarrier(grid, 2, 3);
+
+        // the diagonal only touches the corners of the solid cells beside it, like a diagonal step
+        assertTrue(GridPathShortener.lineOfSight(grid, 0, 0, 4, 4));
+        assertTrue(GridPathShortener.lineOfSight(grid, 4, 4, 0, 0));
+        assertFalse(GridPathShortener.lineOfSight(grid, 0, 0, 4, 3));
+
+        AStarTest.addBarrier(grid, 2, 2);
+        assertFalse(GridPathShortener.lineOfSight(grid, 0, 0, 4, 4));
+        assertTrue(GridPathShortener.lineOfSight(grid, 0, 0, 1, 1));
+    }
+
+    @Test
+    public void shortenedPathKeepsEndsAndLineOfSight()
+    {
+        Random random = new Random(24);
+        int shortened = 0;
+        for(int map = 0; map < 30; map++)
+        {
+            int rows = 10 + random.nextInt(30), cols = 10 + random.nextInt(30);
+            Grid grid = AStarTest.randomGrid(random, rows, cols, 0.25);
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(true);
+
+            for(int query = 0; query < 20; query++)
+            {
+                Point2D<Integer> start = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                Point2D<Integer> end = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                List<Point2D> path = aStar.generatePathSegment(start, end, random.nextBoolean());
+                if(path == null)
+                    continue;
+
+                List<Point2D> kept = GridPathShortener.shorten(grid, path);
+                assertEquals(start, kept.get(0));
+                assertEquals(end, kept.get(kept.size() - 1));
+                assertTrue(kept.size() <= path.size());
+                // the kept waypoints appear in the same order in the original path
+                for(int i = 1, last = 0; i < kept.size(); i++)
+                {
+                    int index = path.subList(last + 1, path.size()).indexOf(kept.get(i));
+                    assertTrue("waypoint " + kept.get(i) + " is not from the path", index >= 0);
+                    last += index + 1;
+                }
+                for(int i = 1; i < kept.size(); i++)
+                {
+                    Point2D a = kept.get(i - 1), b = kept.get(i);
+                    assertTrue("segment " + a + " to " + b + " is blocked", GridPathShortener.lineOfSight(grid,
+                            a.getX().intValue(), a.getY().intValue(), b.getX().intValue(), b.getY().intValue()));
+                }
+                if(kept.size() < path.size())
+                    shortened++;
+            }
+        }
+        assertTrue(shortened > 0);
+    }
+}
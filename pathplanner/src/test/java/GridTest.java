@@ -0,0 +1,97 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.gridActor.GridActor;
+import com.pathplanner.world.actor.properties.Properties;
+import com.pathplanner.world.actor.properties.StopPointProperties;
+import com.pathplanner.world.environment.EnvironmentEvent;
+import com.pathplanner.world.environment.EnvironmentListener;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GridTest
+{
+    private static class MovingProperties extends Properties
+    {
+        public boolean isSolid()
+        { return true; }
+
+        public boolean isStatic()
+        { return false; }
+    }
+
+    private static GridActor movingActor(int x, int y)
+    { return new GridActor(new Point2D<Integer>(x, y), new MovingProperties()) {}; }
+
+    @Test
+    public void removesActorThatMovedItself()
+    {
+        Grid grid = new Grid(5, 5);
+        GridActor actor = movingActor(1, 1);
+        grid.addActor(actor);
+        actor.setPosition(new Point2D<Integer>(3, 3));
+
+        assertTrue(grid.removeActor(actor));
+        assertFalse(grid.isSolid(1, 1));
+        assertFalse(grid.isOccupied(1, 1));
+        assertFalse(grid.isSolid(3, 3));
+    }
+
+    @Test
+    public void movesActorThatMovedItself()
+    {
+        Grid grid = new Grid(5, 5);
+        GridActor actor = movingActor(1, 1);
+        grid.addActor(actor);
+        actor.setPosition(new Point2D<Integer>(3, 3));
+
+        assertTrue(grid.moveActor(actor, new Point2D<Integer>(4, 2)));
+        assertFalse(grid.isSolid(1, 1));
+        assertTrue(grid.isSolid(4, 2));
+        assertSame(actor, grid.getActor(new Point2D<Integer>(4, 2)));
+    }
+
+    @Test
+    public void reportsSolidChangesToEnvironmentListeners()
+    {
+        Grid grid = new Grid(5, 5);
+        List<EnvironmentEvent<GridActor>> events = new ArrayList<>();
+        grid.addEnvironmentListener(events::add);
+
+        GridActor actor = movingActor(1, 1);
+        grid.addActor(actor);
+        grid.addActor(new GridActor(new Point2D<Integer>(2, 2), new StopPointProperties(0)) {});
+        grid.moveActor(actor, new Point2D<Integer>(3, 1));
+        grid.clearActors();
+
+        assertEquals(4, events.size());
+        assertTrue(events.get(0).isSolidChanged());
+        assertFalse(events.get(1).isSolidChanged());
+        assertTrue(events.get(2).isSolidChanged());
+        assertEquals(1, events.get(2).getOldBounds().getMinX(), 0);
+        assertEquals(3, events.get(2).getBounds().getMinX(), 0);
+        assertTrue(events.get(3).isSolidChanged());
+    }
+
+    @Test
+    public void listenerMayRemoveItself()
+    {
+        Grid grid = new Grid(5, 5);
+        List<EnvironmentEvent<GridActor>> events = new ArrayList<>();
+        grid.addEnvironmentListener(new EnvironmentListener<GridActor>()
+        {
+            public void environmentChanged(EnvironmentEvent<GridActor> event)
+            {
+                events.add(event);
+                grid.removeEnvironmentListener(this);
+            }
+        });
+
+        grid.addActor(movingActor(1, 1));
+        grid.addActor(movingActor(2, 2));
+        assertEquals(1, events.size());
+    }
+}
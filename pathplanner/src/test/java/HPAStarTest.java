@@ -0,0 +1,85 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.HPAStar;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HPAStarTest
+{
+    // the largest ratio between the cost of a path found by HPAStar and the optimal cost stated in its documentation
+    private static final double BOUND = 1.4;
+
+    /**
+     * Checks that HPAStar finds a path exactly when AStar does, and that its path is valid and within the bound
+     */
+    private static void assertWithinBound(Grid grid, AStar aStar, HPAStar hpaStar, Point2D start, Point2D end,
+                                          boolean containCorners)
+    {
+        List<Point2D> expected = aStar.generatePathSegment(start, end, containCorners);
+        List<Point2D> actual = hpaStar.generatePathSegment(start, end, containCorners);
+        if(expected == null)
+            assertNull(actual);
+        else
+        {
+            assertNotNull("no path found where AStar finds one", actual);
+            double optimal = AStarTest.checkedCost(grid, expected, start, end, containCorners);
+            assertTrue(AStarTest.checkedCost(grid, actual, start, end, containCorners) <= BOUND * optimal + 1e-9);
+        }
+    }
+
+    @Test
+    public void findsShortestPathBetweenNearbyCellsOfDifferentClusters()
+    {
+        Grid grid = new Grid(24, 24);
+        HPAStar hpaStar = new HPAStar(grid, 8);
+        Point2D<Integer> start = new Point2D<Integer>(3, 15), end = new Point2D<Integer>(4, 16);
+        assertEquals(Math.sqrt(2), AStarTest.checkedCost(grid, hpaStar.generatePathSegment(start, end, true), start, end, true), 1e-9);
+
+        // on an empty Grid every pair at most two clusters apart is searched directly
+        for(int x = 0; x <= 19; x++)
+            for(int y = 0; y < 24; y++)
+            {
+                Point2D<Integer> other = new Point2D<Integer>(x, y);
+                int dx = Math.abs(x - 3), dy = Math.abs(y - 15);
+                assertEquals(Math.max(dx, dy) + (Math.sqrt(2) - 1) * Math.min(dx, dy),
+                        AStarTest.checkedCost(grid, hpaStar.generatePathSegment(start, other, true), start, other, true), 1e-9);
+                assertEquals(dx + dy, AStarTest.checkedCost(grid, hpaStar.generatePathSegment(start, other, false), start, other, false), 1e-9);
+            }
+    }
+
+    @Test
+    public void staysWithinBoundOfAStar()
+    {
+        Random random = new Random(9);
+        for(int map = 0; map < 40; map++)
+        {
+            int rows = 10 + random.nextInt(50), cols = 10 + random.nextInt(50);
+            Grid grid = AStarTest.randomGrid(random, rows, cols, random.nextDouble() * 0.35);
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(true);
+            HPAStar hpaStar = new HPAStar(grid, 2 + random.nextInt(10));
+
+            for(int round = 0; round < 5; round++)
+            {
+                for(int query = 0; query < 20; query++)
+                    assertWithinBound(grid, aStar, hpaStar, new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows)),
+                            new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows)), random.nextBoolean());
+
+                // the abstract graph has to follow actors being added and removed
+                for(int i = 0; i < 1 + random.nextInt(10); i++)
+                {
+                    int x = random.nextInt(cols), y = random.nextInt(rows);
+                    if(grid.isSolid(x, y))
+                        grid.removeActors(new Point2D<Integer>(x, y));
+                    else
+                        AStarTest.addBarrier(grid, x, y);
+                }
+            }
+        }
+    }
+}
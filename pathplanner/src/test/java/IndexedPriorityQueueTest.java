@@ -0,0 +1,58 @@
+import com.pathplanner.pathplanners.IndexedPriorityQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndexedPriorityQueueTest
+{
+    @Test
+    public void pollsInKeyOrder()
+    {
+        Random random = new Random(20);
+        IndexedPriorityQueue queue = new IndexedPriorityQueue(500);
+        assertFalse(queue.hasSecondaryKeys());
+        double[] keys = new double[500];
+        for(int i = 0; i < 2000; i++)
+        {
+            int id = random.nextInt(500);
+            keys[id] = random.nextInt(100);
+            queue.update(id, keys[id]);
+        }
+        for(int i = 0; i < 100; i++)
+            queue.remove(random.nextInt(500));
+
+        double last = Double.NEGATIVE_INFINITY;
+        while(!queue.isEmpty())
+        {
+            double key = queue.peekKey();
+            int id = queue.poll();
+            assertEquals(keys[id], key, 0);
+            assertTrue(key >= last);
+            last = key;
+        }
+    }
+
+    @Test
+    public void secondaryKeysBreakTies()
+    {
+        IndexedPriorityQueue queue = new IndexedPriorityQueue(4, true);
+        assertTrue(queue.hasSecondaryKeys());
+        queue.update(0, 1, 3);
+        queue.update(1, 1, 1);
+        queue.update(2, 2, 0);
+        queue.update(3, 1, 2);
+        assertEquals(1, queue.peekSecondaryKey(), 0);
+        assertEquals(1, queue.poll());
+        assertEquals(3, queue.poll());
+        queue.update(2, 1, 5);
+        assertEquals(0, queue.poll());
+        assertEquals(5, queue.getSecondaryKey(2), 0);
+        assertEquals(2, queue.poll());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsSecondaryKeyWithoutSecondaryKeys()
+    { new IndexedPriorityQueue(4).update(0, 1, 1); }
+}
@@ -0,0 +1,63 @@
+import com.pathplanner.geometry.DoubleLine2D;
+import com.pathplanner.geometry.IntLine2D;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntLine2DTest
+{
+    private static int expectedOrientation(int x1, int y1, int x2, int y2, int x3, int y3)
+    {
+        BigInteger a = BigInteger.valueOf((long) x2 - x1).multiply(BigInteger.valueOf((long) y3 - y1));
+        BigInteger b = BigInteger.valueOf((long) x3 - x1).multiply(BigInteger.valueOf((long) y2 - y1));
+        return a.subtract(b).signum();
+    }
+
+    @Test
+    public void orientationIsExactForAnyInt()
+    {
+        int min = Integer.MIN_VALUE, max = Integer.MAX_VALUE;
+        assertEquals(-1, IntLine2D.orientation(min, min, max, max, max, max - 1));
+        assertEquals(1, IntLine2D.orientation(min, min, max, max, max - 1, max));
+        assertEquals(0, IntLine2D.orientation(min, min, max, max, 0, 0));
+        assertEquals(1, IntLine2D.orientation(min, max, max, min, max, max));
+
+        Random random = new Random(18);
+        for(int i = 0; i < 100000; i++)
+        {
+            int[] c = new int[6];
+            for(int j = 0; j < 6; j++)
+                c[j] = (i % 2 == 0) ? random.nextInt() : random.nextInt(2001) - 1000;
+            assertEquals(expectedOrientation(c[0], c[1], c[2], c[3], c[4], c[5]),
+                    IntLine2D.orientation(c[0], c[1], c[2], c[3], c[4], c[5]));
+        }
+    }
+
+    @Test
+    public void linesIntersectMatchesDoubleKernel()
+    {
+        Random random = new Random(19);
+        for(int i = 0; i < 100000; i++)
+        {
+            int[] c = new int[8];
+            for(int j = 0; j < 8; j++)
+                c[j] = random.nextInt(9) - 4;
+            assertEquals(DoubleLine2D.linesIntersect(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7]),
+                    IntLine2D.linesIntersect(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7]));
+        }
+    }
+
+    @Test
+    public void linesIntersectWithLargeCoordinates()
+    {
+        int min = Integer.MIN_VALUE, max = Integer.MAX_VALUE;
+        assertTrue(new IntLine2D(min, min, max, max).intersects(new IntLine2D(min, max, max, min)));
+        assertFalse(new IntLine2D(min, min, max, max - 1).intersects(new IntLine2D(max - 1, max, max, max)));
+        // a zero-length line collinear with the other one but beyond its end
+        assertFalse(IntLine2D.linesIntersect(max, max, max, max, min, min, 0, 0));
+        assertTrue(IntLine2D.linesIntersect(1, 1, 1, 1, min, min, max, max));
+    }
+}
@@ -0,0 +1,120 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.JumpPointSearch;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class JumpPointSearchTest
+{
+    /**
+     * Checks that consecutive jump points are joined by a straight or 45 degree line of free cells and returns the cost
+     */
+    private static double checkedCost(Grid grid, List<Point2D> path, Point2D start, Point2D end)
+    {
+        assertEquals(start, path.get(0));
+        assertEquals(end, path.get(path.size() - 1));
+        double cost = 0;
+        for(int i = 1; i < path.size(); i++)
+        {
+            int x = path.get(i - 1).getX().intValue(), y = path.get(i - 1).getY().intValue();
+            int toX = path.get(i).getX().intValue(), toY = path.get(i).getY().intValue();
+            int dx = Integer.signum(toX - x), dy = Integer.signum(toY - y);
+            assertTrue("jump is not straight or diagonal", toX == x || toY == y || Math.abs(toX - x) == Math.abs(toY - y));
+            while(x != toX || y != toY)
+            {
+                x += dx;
+                y += dy;
+                assertFalse("jump crosses a solid cell", grid.isSolid(x, y));
+            }
+            cost += path.get(i).distance(path.get(i - 1));
+        }
+        return cost;
+    }
+
+    private static void assertSameCosts(Random random, Grid grid, AStar aStar, JumpPointSearch jumpPointSearch, int queries)
+    {
+        for(int query = 0; query < queries; query++)
+        {
+            Point2D<Integer> start = new Point2D<Integer>(random.nextInt(grid.getCols()), random.nextInt(grid.getRows()));
+            Point2D<Integer> end = new Point2D<Integer>(random.nextInt(grid.getCols()), random.nextInt(grid.getRows()));
+            if(grid.isSolid(start.getX(), start.getY()))
+                continue;
+
+            List<Point2D> expected = aStar.generatePathSegment(start, end, true);
+            List<Point2D> actual = jumpPointSearch.generatePathSegment(start, end, true);
+            if(expected == null)
+                assertNull(actual);
+            else
+            {
+                assertNotNull("no path found where AStar finds one", actual);
+                assertEquals(AStarTest.checkedCost(grid, expected, start, end, true), checkedCost(grid, actual, start, end), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void matchesAStarOnRandomMaps()
+    {
+        Random random = new Random(3);
+        for(int map = 0; map < 60; map++)
+        {
+            Grid grid = AStarTest.randomGrid(random, 10 + random.nextInt(30), 10 + random.nextInt(30), 0.1 + 0.3 * random.nextDouble());
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(true);
+            JumpPointSearch jumpPointSearch = new JumpPointSearch(grid), precomputed = new JumpPointSearch(grid);
+            precomputed.setPrecomputed(true);
+
+            assertSameCosts(random, grid, aStar, jumpPointSearch, 20);
+            assertSameCosts(random, grid, aStar, precomputed, 20);
+        }
+    }
+
+    @Test
+    public void cutsCornersLikeAStar()
+    {
+        // the only way through is a diagonal step between two solid cells
+        Grid grid = new Grid(3, 3);
+        AStarTest.addBarrier(grid, 1, 0);
+        AStarTest.addBarrier(grid, 1, 2);
+        AStarTest.addBarrier(grid, 0, 1);
+        AStarTest.addBarrier(grid, 2, 1);
+
+        for(boolean precomputed : new boolean[]{false, true})
+        {
+            JumpPointSearch jumpPointSearch = new JumpPointSearch(grid);
+            jumpPointSearch.setPrecomputed(precomputed);
+            List<Point2D> path = jumpPointSearch.generatePathSegment(new Point2D<Integer>(0, 0), new Point2D<Integer>(2, 2), true);
+            assertNotNull(path);
+            assertEquals(2 * Math.sqrt(2), checkedCost(grid, path, new Point2D<Integer>(0, 0), new Point2D<Integer>(2, 2)), 1e-9);
+        }
+    }
+
+    @Test
+    public void rebuildsTablesAfterChanges()
+    {
+        Random random = new Random(4);
+        Grid grid = AStarTest.randomGrid(random, 30, 30, 0.2);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        JumpPointSearch precomputed = new JumpPointSearch(grid);
+        precomputed.setPrecomputed(true);
+
+        for(int round = 0; round < 10; round++)
+        {
+            assertSameCosts(random, grid, aStar, precomputed, 20);
+            for(int i = 0; i < 20; i++)
+            {
+                int x = random.nextInt(30), y = random.nextInt(30);
+                if(grid.isSolid(x, y))
+                    grid.removeActors(new Point2D<Integer>(x, y));
+                else
+                    AStarTest.addBarrier(grid, x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.LazyThetaStar;
+import com.pathplanner.pathprocessing.GridPathShortener;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LazyThetaStarTest
+{
+    /**
+     * Checks that the path runs from start to end and that every leg of it is in line of sight
+     */
+    private static void assertValid(Grid grid, List<Point2D> path, Point2D start, Point2D end)
+    {
+        assertEquals(start, path.get(0));
+        assertEquals(end, path.get(path.size() - 1));
+        for(int i = 1; i < path.size(); i++)
+        {
+            Point2D a = path.get(i - 1), b = path.get(i);
+            assertTrue("leg " + a + " to " + b + " is blocked", GridPathShortener.lineOfSight(grid,
+                    a.getX().intValue(), a.getY().intValue(), b.getX().intValue(), b.getY().intValue()));
+        }
+    }
+
+    @Test
+    public void findsValidPathExactlyWhenAStarDoes()
+    {
+        Random random = new Random(4);
+        int unreachable = 0, reachable = 0;
+        for(int map = 0; map < 40; map++)
+        {
+            int rows = 10 + random.nextInt(30), cols = 10 + random.nextInt(30);
+            Grid grid = AStarTest.randomGrid(random, rows, cols, 0.3);
+            AStar aStar = new AStar(grid);
+            aStar.setIndexedSearch(true);
+            LazyThetaStar lazyThetaStar = new LazyThetaStar(grid);
+
+            for(int query = 0; query < 20; query++)
+            {
+                boolean containCorners = random.nextBoolean();
+                Point2D<Integer> start = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+                Point2D<Integer> end = new Point2D<Integer>(random.nextInt(cols), random.nextInt(rows));
+
+                List<Point2D> path = lazyThetaStar.generatePathSegment(start, end, containCorners);
+                if(aStar.generatePathSegment(start, end, containCorners) == null)
+                {
+                    assertNull(path);
+                    unreachable++;
+                }
+                else
+                {
+                    assertNotNull("no path found where AStar finds one", path);
+                    assertValid(grid, path, start, end);
+                    reachable++;
+                }
+            }
+        }
+        assertTrue(unreachable > 0 && reachable > 0);
+    }
+
+    @Test
+    public void returnsSinglePointWhenStartIsEnd()
+    {
+        Grid grid = new Grid(10, 10);
+        Point2D<Integer> point = new Point2D<Integer>(4, 6);
+        List<Point2D> path = new LazyThetaStar(grid).generatePathSegment(point, point, true);
+        assertEquals(1, path.size());
+        assertEquals(point, path.get(0));
+    }
+
+    @Test
+    public void returnsNullForSolidGoal()
+    {
+        Grid grid = new Grid(10, 10);
+        AStarTest.addBarrier(grid, 7, 7);
+        LazyThetaStar lazyThetaStar = new LazyThetaStar(grid);
+        assertNull(lazyThetaStar.generatePathSegment(new Point2D<Integer>(0, 0), new Point2D<Integer>(7, 7), true));
+        assertNull(lazyThetaStar.generatePathSegment(new Point2D<Integer>(7, 7), new Point2D<Integer>(7, 7), false));
+    }
+
+    @Test
+    public void cutsAcrossOpenGrid()
+    {
+        Grid grid = new Grid(20, 20);
+        Point2D<Integer> start = new Point2D<Integer>(0, 0), end = new Point2D<Integer>(19, 5);
+        List<Point2D> path = new LazyThetaStar(grid).generatePathSegment(start, end, true);
+        assertEquals(2, path.size());
+        assertValid(grid, path, start, end);
+    }
+}
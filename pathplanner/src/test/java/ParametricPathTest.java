@@ -0,0 +1,82 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.geometry.Vector2D;
+import com.pathplanner.pathprocessing.ParametricPath;
+import com.pathplanner.pathprocessing.pathSegment.RouteLineSegment;
+import com.pathplanner.pathprocessing.pathSegment.RouteSegment;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParametricPathTest
+{
+    private static void assertPoint(double x, double y, Point2D point)
+    {
+        assertEquals(x, point.getX().doubleValue(), 1e-9);
+        assertEquals(y, point.getY().doubleValue(), 1e-9);
+    }
+
+    private static void assertDirection(double x, double y, Vector2D tangent)
+    {
+        double length = Math.hypot(tangent.getX(), tangent.getY());
+        assertEquals(x, tangent.getX() / length, 1e-9);
+        assertEquals(y, tangent.getY() / length, 1e-9);
+    }
+
+    @Test
+    public void linePathMatchesAnalyticDistances()
+    {
+        // legs of length 5, 6 and 5
+        ParametricPath path = new ParametricPath(Arrays.asList(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(3.0, 4.0),
+                new Point2D<Double>(3.0, 10.0), new Point2D<Double>(-2.0, 10.0)));
+        assertEquals(16, path.totalLength(), 1e-9);
+        assertEquals(16, path.distance(), 1e-9);
+
+        assertPoint(1.5, 2, path.pointAtDistance(2.5));
+        assertPoint(3, 4, path.pointAtDistance(5));
+        assertPoint(3, 7, path.pointAtDistance(8));
+        assertPoint(3, 10, path.pointAtDistance(11));
+        assertPoint(0, 10, path.pointAtDistance(14));
+        assertEquals(1.5, path.parameterAtDistance(8), 1e-9);
+
+        assertDirection(0.6, 0.8, path.tangentAtDistance(2.5));
+        assertDirection(0, 1, path.tangentAtDistance(8));
+        assertDirection(-1, 0, path.tangentAtDistance(14));
+    }
+
+    @Test
+    public void distancesOutsidePathAreClamped()
+    {
+        ParametricPath path = new ParametricPath(Arrays.asList(new Point2D<Double>(1.0, 1.0), new Point2D<Double>(4.0, 5.0),
+                new Point2D<Double>(4.0, 9.0)));
+        assertEquals(0, path.parameterAtDistance(-1), 0);
+        assertEquals(0, path.parameterAtDistance(Double.NEGATIVE_INFINITY), 0);
+        assertEquals(2, path.parameterAtDistance(9.5), 0);
+        assertEquals(2, path.parameterAtDistance(Double.POSITIVE_INFINITY), 0);
+        assertPoint(1, 1, path.pointAtDistance(-1));
+        assertPoint(4, 9, path.pointAtDistance(100));
+        assertDirection(0.6, 0.8, path.tangentAtDistance(-1));
+        assertDirection(0, 1, path.tangentAtDistance(100));
+    }
+
+    @Test
+    public void curvedSegmentMatchesAnalyticLength()
+    {
+        // a line of length 3 followed by y = x^2 shifted to start at its end
+        List<Point2D<Double>> points = Arrays.asList(new Point2D<Double>(-3.0, 0.0), new Point2D<Double>(0.0, 0.0),
+                new Point2D<Double>(1.0, 1.0));
+        List<RouteSegment> segments = Arrays.asList(new RouteLineSegment(points.get(0), points.get(1)), RouteSegmentTest.parabola());
+        ParametricPath path = new ParametricPath(points, segments);
+        assertEquals(3 + RouteSegmentTest.parabolaLength(1), path.totalLength(), 1e-9);
+
+        for(int i = 0; i <= 10; i++)
+        {
+            double x = i / 10.0;
+            assertPoint(x, x * x, path.pointAtDistance(3 + RouteSegmentTest.parabolaLength(x)));
+            assertDirection(1 / Math.sqrt(1 + 4 * x * x), 2 * x / Math.sqrt(1 + 4 * x * x),
+                    path.tangentAtDistance(3 + RouteSegmentTest.parabolaLength(x)));
+        }
+    }
+}
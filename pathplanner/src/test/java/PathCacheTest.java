@@ -0,0 +1,94 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathplanners.AStar;
+import com.pathplanner.pathplanners.CachingPathFinder;
+import com.pathplanner.pathplanners.LazyThetaStar;
+import com.pathplanner.pathplanners.PathCache;
+import com.pathplanner.world.environment.Grid;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PathCacheTest
+{
+    private static final Point2D<Integer> START = new Point2D<Integer>(0, 0), END = new Point2D<Integer>(7, 3);
+
+    @Test
+    public void pathFindersSharingCacheGetTheirOwnPaths()
+    {
+        Grid grid = new Grid(10, 10);
+        PathCache cache = new PathCache(100, 1 << 20);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        CachingPathFinder<Grid> cachedAStar = new CachingPathFinder<>(aStar, cache);
+        CachingPathFinder<Grid> cachedTheta = new CachingPathFinder<>(new LazyThetaStar(grid), cache);
+
+        List<Point2D> aStarPath = cachedAStar.generatePathSegment(START, END, true);
+        List<Point2D> thetaPath = cachedTheta.generatePathSegment(START, END, true);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(8, aStarPath.size());
+        assertEquals(2, thetaPath.size());
+
+        assertEquals(aStarPath, cachedAStar.generatePathSegment(START, END, true));
+        assertEquals(thetaPath, cachedTheta.generatePathSegment(START, END, true));
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void changedSettingsMissTheCache()
+    {
+        Grid grid = new Grid(10, 10);
+        PathCache cache = new PathCache(100, 1 << 20);
+        AStar aStar = new AStar(grid);
+        CachingPathFinder<Grid> cached = new CachingPathFinder<>(aStar, cache);
+
+        cached.generatePathSegment(START, END, true);
+        cached.generatePathSegment(START, END, true);
+        assertEquals(1, cache.getHitCount());
+
+        long settingsVersion = cached.getSettingsVersion();
+        aStar.setIndexedSearch(true);
+        assertNotEquals(settingsVersion, cached.getSettingsVersion());
+        cached.generatePathSegment(START, END, true);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void answersReversedQueryWithReversedPath()
+    {
+        Grid grid = new Grid(10, 10);
+        PathCache cache = new PathCache(100, 1 << 20);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        CachingPathFinder<Grid> cached = new CachingPathFinder<>(aStar, cache);
+
+        List<Point2D> path = cached.generatePathSegment(START, END, true);
+        List<Point2D> reversed = cached.generatePathSegment(END, START, true);
+        assertEquals(1, cache.getReverseHitCount());
+        assertEquals(path.size(), reversed.size());
+        for(int i = 0; i < path.size(); i++)
+            assertEquals(path.get(i), reversed.get(reversed.size() - 1 - i));
+    }
+
+    @Test
+    public void neverReversesPathsEndingOnSolidCell()
+    {
+        Grid grid = new Grid(10, 10);
+        AStarTest.addBarrier(grid, 0, 0);
+        Point2D<Integer> solid = new Point2D<Integer>(0, 0), free = new Point2D<Integer>(5, 5);
+        PathCache cache = new PathCache(100, 1 << 20);
+        AStar aStar = new AStar(grid);
+        aStar.setIndexedSearch(true);
+        CachingPathFinder<Grid> cached = new CachingPathFinder<>(aStar, cache);
+
+        // a path may leave a solid cell but not enter one
+        assertNull(cached.generatePathSegment(free, solid, true));
+        List<Point2D> path = cached.generatePathSegment(solid, free, true);
+        assertNotNull(path);
+        assertEquals(6, path.size());
+        assertNull(cached.generatePathSegment(free, solid, true));
+        assertEquals(0, cache.getReverseHitCount());
+    }
+}
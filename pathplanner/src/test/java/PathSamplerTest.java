@@ -0,0 +1,131 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathprocessing.ParametricPath;
+import com.pathplanner.pathprocessing.PathSampler;
+import com.pathplanner.pathprocessing.pathSegment.RouteLineSegment;
+import com.pathplanner.pathprocessing.pathSegment.RouteSegment;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PathSamplerTest
+{
+    // legs of length 5, 6 and 5
+    private static ParametricPath linePath()
+    {
+        return new ParametricPath(Arrays.asList(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(3.0, 4.0),
+                new Point2D<Double>(3.0, 10.0), new Point2D<Double>(-2.0, 10.0)));
+    }
+
+    // a line of length 3 followed by y = x^2 for x from 0 to 1
+    private static ParametricPath curvedPath()
+    {
+        List<Point2D<Double>> points = Arrays.asList(new Point2D<Double>(-3.0, 0.0), new Point2D<Double>(0.0, 0.0),
+                new Point2D<Double>(1.0, 1.0));
+        List<RouteSegment> segments = Arrays.asList(new RouteLineSegment(points.get(0), points.get(1)), RouteSegmentTest.parabola());
+        return new ParametricPath(points, segments);
+    }
+
+    private static double[] nextAll(PathSampler sampler)
+    {
+        double[] samples = new double[sampler.getSampleCount() * PathSampler.STRIDE];
+        for(int i = 0; sampler.hasNext(); i++)
+            sampler.next(samples, i * PathSampler.STRIDE);
+        return samples;
+    }
+
+    @Test
+    public void producesExpectedSampleCount()
+    {
+        ParametricPath path = linePath();
+        assertEquals(17, path.sampleByDistance(1).getSampleCount());
+        assertEquals(7, path.sampleByDistance(3).getSampleCount());
+        assertEquals(161, path.sampleByDistance(0.1).getSampleCount());
+        assertEquals(2, path.sampleByDistance(100).getSampleCount());
+        assertEquals(7, path.sampleByParameter(0.5).getSampleCount());
+        assertEquals(9, path.sampleByParameter(0.4).getSampleCount());
+
+        PathSampler sampler = path.sampleByDistance(3);
+        assertEquals(sampler.getSampleCount() * PathSampler.STRIDE, nextAll(sampler).length);
+        assertFalse(sampler.hasNext());
+    }
+
+    @Test
+    public void lastSampleIsExactlyTheEnd()
+    {
+        for(ParametricPath path : new ParametricPath[]{linePath(), curvedPath()})
+            for(PathSampler sampler : new PathSampler[]{path.sampleByDistance(0.3), path.sampleByDistance(7),
+                    path.sampleByParameter(0.3), path.sampleByParameter(0.25)})
+            {
+                double[] samples = nextAll(sampler);
+                int last = samples.length - PathSampler.STRIDE;
+                Point2D end = path.getPosition(path.size() - 1);
+                assertEquals(0, samples[0], 0);
+                assertEquals(path.getSegmentCount(), samples[last], 0);
+                assertEquals(end.getX().doubleValue(), samples[last + 1], 0);
+                assertEquals(end.getY().doubleValue(), samples[last + 2], 0);
+            }
+    }
+
+    @Test
+    public void distanceSamplesAreEvenlySpacedAlongCurves()
+    {
+        ParametricPath path = curvedPath();
+        double[] samples = nextAll(path.sampleByDistance(0.25));
+        for(int i = 0; i < samples.length / PathSampler.STRIDE; i++)
+        {
+            double expected = Math.min(i * 0.25, path.totalLength());
+            assertEquals(path.parameterAtDistance(expected), samples[i * PathSampler.STRIDE], 1e-12);
+            // past the line, x of the sample is the x at which the parabola has the expected length
+            double x = samples[i * PathSampler.STRIDE + 1];
+            if(x > 0)
+                assertEquals(expected - 3, RouteSegmentTest.parabolaLength(x), 1e-9);
+        }
+    }
+
+    @Test
+    public void fillAndForEachRemainingMatchNext()
+    {
+        for(ParametricPath path : new ParametricPath[]{linePath(), curvedPath()})
+        {
+            PathSampler sampler = path.sampleByDistance(0.35);
+            double[] expected = nextAll(sampler);
+            int count = sampler.getSampleCount();
+
+            // fill in chunks that do not divide the sample count
+            sampler.reset();
+            double[] filled = new double[count * PathSampler.STRIDE + 1];
+            int written = 0;
+            while(sampler.hasNext())
+                written += sampler.fill(filled, 1 + written * PathSampler.STRIDE, 3);
+            assertEquals(count, written);
+            assertEquals(0, sampler.fill(filled, 0, 3));
+            assertArrayEquals(expected, Arrays.copyOfRange(filled, 1, filled.length), 0);
+
+            sampler.reset();
+            double[] consumed = new double[count * PathSampler.STRIDE];
+            int[] index = {0};
+            sampler.forEachRemaining((t, x, y, tangentX, tangentY) ->
+            {
+                int offset = index[0]++ * PathSampler.STRIDE;
+                consumed[offset] = t;
+                consumed[offset + 1] = x;
+                consumed[offset + 2] = y;
+                consumed[offset + 3] = tangentX;
+                consumed[offset + 4] = tangentY;
+            });
+            assertEquals(count, index[0]);
+            assertArrayEquals(expected, consumed, 0);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nextFailsPastTheEnd()
+    {
+        PathSampler sampler = linePath().sampleByDistance(100);
+        nextAll(sampler);
+        sampler.next(new double[PathSampler.STRIDE], 0);
+    }
+}
@@ -0,0 +1,105 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.geometry.Vector2D;
+import com.pathplanner.pathprocessing.pathSegment.RouteBezierSegment;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RouteBezierSegmentTest
+{
+    /**
+     * Evaluates the Bezier curve with the given control coordinates at t by repeated linear interpolation
+     */
+    private static double deCasteljau(double[] coordinates, double t)
+    {
+        double[] values = coordinates.clone();
+        for(int level = values.length - 1; level > 0; level--)
+            for(int i = 0; i < level; i++)
+                values[i] = values[i] * (1 - t) + values[i + 1] * t;
+        return values[0];
+    }
+
+    /**
+     * Evaluates the derivative of the Bezier curve at t, which is the degree times the curve of the differences
+     */
+    private static double deCasteljauDerivative(double[] coordinates, double t)
+    {
+        double[] differences = new double[coordinates.length - 1];
+        for(int i = 0; i < differences.length; i++)
+            differences[i] = coordinates[i + 1] - coordinates[i];
+        return differences.length * deCasteljau(differences, t);
+    }
+
+    @Test
+    public void powerBasisMatchesDeCasteljau()
+    {
+        Random random = new Random(21);
+        double[] point = new double[2], tangent = new double[2];
+        for(int degree = 2; degree <= 7; degree++)
+            for(int curve = 0; curve < 10; curve++)
+            {
+                double[] x = new double[degree + 1], y = new double[degree + 1];
+                RouteBezierSegment segment = new RouteBezierSegment();
+                for(int i = 0; i <= degree; i++)
+                {
+                    x[i] = random.nextDouble() * 100;
+                    y[i] = random.nextDouble() * 100;
+                    segment.addConstraint(new Point2D<Double>(x[i], y[i]));
+                }
+
+                for(int i = 0; i <= 20; i++)
+                {
+                    double t = i / 20.0;
+                    Point2D p = segment.getPoint(t);
+                    assertEquals(deCasteljau(x, t), p.getX().doubleValue(), 1e-9);
+                    assertEquals(deCasteljau(y, t), p.getY().doubleValue(), 1e-9);
+                    segment.getPoint(t, point, 0);
+                    assertEquals(deCasteljau(x, t), point[0], 1e-9);
+                    assertEquals(deCasteljau(y, t), point[1], 1e-9);
+
+                    Vector2D v = segment.getTangent(t);
+                    assertEquals(deCasteljauDerivative(x, t), v.getX(), 1e-7);
+                    assertEquals(deCasteljauDerivative(y, t), v.getY(), 1e-7);
+                    segment.getTangent(t, tangent, 0);
+                    assertEquals(deCasteljauDerivative(x, t), tangent[0], 1e-7);
+                    assertEquals(deCasteljauDerivative(y, t), tangent[1], 1e-7);
+                }
+            }
+    }
+
+    @Test
+    public void quadraticArcLengthMatchesClosedForm()
+    {
+        double[][] curves = {{0, 0, 5, 10, 10, 0}, {0, 0, 30, 1, 2, 40}, {-3, 7, 12, -9, 4, 25}};
+        for(double[] c : curves)
+        {
+            RouteBezierSegment segment = new RouteBezierSegment(new Point2D<Double>(c[0], c[1]),
+                    new Point2D<Double>(c[2], c[3]), new Point2D<Double>(c[4], c[5]));
+
+            // the speed is 2|a + bt|, so the length is 2 times the integral of sqrt(A t^2 + B t + C) over [0, 1]
+            double ax = c[2] - c[0], ay = c[3] - c[1], bx = c[4] - 2 * c[2] + c[0], by = c[5] - 2 * c[3] + c[1];
+            double a = bx * bx + by * by, b = 2 * (ax * bx + ay * by), cc = ax * ax + ay * ay;
+            double expected = 2 * (antiderivative(a, b, cc, 1) - antiderivative(a, b, cc, 0));
+
+            assertEquals(expected, segment.getArcLength(), 1e-9 * expected);
+            assertEquals(expected, segment.getDistance(), 1e-9 * expected);
+        }
+    }
+
+    private static double antiderivative(double a, double b, double c, double t)
+    {
+        double root = Math.sqrt(a * t * t + b * t + c);
+        return (2 * a * t + b) / (4 * a) * root
+                + (4 * a * c - b * b) / (8 * Math.pow(a, 1.5)) * Math.log(2 * Math.sqrt(a) * root + 2 * a * t + b);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsCurveWithoutControlPoint()
+    {
+        RouteBezierSegment segment = new RouteBezierSegment(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(1.0, 1.0));
+        assertEquals(3, segment.getMinConstraints());
+        segment.getPoint(0.5);
+    }
+}
@@ -0,0 +1,72 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.pathprocessing.pathSegment.RouteBezierSegment;
+import com.pathplanner.pathprocessing.pathSegment.RouteLineSegment;
+import com.pathplanner.pathprocessing.pathSegment.RouteSegment;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RouteSegmentTest
+{
+    @Test(timeout = 5000)
+    public void getPointsSamplesEvenlyFromTheStart()
+    {
+        RouteSegment segment = new RouteLineSegment(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(100.0, 50.0));
+        for(int count : new int[]{1, 10, 1000})
+        {
+            List<Point2D> points = segment.getPoints(count);
+            assertEquals(count, points.size());
+            for(int i = 0; i < count; i++)
+            {
+                assertEquals(100.0 * i / count, points.get(i).getX().doubleValue(), 1e-9);
+                assertEquals(50.0 * i / count, points.get(i).getY().doubleValue(), 1e-9);
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void getTangentsReturnsOneTangentPerSample()
+    { assertEquals(1000, new RouteLineSegment(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(3.0, 4.0)).getTangents(1000).size()); }
+
+    /**
+     * The arc length of y = x^2 from 0 to x
+     */
+    static double parabolaLength(double x)
+    { return x * Math.sqrt(1 + 4 * x * x) / 2 + Math.log(2 * x + Math.sqrt(1 + 4 * x * x)) / 4; }
+
+    /**
+     * A quadratic Bezier segment tracing y = x^2 for x from 0 to 1, with x = t
+     */
+    static RouteBezierSegment parabola()
+    { return new RouteBezierSegment(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(0.5, 0.0), new Point2D<Double>(1.0, 1.0)); }
+
+    @Test
+    public void parameterAtDistanceInvertsUnevenSpeed()
+    {
+        // a straight cubic that is slow near its ends, so t and distance differ everywhere except at 0, 1/2 and 1
+        RouteSegment segment = new RouteBezierSegment(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(1.0, 0.0),
+                new Point2D<Double>(9.0, 0.0), new Point2D<Double>(10.0, 0.0));
+        assertEquals(10, segment.getArcLength(), 1e-9);
+        for(int i = 0; i <= 100; i++)
+        {
+            double distance = i / 10.0;
+            assertEquals(distance, segment.getPoint(segment.parameterAtDistance(distance)).getX().doubleValue(), 1e-9);
+        }
+        assertEquals(0, segment.parameterAtDistance(-3), 0);
+        assertEquals(1, segment.parameterAtDistance(12), 0);
+    }
+
+    @Test
+    public void curvedSegmentMatchesAnalyticLength()
+    {
+        RouteSegment segment = parabola();
+        assertEquals(parabolaLength(1), segment.getArcLength(), 1e-9);
+        for(int i = 0; i <= 20; i++)
+        {
+            double x = i / 20.0;
+            assertEquals(x, segment.parameterAtDistance(parabolaLength(x)), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.geometry.Pose2D;
+import com.pathplanner.pathprocessing.ParametricPath;
+import com.pathplanner.pathprocessing.PosePath;
+import com.pathplanner.pathprocessing.TrajectoryGenerator;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TrajectoryGeneratorTest
+{
+    private static ParametricPath line(double length)
+    { return new ParametricPath(Arrays.asList(new Point2D<Double>(0.0, 0.0), new Point2D<Double>(length, 0.0))); }
+
+    private static void assertPose(double x, double velocity, Pose2D<Double> pose)
+    {
+        assertEquals(x, pose.getX(), 1e-6);
+        assertEquals(0, pose.getY(), 1e-9);
+        assertEquals(velocity, pose.getVelocity().getX(), 1e-6);
+        assertEquals(0, pose.getVelocity().getY(), 1e-9);
+    }
+
+    @Test
+    public void lineFollowsTrapezoidProfile()
+    {
+        // 2 s to reach 2 m/s over 2 m, 3 s to cruise the middle 6 m and 2 s to stop
+        PosePath trajectory = new TrajectoryGenerator(2, 1, 1).generate(line(10));
+        assertEquals(7, trajectory.getDuration(), 1e-6);
+        for(int i = 0; i < trajectory.size(); i++)
+        {
+            Pose2D<Double> pose = trajectory.getPosition(i);
+            assertTrue(pose.getVelocity().getX() <= 2 + 1e-9);
+            assertTrue(Math.abs(pose.getAcceleration().getX()) <= 1 + 1e-9);
+            if(i > 0)
+                assertTrue(trajectory.getTime(i) > trajectory.getTime(i - 1));
+        }
+    }
+
+    @Test
+    public void shortLineFollowsTriangleProfile()
+    {
+        // the limit speed is never reached: accelerate over 1 m to sqrt(2) m/s, then stop over 1 m
+        PosePath trajectory = new TrajectoryGenerator(2, 1, 1).generate(line(2));
+        assertEquals(2 * Math.sqrt(2), trajectory.getDuration(), 1e-6);
+        assertPose(1, Math.sqrt(2), trajectory.sampleAt(Math.sqrt(2)));
+    }
+
+    @Test
+    public void sampleAtInterpolatesBetweenPoses()
+    {
+        PosePath trajectory = new TrajectoryGenerator(2, 1, 1).generate(line(10));
+
+        // the ends, and times outside of the trajectory
+        assertPose(0, 0, trajectory.sampleAt(0));
+        assertPose(0, 0, trajectory.sampleAt(-1));
+        assertPose(10, 0, trajectory.sampleAt(trajectory.getDuration()));
+        assertPose(10, 0, trajectory.sampleAt(100));
+
+        // at a pose, and between poses while accelerating, cruising and braking
+        Pose2D<Double> pose = trajectory.getPosition(5);
+        assertPose(pose.getX(), pose.getVelocity().getX(), trajectory.sampleAt(trajectory.getTime(5)));
+        assertPose(0.5, 1, trajectory.sampleAt(1));
+        assertPose(5, 2, trajectory.sampleAt(3.5));
+        assertPose(9.5, 1, trajectory.sampleAt(6));
+        assertEquals(1, trajectory.sampleAt(1).getAcceleration().getX(), 1e-6);
+        assertEquals(-1, trajectory.sampleAt(6).getAcceleration().getX(), 1e-6);
+    }
+}
@@ -0,0 +1,84 @@
+import com.pathplanner.geometry.Point2D;
+import com.pathplanner.world.actor.planeActor.PlaneActor;
+import com.pathplanner.world.actor.planeActor.PlaneLineActor;
+import com.pathplanner.world.actor.planeActor.PlanePolygonActor;
+import com.pathplanner.world.actor.properties.Properties;
+import com.pathplanner.world.environment.Plane;
+import com.pathplanner.world.environment.VisibilityGraph;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class VisibilityGraphTest
+{
+    private static final Properties MOVABLE_BARRIER = new Properties()
+    {
+        @Override
+        public boolean isSolid()
+        { return true; }
+
+        @Override
+        public boolean isStatic()
+        { return false; }
+    };
+
+    private static Set<Set<Point2D<Double>>> edges(VisibilityGraph graph)
+    {
+        Set<Set<Point2D<Double>>> edges = new HashSet<>();
+        BitSet nodes = graph.getNodes();
+        for(int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+        {
+            BitSet neighbors = graph.getNeighbors(i);
+            for(int j = neighbors.nextSetBit(0); j >= 0; j = neighbors.nextSetBit(j + 1))
+                edges.add(new HashSet<>(Arrays.asList(graph.getPoint(i), graph.getPoint(j))));
+        }
+        return edges;
+    }
+
+    private static PlaneActor randomActor(Random random)
+    {
+        double x = 5 + random.nextDouble() * 85, y = 5 + random.nextDouble() * 85;
+        double width = 1 + random.nextDouble() * 8, height = 1 + random.nextDouble() * 8;
+        if(random.nextInt(3) == 0)
+            return new PlaneLineActor(new Point2D<Double>(x, y), new Point2D<Double>(x + width, y + height), MOVABLE_BARRIER);
+        return new PlanePolygonActor(MOVABLE_BARRIER, new Point2D<Double>(x, y), new Point2D<Double>(x + width, y),
+                new Point2D<Double>(x + width, y + height), new Point2D<Double>(x, y + height));
+    }
+
+    @Test
+    public void staysEqualToFreshlyBuiltGraph()
+    {
+        Random random = new Random(11);
+        Plane plane = new Plane(100, 100);
+        List<PlaneActor> actors = new ArrayList<>();
+        for(int i = 0; i < 8; i++)
+        {
+            PlaneActor actor = randomActor(random);
+            actors.add(actor);
+            plane.addActor(actor);
+        }
+        VisibilityGraph graph = plane.getVisibilityGraph();
+
+        for(int round = 0; round < 60; round++)
+        {
+            int action = random.nextInt(3);
+            if(action == 0 || actors.size() < 3)
+            {
+                PlaneActor actor = randomActor(random);
+                actors.add(actor);
+                plane.addActor(actor);
+            }
+            else if(action == 1)
+                plane.removeActor(actors.remove(random.nextInt(actors.size())));
+            else
+                assertTrue(plane.moveActor(actors.get(random.nextInt(actors.size())),
+                        new Point2D<Double>(10 + random.nextDouble() * 80, 10 + random.nextDouble() * 80)));
+
+            VisibilityGraph fresh = new Plane(plane).getVisibilityGraph();
+            assertEquals("round " + round, fresh.nodeCount(), graph.nodeCount());
+            assertEquals("round " + round, edges(fresh), edges(graph));
+        }
+    }
+}